@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import java.util.Calendar;
+
+import static com.vinaygaba.creditcardview.CardType.AMERICAN_EXPRESS;
+import static com.vinaygaba.creditcardview.CardType.DISCOVER;
+import static com.vinaygaba.creditcardview.CardType.MASTERCARD;
+import static com.vinaygaba.creditcardview.CardType.VISA;
+
+/**
+ * Generates realistic card data for benchmarks and load tests: card numbers with the prefixes and
+ * lengths of each {@link CardType} and a valid Luhn check digit, names and expiry dates. The
+ * generator is a seeded xorshift, so the same seed, settings and reference year always give the
+ * same records, and it writes into caller supplied buffers without allocating. A share of the
+ * records can be made invalid, with a wrong check digit or an expired date. Not thread safe, use
+ * one generator per thread.
+ */
+public final class CardDataGenerator {
+
+    public static final int MAX_CARD_NUMBER_LENGTH = 16;
+    public static final int MAX_CARD_NAME_LENGTH = 26;
+    public static final int EXPIRY_DATE_LENGTH = 5;
+
+    private static final int[] TYPES = {VISA, MASTERCARD, AMERICAN_EXPRESS, DISCOVER};
+    // Years after the reference year valid cards expire in
+    private static final int MAX_YEARS_TO_EXPIRY = 5;
+
+    private static final char[][] FIRST_NAMES = toCharArrays(
+            "JAMES", "MARY", "ROBERT", "PATRICIA", "JOHN", "JENNIFER", "MICHAEL", "LINDA",
+            "DAVID", "ELIZABETH", "WILLIAM", "BARBARA", "RICHARD", "SUSAN", "JOSEPH", "JESSICA",
+            "THOMAS", "SARAH", "CHARLES", "KAREN", "VINAY", "PRIYA", "WEI", "YUKI", "AHMED",
+            "FATIMA", "LUCAS", "SOFIA", "MATEO", "EMMA", "OLIVER", "AMELIA");
+    private static final char[][] LAST_NAMES = toCharArrays(
+            "SMITH", "JOHNSON", "WILLIAMS", "BROWN", "JONES", "GARCIA", "MILLER", "DAVIS",
+            "RODRIGUEZ", "MARTINEZ", "HERNANDEZ", "LOPEZ", "GONZALEZ", "WILSON", "ANDERSON",
+            "THOMAS", "TAYLOR", "MOORE", "JACKSON", "MARTIN", "LEE", "PEREZ", "THOMPSON",
+            "WHITE", "GABA", "PATEL", "CHEN", "TANAKA", "KHAN", "MULLER", "SILVA", "O'BRIEN");
+
+    private long mState;
+    // Cumulative brand weights, in the order of TYPES
+    private final int[] mBrandWeights = new int[TYPES.length];
+    private int mInvalidThreshold;
+    private int mReferenceYear;
+
+    private final char[] mScratch = new char[MAX_CARD_NAME_LENGTH];
+    private int mLastType;
+    private boolean mIsLastValid;
+    private boolean mIsLastExpired;
+
+    /**
+     * Creates a generator with an even brand mix, no invalid records and the current year as the
+     * reference for expiry dates
+     */
+    public CardDataGenerator(long seed) {
+        setSeed(seed);
+        setBrandWeights(1, 1, 1, 1);
+        setReferenceYear(Calendar.getInstance().get(Calendar.YEAR));
+    }
+
+    /**
+     * Restarts the sequence of records
+     */
+    public void setSeed(long seed) {
+        // Xorshift gets stuck at zero, and close seeds should not start out alike
+        mState = mix(seed) | 1;
+    }
+
+    /**
+     * Sets how often each brand is generated, relative to the others
+     */
+    public void setBrandWeights(int visa, int mastercard, int americanExpress, int discover) {
+        if (visa < 0 || mastercard < 0 || americanExpress < 0 || discover < 0
+                || visa + mastercard + americanExpress + discover <= 0) {
+            throw new IllegalArgumentException("Weights must not be negative and not all zero");
+        }
+        mBrandWeights[0] = visa;
+        mBrandWeights[1] = mBrandWeights[0] + mastercard;
+        mBrandWeights[2] = mBrandWeights[1] + americanExpress;
+        mBrandWeights[3] = mBrandWeights[2] + discover;
+    }
+
+    /**
+     * Sets the share of records, between 0 and 1, that have a wrong check digit or are expired
+     */
+    public void setInvalidRate(float invalidRate) {
+        if (invalidRate < 0 || invalidRate > 1) {
+            throw new IllegalArgumentException("Invalid rate must be between 0 and 1: "
+                    + invalidRate);
+        }
+        // Compared against 24 random bits
+        mInvalidThreshold = (int) (invalidRate * (1 << 24));
+    }
+
+    /**
+     * Sets the year expiry dates are generated around. Valid records expire in the following
+     * {@value #MAX_YEARS_TO_EXPIRY} years, expired ones before it.
+     */
+    public void setReferenceYear(int referenceYear) {
+        mReferenceYear = referenceYear;
+    }
+
+    /**
+     * Generates the next record into the buffers and returns its card type
+     */
+    public int next(CardFieldBuffer cardNumber, CardFieldBuffer cardName,
+                    CardFieldBuffer expiryDate) {
+        int length = nextCardNumber(mScratch, 0);
+        cardNumber.set(mScratch, 0, length);
+        length = nextCardName(mScratch, 0);
+        cardName.set(mScratch, 0, length);
+        nextExpiryDate(mScratch, 0);
+        expiryDate.set(mScratch, 0, EXPIRY_DATE_LENGTH);
+        return mLastType;
+    }
+
+    /**
+     * Starts a new record and writes its card number, without spaces
+     *
+     * @return the length of the card number, at most {@link #MAX_CARD_NUMBER_LENGTH}.
+     */
+    public int nextCardNumber(char[] dest, int offset) {
+        mLastType = nextType();
+        mIsLastValid = nextInt(1 << 24) >= mInvalidThreshold;
+        // Half of the invalid records get a wrong check digit, the others are expired
+        final boolean hasWrongCheckDigit = !mIsLastValid && nextInt(2) == 0;
+        mIsLastExpired = !mIsLastValid && !hasWrongCheckDigit;
+
+        final int length;
+        int prefixLength;
+        switch (mLastType) {
+            case MASTERCARD:
+                // 51 to 55
+                length = 16;
+                dest[offset] = '5';
+                dest[offset + 1] = (char) ('1' + nextInt(5));
+                prefixLength = 2;
+                break;
+            case AMERICAN_EXPRESS:
+                // 34 or 37
+                length = 15;
+                dest[offset] = '3';
+                dest[offset + 1] = nextInt(2) == 0 ? '4' : '7';
+                prefixLength = 2;
+                break;
+            case DISCOVER:
+                // 6011 or 654 to 659
+                length = 16;
+                dest[offset] = '6';
+                if (nextInt(2) == 0) {
+                    dest[offset + 1] = '0';
+                    dest[offset + 2] = '1';
+                    dest[offset + 3] = '1';
+                    prefixLength = 4;
+                } else {
+                    dest[offset + 1] = '5';
+                    dest[offset + 2] = (char) ('4' + nextInt(6));
+                    prefixLength = 3;
+                }
+                break;
+            default:
+                length = 16;
+                dest[offset] = '4';
+                prefixLength = 1;
+                break;
+        }
+        for (int i = prefixLength; i < length - 1; i++) {
+            dest[offset + i] = (char) ('0' + nextInt(10));
+        }
+
+        int checkDigit = getCheckDigit(dest, offset, length - 1);
+        if (hasWrongCheckDigit) {
+            checkDigit = (checkDigit + 1 + nextInt(9)) % 10;
+        }
+        dest[offset + length - 1] = (char) ('0' + checkDigit);
+        return length;
+    }
+
+    /**
+     * Writes a name for the current record
+     *
+     * @return the length of the name, at most {@link #MAX_CARD_NAME_LENGTH}.
+     */
+    public int nextCardName(char[] dest, int offset) {
+        final char[] first = FIRST_NAMES[nextInt(FIRST_NAMES.length)];
+        final char[] last = LAST_NAMES[nextInt(LAST_NAMES.length)];
+        System.arraycopy(first, 0, dest, offset, first.length);
+        dest[offset + first.length] = ' ';
+        System.arraycopy(last, 0, dest, offset + first.length + 1, last.length);
+        return first.length + 1 + last.length;
+    }
+
+    /**
+     * Writes a MM/YY expiry date for the current record, {@link #EXPIRY_DATE_LENGTH} characters
+     */
+    public void nextExpiryDate(char[] dest, int offset) {
+        final int month = 1 + nextInt(12);
+        final int year = (mIsLastExpired ? mReferenceYear - 1 - nextInt(3)
+                : mReferenceYear + 1 + nextInt(MAX_YEARS_TO_EXPIRY)) % 100;
+        dest[offset] = (char) ('0' + month / 10);
+        dest[offset + 1] = (char) ('0' + month % 10);
+        dest[offset + 2] = '/';
+        dest[offset + 3] = (char) ('0' + year / 10);
+        dest[offset + 4] = (char) ('0' + year % 10);
+    }
+
+    /**
+     * Returns the card type of the current record
+     */
+    public int getLastType() {
+        return mLastType;
+    }
+
+    /**
+     * Returns whether the current record was generated valid
+     */
+    public boolean isLastValid() {
+        return mIsLastValid;
+    }
+
+    private int nextType() {
+        final int pick = nextInt(mBrandWeights[TYPES.length - 1]);
+        for (int i = 0; i < TYPES.length; i++) {
+            if (pick < mBrandWeights[i]) {
+                return TYPES[i];
+            }
+        }
+        return TYPES[TYPES.length - 1];
+    }
+
+    /**
+     * Returns the digit that makes the digits pass the Luhn check when appended
+     */
+    private static int getCheckDigit(char[] digits, int offset, int length) {
+        int sum = 0;
+        // The check digit will be the rightmost digit, so the last digit here is doubled
+        boolean doubled = true;
+        for (int i = offset + length - 1; i >= offset; i--) {
+            int digit = digits[i] - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    /**
+     * Returns a random int from 0 inclusive to bound exclusive, from the high bits of xorshift64*
+     */
+    private int nextInt(int bound) {
+        long x = mState;
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        mState = x;
+        final long random = (x * 0x2545F4914F6CDD1DL) >>> 32;
+        return (int) ((random * bound) >>> 32);
+    }
+
+    private static long mix(long seed) {
+        // SplitMix64 finalizer
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static char[][] toCharArrays(String... strings) {
+        final char[][] arrays = new char[strings.length][];
+        for (int i = 0; i < strings.length; i++) {
+            arrays[i] = strings[i].toCharArray();
+        }
+        return arrays;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import java.util.Arrays;
+
+/**
+ * Reusable, wipeable storage for the text of a card field. Updating it copies characters into
+ * the same array, so typing does not create garbage, and {@link #clear()} overwrites the
+ * characters instead of leaving copies for the garbage collector. The buffer is itself a live
+ * {@link CharSequence} view of its contents.
+ */
+public final class CardFieldBuffer implements CharSequence {
+
+    private static final int INITIAL_CAPACITY = 20;
+
+    private char[] mChars;
+    private int mLength;
+
+    public CardFieldBuffer() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public CardFieldBuffer(int capacity) {
+        mChars = new char[capacity];
+    }
+
+    /**
+     * Replaces the contents
+     *
+     * @return whether the contents changed.
+     */
+    public boolean set(CharSequence text) {
+        return set(text, false);
+    }
+
+    /**
+     * Replaces the contents with the text without its whitespace
+     *
+     * @return whether the contents changed.
+     */
+    public boolean setWithoutWhitespace(CharSequence text) {
+        return set(text, true);
+    }
+
+    /**
+     * Replaces the contents with the embossable form of the text, see {@link EmbossingNormalizer}
+     *
+     * @return whether the contents changed.
+     */
+    public boolean setEmbossed(CharSequence text) {
+        final int textLength = text == null ? 0 : text.length();
+        ensureCapacity(textLength);
+        boolean changed = false;
+        int length = 0;
+        for (int i = 0; i < textLength; i++) {
+            final String replacement = EmbossingNormalizer.getReplacement(text.charAt(i));
+            for (int j = 0; j < replacement.length(); j++) {
+                // Some characters become two
+                ensureCapacity(length + 1);
+                final char c = replacement.charAt(j);
+                if (length >= mLength || mChars[length] != c) {
+                    mChars[length] = c;
+                    changed = true;
+                }
+                length++;
+            }
+        }
+        if (length < mLength) {
+            Arrays.fill(mChars, length, mLength, '\0');
+            changed = true;
+        }
+        mLength = length;
+        return changed;
+    }
+
+    /**
+     * Replaces the contents with a range of characters
+     *
+     * @return whether the contents changed.
+     */
+    public boolean set(char[] chars, int start, int end) {
+        final int textLength = end - start;
+        ensureCapacity(textLength);
+        boolean changed = textLength != mLength;
+        for (int i = 0; i < textLength; i++) {
+            if (mChars[i] != chars[start + i]) {
+                mChars[i] = chars[start + i];
+                changed = true;
+            }
+        }
+        if (textLength < mLength) {
+            Arrays.fill(mChars, textLength, mLength, '\0');
+        }
+        mLength = textLength;
+        return changed;
+    }
+
+    private boolean set(CharSequence text, boolean skipWhitespace) {
+        final int textLength = text == null ? 0 : text.length();
+        ensureCapacity(textLength);
+        boolean changed = false;
+        int length = 0;
+        for (int i = 0; i < textLength; i++) {
+            final char c = text.charAt(i);
+            if (skipWhitespace && Character.isWhitespace(c)) {
+                continue;
+            }
+            if (length >= mLength || mChars[length] != c) {
+                mChars[length] = c;
+                changed = true;
+            }
+            length++;
+        }
+        if (length < mLength) {
+            // Wipe what is left of the longer previous contents
+            Arrays.fill(mChars, length, mLength, '\0');
+            changed = true;
+        }
+        mLength = length;
+        return changed;
+    }
+
+    /**
+     * Copies the contents into {@code dest} and returns the number of characters copied
+     *
+     * @throws IndexOutOfBoundsException if {@code dest} is shorter than {@link #length()}.
+     */
+    public int getChars(char[] dest) {
+        System.arraycopy(mChars, 0, dest, 0, mLength);
+        return mLength;
+    }
+
+    /**
+     * Overwrites the contents with zeros and empties the buffer
+     */
+    public void clear() {
+        Arrays.fill(mChars, '\0');
+        mLength = 0;
+    }
+
+    public boolean isEmpty() {
+        return mLength == 0;
+    }
+
+    @Override
+    public int length() {
+        return mLength;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= mLength) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", length: " + mLength);
+        }
+        return mChars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > mLength || start > end) {
+            throw new IndexOutOfBoundsException("Start: " + start + ", end: " + end
+                    + ", length: " + mLength);
+        }
+        return new String(mChars, start, end - start);
+    }
+
+    /**
+     * Returns the contents as a new String, which can not be wiped
+     */
+    @Override
+    public String toString() {
+        return new String(mChars, 0, mLength);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= mChars.length) {
+            return;
+        }
+        final char[] chars = new char[Math.max(capacity, mChars.length * 2)];
+        // All of the old array, it can be written past mLength while the contents are replaced
+        System.arraycopy(mChars, 0, chars, 0, mChars.length);
+        Arrays.fill(mChars, '\0');
+        mChars = chars;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import java.util.Calendar;
+
+import static com.vinaygaba.creditcardview.CardType.AUTO;
+import static com.vinaygaba.creditcardview.CardType.VISA;
+
+/**
+ * Tracks which fields of a card form are valid in a single bitmask. The validator reads the
+ * fields through the {@link CharSequence}s it was created with, and {@link #validate(int)} only
+ * re-checks the fields it is given, plus the cvv when the card type changes its length.
+ * Not thread safe.
+ */
+public final class CardFormValidator {
+
+    public static final int CARD_NUMBER = 1;
+    public static final int CARD_NAME = 1 << 1;
+    public static final int EXPIRY_DATE = 1 << 2;
+    public static final int CVV = 1 << 3;
+    public static final int ALL_FIELDS = CARD_NUMBER | CARD_NAME | EXPIRY_DATE | CVV;
+
+    private final CharSequence mCardNumber;
+    private final CharSequence mCardName;
+    private final CharSequence mExpiryDate;
+    private final CharSequence mCvv;
+    private int mType = AUTO;
+    // Type detected from the card number when it was last validated
+    private int mDetectedType = VISA;
+    // Type the cvv was last validated against
+    private int mCvvType = VISA;
+    private int mValidFields;
+
+    public CardFormValidator(CharSequence cardNumber, CharSequence cardName,
+                             CharSequence expiryDate, CharSequence cvv) {
+        mCardNumber = cardNumber;
+        mCardName = cardName;
+        mExpiryDate = expiryDate;
+        mCvv = cvv;
+    }
+
+    /**
+     * Sets the card type the cvv is validated against, {@link CardType#AUTO} to detect it from the
+     * card number. Takes effect on the next {@link #validate(int)}.
+     */
+    public void setType(int type) {
+        mType = type;
+    }
+
+    /**
+     * Re-checks the given fields and returns the bitmask of the valid fields
+     *
+     * @param fields the {@code CARD_NUMBER}, {@code CARD_NAME}, {@code EXPIRY_DATE} and
+     *               {@code CVV} flags of the fields that changed.
+     */
+    public int validate(int fields) {
+        if ((fields & CARD_NUMBER) != 0) {
+            mDetectedType = CardTypeDetector.detect(mCardNumber);
+            setValid(CARD_NUMBER, CardValidator.isValidCardNumber(mCardNumber));
+        }
+        final int type = getType();
+        if (type != mCvvType) {
+            mCvvType = type;
+            fields |= CVV;
+        }
+        if ((fields & CARD_NAME) != 0) {
+            setValid(CARD_NAME, isValidCardName(mCardName));
+        }
+        if ((fields & EXPIRY_DATE) != 0) {
+            final Calendar now = Calendar.getInstance();
+            setValid(EXPIRY_DATE, CardValidator.isValidExpiryDate(mExpiryDate,
+                    now.get(Calendar.YEAR), now.get(Calendar.MONTH) + 1));
+        }
+        if ((fields & CVV) != 0) {
+            setValid(CVV, CardValidator.isValidCvv(mCvv, type));
+        }
+        return mValidFields;
+    }
+
+    /**
+     * Returns the bitmask of the fields that were valid when they were last validated
+     */
+    public int getValidFields() {
+        return mValidFields;
+    }
+
+    public boolean isComplete() {
+        return mValidFields == ALL_FIELDS;
+    }
+
+    /**
+     * Returns the card type the cvv is validated against, the detected type in auto mode
+     */
+    public int getType() {
+        return mType == AUTO ? mDetectedType : mType;
+    }
+
+    /**
+     * Returns the number of cvv digits expected for the current card type
+     */
+    public int getCvvLength() {
+        return CardValidator.getCvvLength(getType());
+    }
+
+    /**
+     * Returns whether a name has a letter and only characters that can be embossed, the same
+     * ones the name field keeps, see {@link EmbossingNormalizer}
+     */
+    static boolean isValidCardName(CharSequence cardName) {
+        boolean hasLetter = false;
+        for (int i = 0; i < cardName.length(); i++) {
+            final char c = cardName.charAt(i);
+            if (EmbossingNormalizer.getReplacement(c).length() == 0) {
+                return false;
+            }
+            if (Character.isLetter(c)) {
+                hasLetter = true;
+            }
+        }
+        return hasLetter;
+    }
+
+    private void setValid(int field, boolean valid) {
+        if (valid) {
+            mValidFields |= field;
+        } else {
+            mValidFields &= ~field;
+        }
+    }
+}
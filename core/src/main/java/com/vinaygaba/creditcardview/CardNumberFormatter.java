@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import static com.vinaygaba.creditcardview.CardNumberFormat.ALL_DIGITS;
+import static com.vinaygaba.creditcardview.CardNumberFormat.MASKED_ALL;
+import static com.vinaygaba.creditcardview.CardNumberFormat.MASKED_ALL_BUT_LAST_FOUR;
+import static com.vinaygaba.creditcardview.CardNumberFormat.ONLY_LAST_FOUR;
+
+/**
+ * Formats card numbers for display: groups of four digits and the masked
+ * {@link CardNumberFormat}s.
+ */
+public final class CardNumberFormatter {
+
+    /**
+     * Adds space after every 4 characters to the card number if the card number is divisible by 4
+     */
+    public static String addSpaces(CharSequence cardNumber) {
+        if (cardNumber.length() % 4 != 0) {
+            return cardNumber.toString();
+        }
+        final StringBuilder result =
+                new StringBuilder(cardNumber.length() + cardNumber.length() / 4);
+        for (int i = 0; i < cardNumber.length(); i++) {
+            if (i % 4 == 0 && i != 0 && i != cardNumber.length() - 1) {
+                result.append(' ');
+            }
+            result.append(cardNumber.charAt(i));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns the card number without any whitespace. Returns the same instance if there is none.
+     */
+    public static CharSequence removeSpaces(CharSequence cardNumber) {
+        int i = 0;
+        final int length = cardNumber.length();
+        while (i < length && !Character.isWhitespace(cardNumber.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return cardNumber;
+        }
+        final StringBuilder result = new StringBuilder(length);
+        result.append(cardNumber, 0, i);
+        for (; i < length; i++) {
+            final char c = cardNumber.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                result.append(c);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the card number the way it is displayed in a {@link CardNumberFormat}. Masked
+     * formats return a {@link MaskedCardNumber} of the same length, which reads the last digits
+     * from the card number on demand, without copying them.
+     */
+    public static CharSequence mask(CharSequence cardNumber, int cardNumberFormat) {
+        switch (cardNumberFormat) {
+            case ALL_DIGITS:
+                return cardNumber;
+            case MASKED_ALL_BUT_LAST_FOUR:
+            case ONLY_LAST_FOUR:
+            case MASKED_ALL:
+                return new MaskedCardNumber(cardNumber, cardNumberFormat);
+            default:
+                throw new IllegalArgumentException("Unknown card number format: "
+                        + cardNumberFormat);
+        }
+    }
+
+    private CardNumberFormatter() {
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import java.util.Arrays;
+
+import static com.vinaygaba.creditcardview.CardFormValidator.CARD_NAME;
+import static com.vinaygaba.creditcardview.CardFormValidator.CARD_NUMBER;
+import static com.vinaygaba.creditcardview.CardFormValidator.EXPIRY_DATE;
+
+/**
+ * Picks a card number, an expiry date and a cardholder name out of free text, such as pasted
+ * card details or the output of a card scanner. The text is read once, character by character,
+ * by three small state machines:
+ * <ul>
+ * <li>the card number is the first run of 12 to 19 digits, optionally grouped by single spaces
+ * or hyphens, that passes the Luhn check. When a whole run does not, the longest run of whole
+ * groups inside it that does is used, the first one if there are several, so numbers before or
+ * after the card number on the same line do not hide it.</li>
+ * <li>the expiry date is the latest MM/YY or MM/YYYY date. Tokens with a second slash, such as
+ * 12/05/2025, are full dates and are skipped up to the next whitespace.</li>
+ * <li>the name is the first line of two to four words made only of letters, apart from
+ * {@code .}, {@code '} and {@code -}, with no label such as "VALID THRU" or receipt words such
+ * as "TOTAL", that fits the name field. It is returned in its embossable form, see
+ * {@link EmbossingNormalizer}.</li>
+ * </ul>
+ * The parser keeps its state in reusable arrays, which are wiped after each parse. Not thread
+ * safe.
+ */
+public final class CardTextParser {
+
+    private static final int MIN_CARD_NUMBER_LENGTH = 12;
+    private static final int MAX_CARD_NUMBER_LENGTH = 19;
+    private static final int MAX_CARD_NAME_LENGTH = 26;
+    private static final int MIN_CARD_NAME_WORDS = 2;
+    private static final int MAX_CARD_NAME_WORDS = 4;
+    private static final int EXPIRY_DATE_LENGTH = 5;
+
+    // Words printed on cards, receipts and order confirmations which are not part of a name
+    private static final char[][] LABELS = {
+            "VALID".toCharArray(), "THRU".toCharArray(), "FROM".toCharArray(),
+            "GOOD".toCharArray(), "UNTIL".toCharArray(), "EXPIRES".toCharArray(),
+            "EXPIRY".toCharArray(), "EXP".toCharArray(), "DATE".toCharArray(),
+            "MONTH".toCharArray(), "YEAR".toCharArray(), "CARD".toCharArray(),
+            "CARDHOLDER".toCharArray(), "NAME".toCharArray(), "NUMBER".toCharArray(),
+            "VISA".toCharArray(), "MASTERCARD".toCharArray(), "AMERICAN".toCharArray(),
+            "EXPRESS".toCharArray(), "DISCOVER".toCharArray(), "DEBIT".toCharArray(),
+            "CREDIT".toCharArray(), "BANK".toCharArray(), "MEMBER".toCharArray(),
+            "SINCE".toCharArray(), "PLATINUM".toCharArray(), "GOLD".toCharArray(),
+            "CLASSIC".toCharArray(), "SIGNATURE".toCharArray(), "AUTHORIZED".toCharArray(),
+            "CVV".toCharArray(), "CVC".toCharArray(), "SECURITY".toCharArray(),
+            "CODE".toCharArray(), "THANK".toCharArray(), "THANKS".toCharArray(),
+            "YOU".toCharArray(), "YOUR".toCharArray(), "FOR".toCharArray(),
+            "THE".toCharArray(), "AND".toCharArray(), "ORDER".toCharArray(),
+            "RECEIPT".toCharArray(), "INVOICE".toCharArray(), "TOTAL".toCharArray(),
+            "SUBTOTAL".toCharArray(), "TAX".toCharArray(), "AMOUNT".toCharArray(),
+            "BALANCE".toCharArray(), "PAID".toCharArray(), "PAYMENT".toCharArray(),
+            "PURCHASE".toCharArray(), "SALE".toCharArray(), "APPROVED".toCharArray(),
+            "CHANGE".toCharArray(), "CASH".toCharArray(), "PRICE".toCharArray(),
+            "ITEM".toCharArray(), "SHIPPING".toCharArray(), "BILLING".toCharArray(),
+            "ADDRESS".toCharArray(), "PHONE".toCharArray(), "EMAIL".toCharArray(),
+            "TIME".toCharArray()
+    };
+
+    // Last digits of the current run, and the number of digits before each separator in them.
+    // Groups are dropped from the front once no card number can start with them.
+    private final char[] mRun = new char[MAX_CARD_NUMBER_LENGTH];
+    private final int[] mGroupEnds = new int[MAX_CARD_NUMBER_LENGTH];
+    private int mRunLength;
+    private int mGroupCount;
+    // Whether the current group is longer than a card number
+    private boolean mIsRunTooLong;
+    private boolean mIsAfterSeparator;
+    // Whether the card number was found in an earlier run
+    private boolean mHasCardNumber;
+
+    // Current run of digits for the month, and the year digits after a slash
+    private int mDigitCount;
+    private int mDigitValue;
+    private int mMonth;
+    private boolean mIsAfterSlash;
+    private int mYearDigitCount;
+    private int mYearValue;
+    // Whether the rest of the current token is skipped
+    private boolean mIsTokenRejected;
+
+    // Current line, as a name candidate
+    private final char[] mLine = new char[MAX_CARD_NAME_LENGTH];
+    private int mLineLength;
+    private int mWordStart;
+    private int mWordCount;
+    private boolean mIsInWord;
+    private boolean mIsLineRejected;
+    private int mMaxCardNameLength = MAX_CARD_NAME_LENGTH;
+
+    private final char[] mCardNumber = new char[MAX_CARD_NUMBER_LENGTH];
+    private int mCardNumberLength;
+    private final char[] mExpiryDate = new char[EXPIRY_DATE_LENGTH];
+    // Expiry date as months since the year 2000 for finding the latest, -1 if none was found
+    private int mExpiryMonths;
+    private final char[] mCardName = new char[MAX_CARD_NAME_LENGTH];
+    private int mCardNameLength;
+
+    /**
+     * Sets the longest name that is picked, such as the length of the name field. Longer lines
+     * are not taken as a name. At most 26, the default.
+     */
+    public void setMaxCardNameLength(int maxCardNameLength) {
+        if (maxCardNameLength < 1 || maxCardNameLength > MAX_CARD_NAME_LENGTH) {
+            throw new IllegalArgumentException("maxCardNameLength: " + maxCardNameLength
+                    + " is not between 1 and " + MAX_CARD_NAME_LENGTH);
+        }
+        mMaxCardNameLength = maxCardNameLength;
+    }
+
+    /**
+     * Reads the text and puts what it finds into the buffers. Buffers of fields which were not
+     * found are left as they are.
+     *
+     * @return the {@link CardFormValidator#CARD_NUMBER}, {@link CardFormValidator#EXPIRY_DATE} and
+     * {@link CardFormValidator#CARD_NAME} flags of the fields that were found.
+     */
+    public int parse(CharSequence text, CardFieldBuffer cardNumber, CardFieldBuffer expiryDate,
+                     CardFieldBuffer cardName) {
+        reset();
+        final int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            // The end of the text ends the last run and line
+            final char c = i < length ? text.charAt(i) : '\n';
+            readCardNumber(c);
+            readExpiryDate(c);
+            readCardName(c);
+        }
+
+        int found = 0;
+        if (mCardNumberLength > 0) {
+            cardNumber.set(mCardNumber, 0, mCardNumberLength);
+            found |= CARD_NUMBER;
+        }
+        if (mExpiryMonths >= 0) {
+            expiryDate.set(mExpiryDate, 0, EXPIRY_DATE_LENGTH);
+            found |= EXPIRY_DATE;
+        }
+        if (mCardNameLength > 0) {
+            cardName.set(mCardName, 0, mCardNameLength);
+            found |= CARD_NAME;
+        }
+        wipe();
+        return found;
+    }
+
+    private void readCardNumber(char c) {
+        if (c >= '0' && c <= '9') {
+            if (mRunLength == MAX_CARD_NUMBER_LENGTH && !mIsRunTooLong) {
+                if (mGroupCount == 0) {
+                    mIsRunTooLong = true;
+                } else {
+                    // Make room by dropping the first group, after trying the numbers starting
+                    // with it
+                    findCardNumber(0, false);
+                    dropFirstGroup();
+                }
+            }
+            if (!mIsRunTooLong) {
+                mRun[mRunLength++] = c;
+            }
+            mIsAfterSeparator = false;
+        } else if ((c == ' ' || c == '-') && mRunLength > 0 && !mIsAfterSeparator) {
+            if (mIsRunTooLong) {
+                // No card number goes across a group that is too long
+                endRun();
+                return;
+            }
+            mIsAfterSeparator = true;
+            mGroupEnds[mGroupCount++] = mRunLength;
+        } else if (mRunLength > 0) {
+            endRun();
+        }
+    }
+
+    private void endRun() {
+        for (int i = 0; i <= mGroupCount; i++) {
+            findCardNumber(i == 0 ? 0 : mGroupEnds[i - 1], !mIsRunTooLong);
+        }
+        if (mCardNumberLength > 0) {
+            mHasCardNumber = true;
+        }
+        Arrays.fill(mRun, 0, mRunLength, '\0');
+        mRunLength = 0;
+        mGroupCount = 0;
+        mIsRunTooLong = false;
+        mIsAfterSeparator = false;
+    }
+
+    /**
+     * Keeps the longest card number of the current run that starts at {@code start} and ends
+     * with a group, or with the run if {@code toRunEnd} is set
+     */
+    private void findCardNumber(int start, boolean toRunEnd) {
+        if (mHasCardNumber) {
+            return;
+        }
+        if (toRunEnd && isCardNumber(start, mRunLength)) {
+            acceptCardNumber(start, mRunLength);
+            return;
+        }
+        for (int i = mGroupCount - 1; i >= 0; i--) {
+            if (mGroupEnds[i] > start && isCardNumber(start, mGroupEnds[i])) {
+                acceptCardNumber(start, mGroupEnds[i]);
+                return;
+            }
+        }
+    }
+
+    private void dropFirstGroup() {
+        final int dropped = mGroupEnds[0];
+        System.arraycopy(mRun, dropped, mRun, 0, mRunLength - dropped);
+        Arrays.fill(mRun, mRunLength - dropped, mRunLength, '\0');
+        mRunLength -= dropped;
+        mGroupCount--;
+        for (int i = 0; i < mGroupCount; i++) {
+            mGroupEnds[i] = mGroupEnds[i + 1] - dropped;
+        }
+    }
+
+    /**
+     * Returns whether the digits of the current run between {@code start} and {@code end} have
+     * the length of a card number and pass the Luhn check
+     */
+    private boolean isCardNumber(int start, int end) {
+        final int length = end - start;
+        if (length < MIN_CARD_NUMBER_LENGTH || length > MAX_CARD_NUMBER_LENGTH) {
+            return false;
+        }
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = end - 1; i >= start; i--) {
+            int digit = mRun[i] - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+
+    /**
+     * Keeps a card number of the current run unless a longer one was already found in it
+     */
+    private void acceptCardNumber(int start, int end) {
+        if (end - start <= mCardNumberLength) {
+            return;
+        }
+        System.arraycopy(mRun, start, mCardNumber, 0, end - start);
+        mCardNumberLength = end - start;
+    }
+
+    private void readExpiryDate(char c) {
+        if (mIsTokenRejected) {
+            mIsTokenRejected = !Character.isWhitespace(c);
+            return;
+        }
+        if (c >= '0' && c <= '9') {
+            final int digit = c - '0';
+            if (mDigitCount < 2) {
+                mDigitValue = mDigitValue * 10 + digit;
+            }
+            mDigitCount++;
+            if (mIsAfterSlash) {
+                mYearDigitCount++;
+                if (mYearDigitCount <= 4) {
+                    mYearValue = mYearValue * 10 + digit;
+                }
+            }
+            return;
+        }
+
+        if (c == '/' && (mIsAfterSlash || mDigitCount != 2)) {
+            // A second slash, or one that does not follow a two digit month, makes the token a
+            // full date such as 12/05/2025 rather than an expiry date
+            mIsTokenRejected = true;
+            mIsAfterSlash = false;
+        } else if (mIsAfterSlash) {
+            if (mYearDigitCount == 2 || mYearDigitCount == 4) {
+                acceptExpiryDate(mMonth, mYearValue % 100);
+            }
+            mIsAfterSlash = false;
+        } else if (c == '/') {
+            mMonth = mDigitValue;
+            mIsAfterSlash = true;
+            mYearDigitCount = 0;
+            mYearValue = 0;
+        }
+        mDigitCount = 0;
+        mDigitValue = 0;
+    }
+
+    private void acceptExpiryDate(int month, int year) {
+        if (month < 1 || month > 12) {
+            return;
+        }
+        final int months = year * 12 + month - 1;
+        if (months <= mExpiryMonths) {
+            return;
+        }
+        mExpiryMonths = months;
+        mExpiryDate[0] = (char) ('0' + month / 10);
+        mExpiryDate[1] = (char) ('0' + month % 10);
+        mExpiryDate[2] = '/';
+        mExpiryDate[3] = (char) ('0' + year / 10);
+        mExpiryDate[4] = (char) ('0' + year % 10);
+    }
+
+    private void readCardName(char c) {
+        if (c == '\n' || c == '\r') {
+            endLine();
+            return;
+        }
+        if (mIsLineRejected) {
+            return;
+        }
+        if (Character.isLetter(c) || ((c == '.' || c == '\'' || c == '-') && mIsInWord)) {
+            // Names are kept in their embossable form, lines with letters that have none are not
+            // names that can be on a card
+            final String replacement = EmbossingNormalizer.getReplacement(c);
+            if (replacement.length() == 0) {
+                mIsLineRejected = true;
+                return;
+            }
+            if (!mIsInWord) {
+                mIsInWord = true;
+                mWordStart = mLineLength;
+            }
+            for (int i = 0; i < replacement.length(); i++) {
+                appendToLine(replacement.charAt(i));
+            }
+        } else if (c == ' ' || c == '\t') {
+            endWord();
+            // Runs of spaces become one
+            if (mLineLength > 0 && mLine[mLineLength - 1] != ' ') {
+                appendToLine(' ');
+            }
+        } else {
+            mIsLineRejected = true;
+        }
+    }
+
+    private void appendToLine(char c) {
+        if (mLineLength < mMaxCardNameLength) {
+            mLine[mLineLength++] = c;
+        } else {
+            mIsLineRejected = true;
+        }
+    }
+
+    private void endWord() {
+        if (!mIsInWord) {
+            return;
+        }
+        mIsInWord = false;
+        mWordCount++;
+        if (mWordCount > MAX_CARD_NAME_WORDS || isLabel(mWordStart, mLineLength)) {
+            mIsLineRejected = true;
+        }
+    }
+
+    private boolean isLabel(int start, int end) {
+        for (char[] label : LABELS) {
+            if (label.length != end - start) {
+                continue;
+            }
+            int i = 0;
+            while (i < label.length && label[i] == mLine[start + i]) {
+                i++;
+            }
+            if (i == label.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void endLine() {
+        if (!mIsLineRejected) {
+            endWord();
+        }
+        int length = mLineLength;
+        if (length > 0 && mLine[length - 1] == ' ') {
+            length--;
+        }
+        if (!mIsLineRejected && mWordCount >= MIN_CARD_NAME_WORDS && mCardNameLength == 0) {
+            System.arraycopy(mLine, 0, mCardName, 0, length);
+            mCardNameLength = length;
+        }
+        mLineLength = 0;
+        mWordCount = 0;
+        mIsInWord = false;
+        mIsLineRejected = false;
+    }
+
+    private void reset() {
+        mRunLength = 0;
+        mGroupCount = 0;
+        mIsRunTooLong = false;
+        mIsAfterSeparator = false;
+        mHasCardNumber = false;
+        mDigitCount = 0;
+        mDigitValue = 0;
+        mIsAfterSlash = false;
+        mIsTokenRejected = false;
+        mLineLength = 0;
+        mWordCount = 0;
+        mIsInWord = false;
+        mIsLineRejected = false;
+        mCardNumberLength = 0;
+        mExpiryMonths = -1;
+        mCardNameLength = 0;
+    }
+
+    /**
+     * Overwrites the card data the parser holds once it has been handed out
+     */
+    private void wipe() {
+        Arrays.fill(mRun, '\0');
+        Arrays.fill(mCardNumber, '\0');
+        Arrays.fill(mLine, '\0');
+        Arrays.fill(mCardName, '\0');
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import java.util.regex.Pattern;
+
+import static com.vinaygaba.creditcardview.CardType.AMERICAN_EXPRESS;
+import static com.vinaygaba.creditcardview.CardType.DISCOVER;
+import static com.vinaygaba.creditcardview.CardType.MASTERCARD;
+import static com.vinaygaba.creditcardview.CardType.PATTERN_AMERICAN_EXPRESS;
+import static com.vinaygaba.creditcardview.CardType.PATTERN_DISCOVER;
+import static com.vinaygaba.creditcardview.CardType.PATTERN_MASTER_CARD;
+import static com.vinaygaba.creditcardview.CardType.VISA;
+
+/**
+ * Detects the {@link CardType} of a card number. The patterns are compiled once and shared, the
+ * detector is safe to use from any thread.
+ */
+public final class CardTypeDetector {
+
+    private static final Pattern MASTER_CARD = Pattern.compile(PATTERN_MASTER_CARD);
+    private static final Pattern AMERICAN_EXPRESS_CARD = Pattern.compile(PATTERN_AMERICAN_EXPRESS);
+    private static final Pattern DISCOVER_CARD = Pattern.compile(PATTERN_DISCOVER);
+
+    /**
+     * Returns the type of a card number, ignoring spaces. Numbers that match no other type are
+     * {@link CardType#VISA}.
+     */
+    public static int detect(CharSequence cardNumber) {
+        if (cardNumber == null || cardNumber.length() == 0) {
+            return VISA;
+        }
+        final CharSequence digits = CardNumberFormatter.removeSpaces(cardNumber);
+        if (MASTER_CARD.matcher(digits).matches()) {
+            return MASTERCARD;
+        } else if (AMERICAN_EXPRESS_CARD.matcher(digits).matches()) {
+            return AMERICAN_EXPRESS;
+        } else if (DISCOVER_CARD.matcher(digits).matches()) {
+            return DISCOVER;
+        }
+        return VISA;
+    }
+
+    private CardTypeDetector() {
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import static com.vinaygaba.creditcardview.CardType.AMERICAN_EXPRESS;
+
+/**
+ * Validates card numbers, expiry dates and cvvs
+ */
+public final class CardValidator {
+
+    private static final int MIN_CARD_NUMBER_LENGTH = 12;
+    private static final int MAX_CARD_NUMBER_LENGTH = 19;
+
+    /**
+     * Returns whether a card number, ignoring spaces, has a valid length and passes the Luhn check
+     */
+    public static boolean isValidCardNumber(CharSequence cardNumber) {
+        int digits = 0;
+        for (int i = 0; i < cardNumber.length(); i++) {
+            final char c = cardNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (!Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return digits >= MIN_CARD_NUMBER_LENGTH && digits <= MAX_CARD_NUMBER_LENGTH
+                && passesLuhnCheck(cardNumber);
+    }
+
+    /**
+     * Returns whether the digits of a card number pass the Luhn checksum. Characters other than
+     * digits are skipped.
+     */
+    public static boolean passesLuhnCheck(CharSequence cardNumber) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = cardNumber.length() - 1; i >= 0; i--) {
+            final char c = cardNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            }
+            int digit = c - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+
+    /**
+     * Returns whether an expiry date is a MM/YY date that is not before the given month
+     *
+     * @param currentYear  the current year, e.g. 2015.
+     * @param currentMonth the current month, 1 for January.
+     */
+    public static boolean isValidExpiryDate(CharSequence expiryDate, int currentYear,
+                                            int currentMonth) {
+        if (expiryDate.length() != 5 || expiryDate.charAt(2) != '/') {
+            return false;
+        }
+        final int month = parseTwoDigits(expiryDate, 0);
+        final int year = parseTwoDigits(expiryDate, 3);
+        if (month < 1 || month > 12 || year < 0) {
+            return false;
+        }
+        final int fullYear = currentYear - currentYear % 100 + year;
+        return fullYear > currentYear || (fullYear == currentYear && month >= currentMonth);
+    }
+
+    /**
+     * Returns the number of cvv digits printed on cards of a type
+     */
+    public static int getCvvLength(int type) {
+        return type == AMERICAN_EXPRESS ? 4 : 3;
+    }
+
+    /**
+     * Returns whether a cvv has the number of digits used by cards of a type
+     */
+    public static boolean isValidCvv(CharSequence cvv, int type) {
+        if (cvv.length() != getCvvLength(type)) {
+            return false;
+        }
+        for (int i = 0; i < cvv.length(); i++) {
+            if (cvv.charAt(i) < '0' || cvv.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseTwoDigits(CharSequence text, int start) {
+        final char tens = text.charAt(start);
+        final char ones = text.charAt(start + 1);
+        if (tens < '0' || tens > '9' || ones < '0' || ones > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    private CardValidator() {
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+/**
+ * Maps text to the characters that can be embossed on a card and printed in the card font:
+ * upper case A to Z, digits, space and {@code . - ' , / &}. Accented Latin letters lose their
+ * accents, some letters become two, e.g. \u00df becomes SS, and characters without an embossable
+ * form are dropped. The replacement of every character is looked up in a table built once, so
+ * normalizing does not allocate for text that is already embossable or for single characters.
+ */
+public final class EmbossingNormalizer {
+
+    // Covers Latin-1 and Latin Extended-A and B
+    private static final int TABLE_SIZE = 0x250;
+    private static final String NONE = "";
+    private static final String APOSTROPHE = "'";
+    private static final String[] REPLACEMENTS = new String[TABLE_SIZE];
+
+    static {
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            REPLACEMENTS[c] = NONE;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            REPLACEMENTS[c] = String.valueOf(c);
+            REPLACEMENTS[Character.toLowerCase(c)] = REPLACEMENTS[c];
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            REPLACEMENTS[c] = String.valueOf(c);
+        }
+        map(" .-',/&", null);
+        // Letters without a decomposition
+        map("\u00d0\u00f0\u0110\u0111", "D");
+        map("\u00d8\u00f8", "O");
+        map("\u0126\u0127", "H");
+        map("\u0131", "I");
+        map("\u0138", "K");
+        map("\u013f\u0140\u0141\u0142", "L");
+        map("\u0149\u014a\u014b", "N");
+        map("\u0166\u0167", "T");
+        map("\u017f", "S");
+        // Ligatures and letters written as two letters
+        map("\u00df", "SS");
+        map("\u00c6\u00e6", "AE");
+        map("\u0152\u0153", "OE");
+        map("\u00de\u00fe", "TH");
+        map("\u0132\u0133", "IJ");
+        map("\u01c4\u01c5\u01c6\u01f1\u01f2\u01f3", "DZ");
+        map("\u01c7\u01c8\u01c9", "LJ");
+        map("\u01ca\u01cb\u01cc", "NJ");
+        // No-break space
+        map("\u00a0", " ");
+        // Accented letters
+        map("\u00c0\u00c1\u00c2\u00c3\u00c4\u00c5\u00e0\u00e1\u00e2\u00e3"
+                + "\u00e4\u00e5\u0100\u0101\u0102\u0103\u0104\u0105\u01cd\u01ce"
+                + "\u01de\u01df\u01e0\u01e1\u01fa\u01fb\u0200\u0201\u0202\u0203"
+                + "\u0226\u0227", "A");
+        map("\u00c7\u00e7\u0106\u0107\u0108\u0109\u010a\u010b\u010c\u010d", "C");
+        map("\u010e\u010f", "D");
+        map("\u00c8\u00c9\u00ca\u00cb\u00e8\u00e9\u00ea\u00eb\u0112\u0113"
+                + "\u0114\u0115\u0116\u0117\u0118\u0119\u011a\u011b\u0204\u0205"
+                + "\u0206\u0207\u0228\u0229", "E");
+        map("\u011c\u011d\u011e\u011f\u0120\u0121\u0122\u0123\u01e6\u01e7"
+                + "\u01f4\u01f5", "G");
+        map("\u0124\u0125\u021e\u021f", "H");
+        map("\u00cc\u00cd\u00ce\u00cf\u00ec\u00ed\u00ee\u00ef\u0128\u0129"
+                + "\u012a\u012b\u012c\u012d\u012e\u012f\u0130\u01cf\u01d0\u0208"
+                + "\u0209\u020a\u020b", "I");
+        map("\u0134\u0135\u01f0", "J");
+        map("\u0136\u0137\u01e8\u01e9", "K");
+        map("\u0139\u013a\u013b\u013c\u013d\u013e", "L");
+        map("\u00d1\u00f1\u0143\u0144\u0145\u0146\u0147\u0148\u01f8\u01f9", "N");
+        map("\u00d2\u00d3\u00d4\u00d5\u00d6\u00f2\u00f3\u00f4\u00f5\u00f6"
+                + "\u014c\u014d\u014e\u014f\u0150\u0151\u01a0\u01a1\u01d1\u01d2"
+                + "\u01ea\u01eb\u01ec\u01ed\u020c\u020d\u020e\u020f\u022a\u022b"
+                + "\u022c\u022d\u022e\u022f\u0230\u0231", "O");
+        map("\u0154\u0155\u0156\u0157\u0158\u0159\u0210\u0211\u0212\u0213", "R");
+        map("\u015a\u015b\u015c\u015d\u015e\u015f\u0160\u0161\u0218\u0219", "S");
+        map("\u0162\u0163\u0164\u0165\u021a\u021b", "T");
+        map("\u00d9\u00da\u00db\u00dc\u00f9\u00fa\u00fb\u00fc\u0168\u0169"
+                + "\u016a\u016b\u016c\u016d\u016e\u016f\u0170\u0171\u0172\u0173"
+                + "\u01af\u01b0\u01d3\u01d4\u01d5\u01d6\u01d7\u01d8\u01d9\u01da"
+                + "\u01db\u01dc\u0214\u0215\u0216\u0217", "U");
+        map("\u0174\u0175", "W");
+        map("\u00dd\u00fd\u00ff\u0176\u0177\u0178\u0232\u0233", "Y");
+        map("\u0179\u017a\u017b\u017c\u017d\u017e", "Z");
+    }
+
+    /**
+     * Sets the replacement of each of the characters, null to keep them as they are
+     */
+    private static void map(String chars, String replacement) {
+        for (int i = 0; i < chars.length(); i++) {
+            final char c = chars.charAt(i);
+            REPLACEMENTS[c] = replacement != null ? replacement : String.valueOf(c);
+        }
+    }
+
+    /**
+     * Returns the embossable replacement of a character, the character itself if it is
+     * embossable and an empty String if it has no embossable form
+     */
+    public static String getReplacement(char c) {
+        if (c < TABLE_SIZE) {
+            return REPLACEMENTS[c];
+        }
+        // Typographic apostrophes are common in names
+        if (c == '\u2018' || c == '\u2019') {
+            return APOSTROPHE;
+        }
+        return NONE;
+    }
+
+    public static boolean isEmbossable(char c) {
+        return c < TABLE_SIZE && REPLACEMENTS[c].length() == 1 && REPLACEMENTS[c].charAt(0) == c;
+    }
+
+    /**
+     * Returns whether a range of the text only has embossable characters
+     */
+    public static boolean isEmbossable(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isEmbossable(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the embossable form of a range of the text
+     */
+    public static String normalize(CharSequence text, int start, int end) {
+        final StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            builder.append(getReplacement(text.charAt(i)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the embossable form of the text, an empty String for null
+     */
+    public static String normalize(CharSequence text) {
+        return text == null ? NONE : normalize(text, 0, text.length());
+    }
+
+    private EmbossingNormalizer() {
+    }
+}
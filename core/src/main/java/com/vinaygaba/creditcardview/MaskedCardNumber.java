@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import static com.vinaygaba.creditcardview.CardNumberFormat.MASKED_ALL;
+import static com.vinaygaba.creditcardview.CardNumberFormat.ONLY_LAST_FOUR;
+
+/**
+ * Masked view of a card number, reads the digits from the source on demand so it never holds a
+ * copy of them. It has the length and the spaces of the source, each masked digit is replaced by
+ * {@code '*'} and the last four are shown in place. Created by
+ * {@link CardNumberFormatter#mask(CharSequence, int)}.
+ */
+public final class MaskedCardNumber implements CharSequence {
+
+    private static final char MASK = '*';
+    private static final int LAST_FOUR = 4;
+
+    private final CharSequence mSource;
+    private final int mCardNumberFormat;
+
+    MaskedCardNumber(CharSequence source, int cardNumberFormat) {
+        mSource = source;
+        mCardNumberFormat = cardNumberFormat;
+    }
+
+    /**
+     * Returns the index the displayed part starts at. For {@link CardNumberFormat#ONLY_LAST_FOUR}
+     * it is the first of the last four digits and the characters before it are meant to be
+     * hidden, for the other formats it is 0.
+     */
+    public int getVisibleStart() {
+        return mCardNumberFormat == ONLY_LAST_FOUR ? getLastFourStart() : 0;
+    }
+
+    @Override
+    public int length() {
+        return mSource.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        final char c = mSource.charAt(index);
+        if (Character.isWhitespace(c)) {
+            return c;
+        }
+        if (mCardNumberFormat != MASKED_ALL && index >= getLastFourStart()) {
+            return c;
+        }
+        return MASK;
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        final StringBuilder result = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            result.append(charAt(i));
+        }
+        return result.toString();
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length()).toString();
+    }
+
+    /**
+     * Returns the index of the first of the last four digits, 0 if there are fewer
+     */
+    private int getLastFourStart() {
+        int digits = 0;
+        for (int i = mSource.length() - 1; i >= 0; i--) {
+            if (!Character.isWhitespace(mSource.charAt(i)) && ++digits == LAST_FOUR) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
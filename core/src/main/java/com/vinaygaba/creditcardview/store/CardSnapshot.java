@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.store;
+
+import com.vinaygaba.creditcardview.CardNumberFormat;
+import com.vinaygaba.creditcardview.CardType;
+
+/**
+ * Display state of a card that can be stored without the full card number: the last four digits,
+ * name, expiry date, brand, colors and the resource names of the card art. Names are kept
+ * instead of resource ids because ids change between builds. Snapshots are mutable so one
+ * instance can be reused while reading many cards.
+ */
+public class CardSnapshot {
+
+    /**
+     * Longest name that fits on a card, longer names are truncated
+     */
+    public static final int MAX_NAME_LENGTH = 26;
+    public static final int MAX_EXPIRY_DATE_LENGTH = 5;
+    public static final int LAST_FOUR_LENGTH = 4;
+    /**
+     * Longest resource name that is kept, longer or non-ASCII names are dropped
+     */
+    public static final int MAX_RESOURCE_NAME_LENGTH = 32;
+
+    private static final int WHITE = 0xFFFFFFFF;
+
+    private String mLastFour = "";
+    private int mCardNumberLength;
+    private String mCardName = "";
+    private String mExpiryDate = "";
+    private int mType = CardType.VISA;
+    private int mCardNumberFormat = CardNumberFormat.MASKED_ALL_BUT_LAST_FOUR;
+    private int mCardNumberTextColor = WHITE;
+    private int mCardNameTextColor = WHITE;
+    private int mExpiryDateTextColor = WHITE;
+    private int mValidTillTextColor = WHITE;
+    private boolean mPutChip;
+    private String mBrandLogoName = "";
+    private String mCardFrontBackgroundName = "";
+    private String mCardBackBackgroundName = "";
+
+    /**
+     * Keeps the last four digits and the length of a card number, ignoring spaces
+     */
+    public void setCardNumber(CharSequence cardNumber) {
+        final char[] lastFour = new char[LAST_FOUR_LENGTH];
+        int digits = 0;
+        for (int i = cardNumber.length() - 1; i >= 0; i--) {
+            final char c = cardNumber.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (digits < LAST_FOUR_LENGTH) {
+                lastFour[LAST_FOUR_LENGTH - 1 - digits] = c;
+            }
+            digits++;
+        }
+        final int kept = Math.min(digits, LAST_FOUR_LENGTH);
+        mLastFour = new String(lastFour, LAST_FOUR_LENGTH - kept, kept);
+        mCardNumberLength = digits;
+    }
+
+    public String getLastFour() {
+        return mLastFour;
+    }
+
+    void setLastFour(String lastFour) {
+        mLastFour = lastFour;
+    }
+
+    public int getCardNumberLength() {
+        return mCardNumberLength;
+    }
+
+    void setCardNumberLength(int cardNumberLength) {
+        mCardNumberLength = cardNumberLength;
+    }
+
+    public String getCardName() {
+        return mCardName;
+    }
+
+    public void setCardName(String cardName) {
+        if (cardName == null) {
+            mCardName = "";
+        } else if (cardName.length() > MAX_NAME_LENGTH) {
+            mCardName = cardName.substring(0, MAX_NAME_LENGTH);
+        } else {
+            mCardName = cardName;
+        }
+    }
+
+    public String getExpiryDate() {
+        return mExpiryDate;
+    }
+
+    public void setExpiryDate(String expiryDate) {
+        if (expiryDate == null) {
+            mExpiryDate = "";
+        } else if (expiryDate.length() > MAX_EXPIRY_DATE_LENGTH) {
+            mExpiryDate = expiryDate.substring(0, MAX_EXPIRY_DATE_LENGTH);
+        } else {
+            mExpiryDate = expiryDate;
+        }
+    }
+
+    public int getType() {
+        return mType;
+    }
+
+    public void setType(int type) {
+        mType = type;
+    }
+
+    public int getCardNumberFormat() {
+        return mCardNumberFormat;
+    }
+
+    public void setCardNumberFormat(int cardNumberFormat) {
+        mCardNumberFormat = cardNumberFormat;
+    }
+
+    public int getCardNumberTextColor() {
+        return mCardNumberTextColor;
+    }
+
+    public void setCardNumberTextColor(int cardNumberTextColor) {
+        mCardNumberTextColor = cardNumberTextColor;
+    }
+
+    public int getCardNameTextColor() {
+        return mCardNameTextColor;
+    }
+
+    public void setCardNameTextColor(int cardNameTextColor) {
+        mCardNameTextColor = cardNameTextColor;
+    }
+
+    public int getExpiryDateTextColor() {
+        return mExpiryDateTextColor;
+    }
+
+    public void setExpiryDateTextColor(int expiryDateTextColor) {
+        mExpiryDateTextColor = expiryDateTextColor;
+    }
+
+    public int getValidTillTextColor() {
+        return mValidTillTextColor;
+    }
+
+    public void setValidTillTextColor(int validTillTextColor) {
+        mValidTillTextColor = validTillTextColor;
+    }
+
+    public boolean getPutChip() {
+        return mPutChip;
+    }
+
+    public void setPutChip(boolean putChip) {
+        mPutChip = putChip;
+    }
+
+    /**
+     * Resource entry name of the brand logo, e.g. {@code "visa"}, empty if there is none
+     */
+    public String getBrandLogoName() {
+        return mBrandLogoName;
+    }
+
+    public void setBrandLogoName(String brandLogoName) {
+        mBrandLogoName = toResourceName(brandLogoName);
+    }
+
+    /**
+     * Resource entry name of the front background, empty for the default one
+     */
+    public String getCardFrontBackgroundName() {
+        return mCardFrontBackgroundName;
+    }
+
+    public void setCardFrontBackgroundName(String cardFrontBackgroundName) {
+        mCardFrontBackgroundName = toResourceName(cardFrontBackgroundName);
+    }
+
+    /**
+     * Resource entry name of the back background, empty for the default one
+     */
+    public String getCardBackBackgroundName() {
+        return mCardBackBackgroundName;
+    }
+
+    public void setCardBackBackgroundName(String cardBackBackgroundName) {
+        mCardBackBackgroundName = toResourceName(cardBackBackgroundName);
+    }
+
+    /**
+     * Returns the name if it can be stored, an empty String otherwise. A shortened name could
+     * match a different resource, so names are never truncated.
+     */
+    private static String toResourceName(String name) {
+        if (name == null || name.length() > MAX_RESOURCE_NAME_LENGTH) {
+            return "";
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) > 0x7f) {
+                return "";
+            }
+        }
+        return name;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes {@link CardSnapshot}s as fixed size records, so record {@code i} of a file starts at a
+ * known offset and can be read without parsing the ones before it. Integers are big endian,
+ * the expiry date, the last four digits and the resource names are ASCII and the name is UTF-16.
+ * The record id is assigned by the {@link WalletStore} and is not part of the snapshot.
+ *
+ * <pre>
+ *  0  flags               1 byte, FLAG_*
+ *  1  type                1 byte
+ *  2  card number format  1 byte
+ *  3  card number length  1 byte
+ *  4  last four           4 bytes, zero padded
+ *  8  expiry date         5 bytes, zero padded
+ * 13  name length         1 byte
+ * 14  name                26 chars
+ * 66  reserved            2 bytes
+ * 68  colors              4 ints: number, name, expiry date, valid till
+ * 84  record id           1 int
+ * 88  reserved            8 bytes
+ * 96  resource names      3 x 32 bytes, zero padded: brand logo, front background,
+ *                         back background
+ * </pre>
+ */
+public final class CardSnapshotCodec {
+
+    /**
+     * Version of the record layout, increased whenever it changes
+     */
+    public static final int VERSION = 2;
+    public static final int RECORD_SIZE = 192;
+
+    static final int FLAG_DELETED = 1;
+    static final int FLAG_CHIP = 1 << 1;
+
+    private static final int OFFSET_FLAGS = 0;
+    private static final int OFFSET_TYPE = 1;
+    private static final int OFFSET_FORMAT = 2;
+    private static final int OFFSET_NUMBER_LENGTH = 3;
+    private static final int OFFSET_LAST_FOUR = 4;
+    private static final int OFFSET_EXPIRY_DATE = 8;
+    private static final int OFFSET_NAME_LENGTH = 13;
+    private static final int OFFSET_NAME = 14;
+    private static final int OFFSET_NUMBER_COLOR = 68;
+    private static final int OFFSET_NAME_COLOR = 72;
+    private static final int OFFSET_EXPIRY_DATE_COLOR = 76;
+    private static final int OFFSET_VALID_TILL_COLOR = 80;
+    private static final int OFFSET_RECORD_ID = 84;
+    private static final int OFFSET_BRAND_LOGO = 96;
+    private static final int OFFSET_FRONT_BACKGROUND = 128;
+    private static final int OFFSET_BACK_BACKGROUND = 160;
+
+    /**
+     * Writes a snapshot as the record starting at {@code offset}. The record id and the position
+     * of the buffer are not changed.
+     */
+    public static void encode(CardSnapshot snapshot, ByteBuffer buffer, int offset) {
+        buffer.put(offset + OFFSET_FLAGS, (byte) (snapshot.getPutChip() ? FLAG_CHIP : 0));
+        buffer.put(offset + OFFSET_TYPE, (byte) snapshot.getType());
+        buffer.put(offset + OFFSET_FORMAT, (byte) snapshot.getCardNumberFormat());
+        buffer.put(offset + OFFSET_NUMBER_LENGTH, (byte) snapshot.getCardNumberLength());
+        putAscii(buffer, offset + OFFSET_LAST_FOUR, snapshot.getLastFour(),
+                CardSnapshot.LAST_FOUR_LENGTH);
+        putAscii(buffer, offset + OFFSET_EXPIRY_DATE, snapshot.getExpiryDate(),
+                CardSnapshot.MAX_EXPIRY_DATE_LENGTH);
+
+        final String name = snapshot.getCardName();
+        buffer.put(offset + OFFSET_NAME_LENGTH, (byte) name.length());
+        for (int i = 0; i < CardSnapshot.MAX_NAME_LENGTH; i++) {
+            buffer.putChar(offset + OFFSET_NAME + i * 2, i < name.length() ? name.charAt(i) : 0);
+        }
+
+        buffer.putInt(offset + OFFSET_NUMBER_COLOR, snapshot.getCardNumberTextColor());
+        buffer.putInt(offset + OFFSET_NAME_COLOR, snapshot.getCardNameTextColor());
+        buffer.putInt(offset + OFFSET_EXPIRY_DATE_COLOR, snapshot.getExpiryDateTextColor());
+        buffer.putInt(offset + OFFSET_VALID_TILL_COLOR, snapshot.getValidTillTextColor());
+        putAscii(buffer, offset + OFFSET_BRAND_LOGO, snapshot.getBrandLogoName(),
+                CardSnapshot.MAX_RESOURCE_NAME_LENGTH);
+        putAscii(buffer, offset + OFFSET_FRONT_BACKGROUND, snapshot.getCardFrontBackgroundName(),
+                CardSnapshot.MAX_RESOURCE_NAME_LENGTH);
+        putAscii(buffer, offset + OFFSET_BACK_BACKGROUND, snapshot.getCardBackBackgroundName(),
+                CardSnapshot.MAX_RESOURCE_NAME_LENGTH);
+    }
+
+    /**
+     * Reads the record starting at {@code offset} into a snapshot. The position of the buffer is
+     * not changed.
+     */
+    public static void decode(ByteBuffer buffer, int offset, CardSnapshot snapshot) {
+        snapshot.setPutChip((buffer.get(offset + OFFSET_FLAGS) & FLAG_CHIP) != 0);
+        snapshot.setType(buffer.get(offset + OFFSET_TYPE));
+        snapshot.setCardNumberFormat(buffer.get(offset + OFFSET_FORMAT));
+        snapshot.setCardNumberLength(buffer.get(offset + OFFSET_NUMBER_LENGTH) & 0xff);
+        snapshot.setLastFour(getAscii(buffer, offset + OFFSET_LAST_FOUR,
+                CardSnapshot.LAST_FOUR_LENGTH));
+        snapshot.setExpiryDate(getAscii(buffer, offset + OFFSET_EXPIRY_DATE,
+                CardSnapshot.MAX_EXPIRY_DATE_LENGTH));
+
+        final int nameLength = Math.min(buffer.get(offset + OFFSET_NAME_LENGTH) & 0xff,
+                CardSnapshot.MAX_NAME_LENGTH);
+        final char[] name = new char[nameLength];
+        for (int i = 0; i < nameLength; i++) {
+            name[i] = buffer.getChar(offset + OFFSET_NAME + i * 2);
+        }
+        snapshot.setCardName(new String(name));
+
+        snapshot.setCardNumberTextColor(buffer.getInt(offset + OFFSET_NUMBER_COLOR));
+        snapshot.setCardNameTextColor(buffer.getInt(offset + OFFSET_NAME_COLOR));
+        snapshot.setExpiryDateTextColor(buffer.getInt(offset + OFFSET_EXPIRY_DATE_COLOR));
+        snapshot.setValidTillTextColor(buffer.getInt(offset + OFFSET_VALID_TILL_COLOR));
+        snapshot.setBrandLogoName(getAscii(buffer, offset + OFFSET_BRAND_LOGO,
+                CardSnapshot.MAX_RESOURCE_NAME_LENGTH));
+        snapshot.setCardFrontBackgroundName(getAscii(buffer, offset + OFFSET_FRONT_BACKGROUND,
+                CardSnapshot.MAX_RESOURCE_NAME_LENGTH));
+        snapshot.setCardBackBackgroundName(getAscii(buffer, offset + OFFSET_BACK_BACKGROUND,
+                CardSnapshot.MAX_RESOURCE_NAME_LENGTH));
+    }
+
+    static int getRecordId(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + OFFSET_RECORD_ID);
+    }
+
+    static void setRecordId(ByteBuffer buffer, int offset, int recordId) {
+        buffer.putInt(offset + OFFSET_RECORD_ID, recordId);
+    }
+
+    static boolean isDeleted(ByteBuffer buffer, int offset) {
+        return (buffer.get(offset + OFFSET_FLAGS) & FLAG_DELETED) != 0;
+    }
+
+    static void setDeleted(ByteBuffer buffer, int offset) {
+        buffer.put(offset + OFFSET_FLAGS,
+                (byte) (buffer.get(offset + OFFSET_FLAGS) | FLAG_DELETED));
+    }
+
+    private static void putAscii(ByteBuffer buffer, int offset, String value, int length) {
+        for (int i = 0; i < length; i++) {
+            char c = i < value.length() ? value.charAt(i) : 0;
+            if (c > 0x7f) {
+                c = '?';
+            }
+            buffer.put(offset + i, (byte) c);
+        }
+    }
+
+    private static String getAscii(ByteBuffer buffer, int offset, int length) {
+        final char[] chars = new char[length];
+        int count = 0;
+        while (count < length && buffer.get(offset + count) != 0) {
+            chars[count] = (char) buffer.get(offset + count);
+            count++;
+        }
+        return new String(chars, 0, count);
+    }
+
+    private CardSnapshotCodec() {
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * File of {@link CardSnapshot}s that is memory mapped instead of read, so opening a wallet costs
+ * the same for any number of cards and each card is only decoded when it is bound. Records are
+ * appended at the end; deleted records are only flagged until {@link #compact()} is called.
+ *
+ * <p>Every record gets an id when it is appended. Unlike its index, the id survives
+ * {@link #compact()} and reopening the file, so it can be used as a stable item id.</p>
+ *
+ * <p>The file starts with a header of {@link #HEADER_SIZE} bytes: a magic number, the
+ * {@link CardSnapshotCodec#VERSION}, the record size, the number of records and the id of the
+ * next record.</p>
+ */
+public class WalletStore {
+
+    public static final int HEADER_SIZE = 16;
+
+    private static final int MAGIC = 0x43435657; // "CCVW"
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_RECORD_SIZE = 6;
+    private static final int OFFSET_COUNT = 8;
+    private static final int OFFSET_NEXT_RECORD_ID = 12;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final RandomAccessFile mFile;
+    private final FileChannel mChannel;
+    private MappedByteBuffer mBuffer;
+    private int mCapacity;
+    private int mCount;
+    private int mNextRecordId;
+
+    /**
+     * Opens a store, creating the file if it does not exist
+     *
+     * @throws IOException if the file can not be mapped or was written by a newer version.
+     */
+    public WalletStore(File file) throws IOException {
+        mFile = new RandomAccessFile(file, "rw");
+        mChannel = mFile.getChannel();
+        try {
+            if (mFile.length() < HEADER_SIZE) {
+                map(INITIAL_CAPACITY);
+                mBuffer.putInt(OFFSET_MAGIC, MAGIC);
+                mBuffer.putShort(OFFSET_VERSION, (short) CardSnapshotCodec.VERSION);
+                mBuffer.putShort(OFFSET_RECORD_SIZE, (short) CardSnapshotCodec.RECORD_SIZE);
+                mBuffer.putInt(OFFSET_COUNT, 0);
+                mBuffer.putInt(OFFSET_NEXT_RECORD_ID, 0);
+            } else {
+                // A file with only a header has no room for records
+                map(Math.max((int) ((mFile.length() - HEADER_SIZE)
+                        / CardSnapshotCodec.RECORD_SIZE), INITIAL_CAPACITY));
+                checkHeader(file);
+                mCount = mBuffer.getInt(OFFSET_COUNT);
+                mNextRecordId = mBuffer.getInt(OFFSET_NEXT_RECORD_ID);
+            }
+        } catch (IOException e) {
+            mFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of records, including deleted ones
+     */
+    public synchronized int getCount() {
+        return mCount;
+    }
+
+    public synchronized boolean isDeleted(int index) {
+        return CardSnapshotCodec.isDeleted(mBuffer, offset(index));
+    }
+
+    /**
+     * Returns the id the record got when it was appended
+     */
+    public synchronized int getRecordId(int index) {
+        return CardSnapshotCodec.getRecordId(mBuffer, offset(index));
+    }
+
+    /**
+     * Decodes a record into a snapshot, which can be reused across calls
+     */
+    public synchronized void read(int index, CardSnapshot snapshot) {
+        CardSnapshotCodec.decode(mBuffer, offset(index), snapshot);
+    }
+
+    /**
+     * Adds a record at the end and returns its index
+     */
+    public synchronized int append(CardSnapshot snapshot) throws IOException {
+        if (mCount == mCapacity) {
+            map(Math.max(mCapacity * 2, INITIAL_CAPACITY));
+        }
+        final int index = mCount;
+        final int offset = HEADER_SIZE + index * CardSnapshotCodec.RECORD_SIZE;
+        CardSnapshotCodec.encode(snapshot, mBuffer, offset);
+        CardSnapshotCodec.setRecordId(mBuffer, offset, mNextRecordId);
+        mNextRecordId++;
+        mBuffer.putInt(OFFSET_NEXT_RECORD_ID, mNextRecordId);
+        setCount(mCount + 1);
+        return index;
+    }
+
+    /**
+     * Replaces a record, keeping its index and id
+     */
+    public synchronized void update(int index, CardSnapshot snapshot) {
+        CardSnapshotCodec.encode(snapshot, mBuffer, offset(index));
+    }
+
+    /**
+     * Flags a record as deleted. Indexes of the other records do not change until the store is
+     * compacted.
+     */
+    public synchronized void delete(int index) {
+        CardSnapshotCodec.setDeleted(mBuffer, offset(index));
+    }
+
+    /**
+     * Removes deleted records by moving the remaining ones down, in order, and shrinks the file.
+     * Indexes held from before the call are no longer valid.
+     */
+    public synchronized void compact() throws IOException {
+        final byte[] record = new byte[CardSnapshotCodec.RECORD_SIZE];
+        int live = 0;
+        for (int i = 0; i < mCount; i++) {
+            final int from = offset(i);
+            if (CardSnapshotCodec.isDeleted(mBuffer, from)) {
+                continue;
+            }
+            if (live != i) {
+                mBuffer.position(from);
+                mBuffer.get(record);
+                mBuffer.position(HEADER_SIZE + live * CardSnapshotCodec.RECORD_SIZE);
+                mBuffer.put(record);
+            }
+            live++;
+        }
+        setCount(live);
+        mBuffer.force();
+        final int capacity = Math.max(live, INITIAL_CAPACITY);
+        mChannel.truncate(fileSize(capacity));
+        map(capacity);
+    }
+
+    /**
+     * Writes the changes to the file
+     */
+    public synchronized void flush() {
+        mBuffer.force();
+    }
+
+    public synchronized void close() throws IOException {
+        if (mBuffer != null) {
+            mBuffer.force();
+            mBuffer = null;
+        }
+        mFile.close();
+    }
+
+    private void map(int capacity) throws IOException {
+        // Mapping past the end of the file grows it
+        mBuffer = mChannel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+        mCapacity = capacity;
+    }
+
+    private void checkHeader(File file) throws IOException {
+        if (mBuffer.getInt(OFFSET_MAGIC) != MAGIC) {
+            throw new IOException(file + " is not a wallet store");
+        }
+        final int version = mBuffer.getShort(OFFSET_VERSION);
+        // Version 1 records held resource ids, which are not valid in other builds
+        if (version != CardSnapshotCodec.VERSION) {
+            throw new IOException(file + " has unsupported version " + version);
+        }
+        if (mBuffer.getShort(OFFSET_RECORD_SIZE) != CardSnapshotCodec.RECORD_SIZE) {
+            throw new IOException(file + " has an unexpected record size");
+        }
+    }
+
+    private void setCount(int count) {
+        mCount = count;
+        mBuffer.putInt(OFFSET_COUNT, count);
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index >= mCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", count: " + mCount);
+        }
+        return HEADER_SIZE + index * CardSnapshotCodec.RECORD_SIZE;
+    }
+
+    private static long fileSize(int capacity) {
+        return HEADER_SIZE + (long) capacity * CardSnapshotCodec.RECORD_SIZE;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.vinaygaba.creditcardview.CardFormValidator.CARD_NAME;
+import static com.vinaygaba.creditcardview.CardFormValidator.CARD_NUMBER;
+import static com.vinaygaba.creditcardview.CardFormValidator.EXPIRY_DATE;
+import static com.vinaygaba.creditcardview.CardType.AMERICAN_EXPRESS;
+import static com.vinaygaba.creditcardview.CardType.VISA;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CardDataGeneratorTest {
+
+    @Test
+    public void sameSeedGivesTheSameRecords() {
+        final List<CardDatasets.Card> first =
+                CardDatasets.create(7, 200, 5, 3, 1, 1, 0.2f, 2026);
+        final List<CardDatasets.Card> second =
+                CardDatasets.create(7, 200, 5, 3, 1, 1, 0.2f, 2026);
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void setSeedRestartsTheSequence() {
+        final CardDataGenerator generator = new CardDataGenerator(1);
+        final char[] first = new char[CardDataGenerator.MAX_CARD_NUMBER_LENGTH];
+        final char[] second = new char[CardDataGenerator.MAX_CARD_NUMBER_LENGTH];
+        final int length = generator.nextCardNumber(first, 0);
+        generator.setSeed(1);
+        assertEquals(length, generator.nextCardNumber(second, 0));
+        assertEquals(new String(first, 0, length), new String(second, 0, length));
+    }
+
+    @Test
+    public void closeSeedsGiveDifferentRecords() {
+        assertNotEquals(CardDatasets.create(1, 20, 1, 1, 1, 1, 0f, 2026),
+                CardDatasets.create(2, 20, 1, 1, 1, 1, 0f, 2026));
+    }
+
+    @Test
+    public void sequenceDoesNotChange() {
+        // Benchmarks compare results across versions, so a seed must keep its records
+        final List<CardDatasets.Card> cards = CardDatasets.create(42, 1, 5, 3, 1, 1, 0.1f, 2026);
+        assertEquals("4428537963544041", cards.get(0).cardNumber);
+        assertEquals("AHMED GABA", cards.get(0).cardName);
+        assertEquals("11/29", cards.get(0).expiryDate);
+    }
+
+    @Test
+    public void validRecordsPassTheValidator() {
+        final CardFieldBuffer cardNumber = new CardFieldBuffer();
+        final CardFieldBuffer cardName = new CardFieldBuffer();
+        final CardFieldBuffer expiryDate = new CardFieldBuffer();
+        final CardFormValidator validator = new CardFormValidator(cardNumber, cardName,
+                expiryDate, new CardFieldBuffer());
+        final int fields = CARD_NUMBER | CARD_NAME | EXPIRY_DATE;
+        for (CardDatasets.Card card : CardDatasets.wallet()) {
+            cardNumber.set(card.cardNumber);
+            cardName.set(card.cardName);
+            expiryDate.set(card.expiryDate);
+            assertEquals(card.toString(), card.valid, validator.validate(fields) == fields);
+            assertEquals(card.toString(), card.type, validator.getType());
+        }
+    }
+
+    @Test
+    public void generatesTheBrandLengths() {
+        for (CardDatasets.Card card : CardDatasets.valid()) {
+            assertEquals(card.toString(), card.type == AMERICAN_EXPRESS ? 15 : 16,
+                    card.cardNumber.length());
+            assertTrue(card.cardName.length() <= CardDataGenerator.MAX_CARD_NAME_LENGTH);
+            assertTrue(card.cardName, CardFormValidator.isValidCardName(card.cardName));
+        }
+    }
+
+    @Test
+    public void followsTheInvalidRate() {
+        int invalid = 0;
+        final List<CardDatasets.Card> cards =
+                CardDatasets.create(3, 10000, 1, 1, 1, 1, 0.1f, 2026);
+        for (CardDatasets.Card card : cards) {
+            if (!card.valid) {
+                invalid++;
+            }
+        }
+        assertTrue("Invalid: " + invalid, invalid > 800 && invalid < 1200);
+    }
+
+    @Test
+    public void followsTheBrandWeights() {
+        for (CardDatasets.Card card : CardDatasets.create(4, 100, 1, 0, 0, 0, 0f, 2026)) {
+            assertEquals(VISA, card.type);
+        }
+    }
+
+    @Test
+    public void parsesBackFromText() {
+        final CardTextParser parser = new CardTextParser();
+        final CardFieldBuffer cardNumber = new CardFieldBuffer();
+        final CardFieldBuffer cardName = new CardFieldBuffer();
+        final CardFieldBuffer expiryDate = new CardFieldBuffer();
+        for (CardDatasets.Card card : CardDatasets.valid()) {
+            final String text = CardNumberFormatter.addSpaces(card.cardNumber) + "\nVALID THRU "
+                    + card.expiryDate + "\n" + card.cardName;
+            assertEquals(text, CARD_NUMBER | CARD_NAME | EXPIRY_DATE,
+                    parser.parse(text, cardNumber, expiryDate, cardName));
+            assertEquals(card.cardNumber, cardNumber.toString());
+            assertEquals(card.cardName, cardName.toString());
+            assertEquals(card.expiryDate, expiryDate.toString());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroWeights() {
+        new CardDataGenerator(1).setBrandWeights(0, 0, 0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRatesOutOfRange() {
+        new CardDataGenerator(1).setInvalidRate(1.5f);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Seeded card records from {@link CardDataGenerator} for tests. The same seed and reference year
+ * always give the same records.
+ */
+final class CardDatasets {
+
+    static final long SEED = 2015;
+    static final int SIZE = 500;
+
+    /**
+     * A card of a dataset, as generated
+     */
+    static final class Card {
+
+        final String cardNumber;
+        final String cardName;
+        final String expiryDate;
+        final int type;
+        final boolean valid;
+
+        Card(String cardNumber, String cardName, String expiryDate, int type, boolean valid) {
+            this.cardNumber = cardNumber;
+            this.cardName = cardName;
+            this.expiryDate = expiryDate;
+            this.type = type;
+            this.valid = valid;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Card)) {
+                return false;
+            }
+            final Card card = (Card) o;
+            return cardNumber.equals(card.cardNumber) && cardName.equals(card.cardName)
+                    && expiryDate.equals(card.expiryDate) && type == card.type
+                    && valid == card.valid;
+        }
+
+        @Override
+        public int hashCode() {
+            return cardNumber.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return cardNumber + " " + cardName + " " + expiryDate + (valid ? "" : " invalid");
+        }
+    }
+
+    /**
+     * Valid cards of all brands, expiring after the current year
+     */
+    static List<Card> valid() {
+        return create(SEED, SIZE, 1, 1, 1, 1, 0f, currentYear());
+    }
+
+    /**
+     * Cards in the brand mix of a typical wallet, a tenth of them invalid
+     */
+    static List<Card> wallet() {
+        return create(SEED, SIZE, 5, 3, 1, 1, 0.1f, currentYear());
+    }
+
+    static List<Card> create(long seed, int size, int visa, int mastercard, int americanExpress,
+                             int discover, float invalidRate, int referenceYear) {
+        final CardDataGenerator generator = new CardDataGenerator(seed);
+        generator.setBrandWeights(visa, mastercard, americanExpress, discover);
+        generator.setInvalidRate(invalidRate);
+        generator.setReferenceYear(referenceYear);
+
+        final CardFieldBuffer cardNumber = new CardFieldBuffer();
+        final CardFieldBuffer cardName = new CardFieldBuffer();
+        final CardFieldBuffer expiryDate = new CardFieldBuffer();
+        final List<Card> cards = new ArrayList<Card>(size);
+        for (int i = 0; i < size; i++) {
+            final int type = generator.next(cardNumber, cardName, expiryDate);
+            cards.add(new Card(cardNumber.toString(), cardName.toString(),
+                    expiryDate.toString(), type, generator.isLastValid()));
+        }
+        return cards;
+    }
+
+    static int currentYear() {
+        return Calendar.getInstance().get(Calendar.YEAR);
+    }
+
+    private CardDatasets() {
+    }
+}
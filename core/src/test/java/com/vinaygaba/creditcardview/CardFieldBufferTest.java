@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CardFieldBufferTest {
+
+    @Test
+    public void reportsWhetherTheContentsChanged() {
+        final CardFieldBuffer buffer = new CardFieldBuffer();
+        assertTrue(buffer.set("4111"));
+        assertFalse(buffer.set("4111"));
+        assertTrue(buffer.set("411"));
+        assertTrue(buffer.set("4112"));
+        assertFalse(buffer.set(new char[]{'x', '4', '1', '1', '2'}, 1, 5));
+        assertEquals("4112", buffer.toString());
+    }
+
+    @Test
+    public void treatsNullAsEmpty() {
+        final CardFieldBuffer buffer = new CardFieldBuffer();
+        buffer.set("12");
+        assertTrue(buffer.set(null));
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void dropsWhitespace() {
+        final CardFieldBuffer buffer = new CardFieldBuffer();
+        assertTrue(buffer.setWithoutWhitespace("4111 1111\t1111 1111"));
+        assertEquals("4111111111111111", buffer.toString());
+        assertFalse(buffer.setWithoutWhitespace("4111111111111111"));
+    }
+
+    @Test
+    public void storesTheEmbossedForm() {
+        final CardFieldBuffer buffer = new CardFieldBuffer(4);
+        assertTrue(buffer.setEmbossed("J\u00fcrgen Gro\u00df"));
+        assertEquals("JURGEN GROSS", buffer.toString());
+        assertFalse(buffer.setEmbossed("jurgen gross"));
+    }
+
+    @Test
+    public void growsPastItsCapacity() {
+        final CardFieldBuffer buffer = new CardFieldBuffer(2);
+        buffer.set("AB");
+        assertTrue(buffer.set("ABCDEFGHIJ"));
+        assertEquals("ABCDEFGHIJ", buffer.toString());
+        assertEquals("CDE", buffer.subSequence(2, 5).toString());
+    }
+
+    @Test
+    public void wipesShorterContents() {
+        final CardFieldBuffer buffer = new CardFieldBuffer();
+        buffer.set("4111111111111111");
+        buffer.set("12");
+        final char[] chars = new char[20];
+        assertEquals(2, buffer.getChars(chars));
+        assertEquals("12", new String(chars, 0, 2));
+    }
+
+    @Test
+    public void clears() {
+        final CardFieldBuffer buffer = new CardFieldBuffer();
+        buffer.set("123");
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+        assertEquals(0, buffer.length());
+        assertEquals("", buffer.toString());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsIndexesPastTheContents() {
+        final CardFieldBuffer buffer = new CardFieldBuffer();
+        buffer.set("123");
+        buffer.clear();
+        buffer.charAt(0);
+    }
+}
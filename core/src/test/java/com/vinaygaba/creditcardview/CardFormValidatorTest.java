@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+
+import static com.vinaygaba.creditcardview.CardFormValidator.ALL_FIELDS;
+import static com.vinaygaba.creditcardview.CardFormValidator.CARD_NAME;
+import static com.vinaygaba.creditcardview.CardFormValidator.CARD_NUMBER;
+import static com.vinaygaba.creditcardview.CardFormValidator.CVV;
+import static com.vinaygaba.creditcardview.CardFormValidator.EXPIRY_DATE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CardFormValidatorTest {
+
+    private CardFieldBuffer mCardNumber;
+    private CardFieldBuffer mCardName;
+    private CardFieldBuffer mExpiryDate;
+    private CardFieldBuffer mCvv;
+    private CardFormValidator mValidator;
+
+    @Before
+    public void setUp() {
+        mCardNumber = new CardFieldBuffer();
+        mCardName = new CardFieldBuffer();
+        mExpiryDate = new CardFieldBuffer();
+        mCvv = new CardFieldBuffer();
+        mValidator = new CardFormValidator(mCardNumber, mCardName, mExpiryDate, mCvv);
+    }
+
+    private static String nextYear() {
+        final int year = Calendar.getInstance().get(Calendar.YEAR) + 1;
+        return String.format("12/%02d", year % 100);
+    }
+
+    @Test
+    public void validatesOnlyTheChangedFields() {
+        mCardNumber.set("4111111111111111");
+        mCardName.set("JANE DOE");
+        assertEquals(CARD_NUMBER, mValidator.validate(CARD_NUMBER));
+        assertEquals(CARD_NUMBER | CARD_NAME, mValidator.validate(CARD_NAME));
+
+        mCardNumber.set("4111111111111112");
+        // Not re-checked until it is passed in
+        assertEquals(CARD_NUMBER | CARD_NAME, mValidator.getValidFields());
+        assertEquals(CARD_NAME, mValidator.validate(CARD_NUMBER));
+    }
+
+    @Test
+    public void completesWithAllFields() {
+        mCardNumber.set("4111111111111111");
+        mCardName.set("JANE DOE");
+        mExpiryDate.set(nextYear());
+        mCvv.set("123");
+        assertEquals(ALL_FIELDS, mValidator.validate(ALL_FIELDS));
+        assertTrue(mValidator.isComplete());
+    }
+
+    @Test
+    public void rejectsExpiredDates() {
+        mExpiryDate.set("01/00");
+        assertEquals(0, mValidator.validate(EXPIRY_DATE));
+    }
+
+    @Test
+    public void rechecksTheCvvWhenTheTypeChanges() {
+        mCardNumber.set("4111111111111111");
+        mCvv.set("1234");
+        assertEquals(CARD_NUMBER, mValidator.validate(CARD_NUMBER | CVV));
+
+        // An American Express number expects four digits
+        mCardNumber.set("378282246310005");
+        assertEquals(CARD_NUMBER | CVV, mValidator.validate(CARD_NUMBER));
+        assertEquals(CardType.AMERICAN_EXPRESS, mValidator.getType());
+        assertEquals(4, mValidator.getCvvLength());
+
+        mValidator.setType(CardType.VISA);
+        assertEquals(CARD_NUMBER, mValidator.validate(0));
+    }
+
+    @Test
+    public void acceptsEmbossableNames() {
+        assertTrue(CardFormValidator.isValidCardName("JANE O'NEIL-SMITH JR."));
+        assertTrue(CardFormValidator.isValidCardName("SMITH & SONS, LLC"));
+        assertTrue(CardFormValidator.isValidCardName("J/DOE 2"));
+        assertTrue(CardFormValidator.isValidCardName("Ren\u00e9e"));
+    }
+
+    @Test
+    public void rejectsOtherNames() {
+        assertFalse(CardFormValidator.isValidCardName(""));
+        assertFalse(CardFormValidator.isValidCardName("1234"));
+        assertFalse(CardFormValidator.isValidCardName("JANE@DOE"));
+        assertFalse(CardFormValidator.isValidCardName("\u674e\u5a1c"));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import org.junit.Test;
+
+import static com.vinaygaba.creditcardview.CardNumberFormat.ALL_DIGITS;
+import static com.vinaygaba.creditcardview.CardNumberFormat.MASKED_ALL;
+import static com.vinaygaba.creditcardview.CardNumberFormat.MASKED_ALL_BUT_LAST_FOUR;
+import static com.vinaygaba.creditcardview.CardNumberFormat.ONLY_LAST_FOUR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class CardNumberFormatterTest {
+
+    private static final String NUMBER = "4111111111111234";
+
+    @Test
+    public void addsSpacesBetweenGroups() {
+        assertEquals("4111 1111 1111 1234", CardNumberFormatter.addSpaces(NUMBER));
+        assertEquals("4111", CardNumberFormatter.addSpaces("4111"));
+        assertEquals("", CardNumberFormatter.addSpaces(""));
+    }
+
+    @Test
+    public void keepsNumbersNotMadeOfGroupsOfFour() {
+        assertEquals("378282246310005", CardNumberFormatter.addSpaces("378282246310005"));
+    }
+
+    @Test
+    public void removesSpaces() {
+        assertEquals(NUMBER,
+                CardNumberFormatter.removeSpaces("4111 1111\t1111 1234").toString());
+    }
+
+    @Test
+    public void returnsTheSameInstanceWithoutSpaces() {
+        assertSame(NUMBER, CardNumberFormatter.removeSpaces(NUMBER));
+    }
+
+    @Test
+    public void masksTheNumberInPlace() {
+        final String spaced = "4111 1111 1111 1234";
+        assertSame(spaced, CardNumberFormatter.mask(spaced, ALL_DIGITS));
+        assertEquals("**** **** **** 1234",
+                CardNumberFormatter.mask(spaced, MASKED_ALL_BUT_LAST_FOUR).toString());
+        assertEquals("**** **** **** 1234",
+                CardNumberFormatter.mask(spaced, ONLY_LAST_FOUR).toString());
+        assertEquals("**** **** **** ****",
+                CardNumberFormatter.mask(spaced, MASKED_ALL).toString());
+        assertEquals("***********0005",
+                CardNumberFormatter.mask("378282246310005", MASKED_ALL_BUT_LAST_FOUR).toString());
+    }
+
+    @Test
+    public void maskKeepsTheLength() {
+        for (int format = MASKED_ALL_BUT_LAST_FOUR; format <= MASKED_ALL; format++) {
+            for (String number : new String[]{"", "41", "4111 1", NUMBER}) {
+                assertEquals(number.length(), CardNumberFormatter.mask(number, format).length());
+            }
+        }
+    }
+
+    @Test
+    public void onlyLastFourHidesTheRest() {
+        final MaskedCardNumber masked = (MaskedCardNumber) CardNumberFormatter.mask(
+                "4111 1111 1111 1234", ONLY_LAST_FOUR);
+        assertEquals(15, masked.getVisibleStart());
+        assertEquals(0, ((MaskedCardNumber) CardNumberFormatter.mask(
+                "4111 1111 1111 1234", MASKED_ALL_BUT_LAST_FOUR)).getVisibleStart());
+        assertEquals(0, ((MaskedCardNumber) CardNumberFormatter.mask(
+                "123", ONLY_LAST_FOUR)).getVisibleStart());
+    }
+
+    @Test
+    public void maskReadsTheCurrentNumber() {
+        final StringBuilder number = new StringBuilder(NUMBER);
+        final CharSequence masked = CardNumberFormatter.mask(number, ONLY_LAST_FOUR);
+        number.replace(12, 16, "9876");
+        assertEquals("************9876", masked.toString());
+        number.setLength(0);
+        assertEquals("", masked.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownFormats() {
+        CardNumberFormatter.mask(NUMBER, -1);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.vinaygaba.creditcardview.CardFormValidator.CARD_NAME;
+import static com.vinaygaba.creditcardview.CardFormValidator.CARD_NUMBER;
+import static com.vinaygaba.creditcardview.CardFormValidator.EXPIRY_DATE;
+import static org.junit.Assert.assertEquals;
+
+public class CardTextParserTest {
+
+    private CardTextParser mParser;
+    private CardFieldBuffer mCardNumber;
+    private CardFieldBuffer mExpiryDate;
+    private CardFieldBuffer mCardName;
+
+    @Before
+    public void setUp() {
+        mParser = new CardTextParser();
+        mCardNumber = new CardFieldBuffer();
+        mExpiryDate = new CardFieldBuffer();
+        mCardName = new CardFieldBuffer();
+    }
+
+    private int parse(String text) {
+        return mParser.parse(text, mCardNumber, mExpiryDate, mCardName);
+    }
+
+    @Test
+    public void parsesPastedCardDetails() {
+        assertEquals(CARD_NUMBER | EXPIRY_DATE | CARD_NAME,
+                parse("Card number: 4111 1111 1111 1111\nValid thru 08/27\nJane Q. O'Neil"));
+        assertEquals("4111111111111111", mCardNumber.toString());
+        assertEquals("08/27", mExpiryDate.toString());
+        assertEquals("JANE Q. O'NEIL", mCardName.toString());
+    }
+
+    @Test
+    public void leavesBuffersOfMissingFields() {
+        mCardName.set("KEPT NAME");
+        assertEquals(CARD_NUMBER, parse("4111-1111-1111-1111"));
+        assertEquals("KEPT NAME", mCardName.toString());
+        assertEquals("", mExpiryDate.toString());
+    }
+
+    @Test
+    public void skipsRunsFailingTheLuhnCheck() {
+        assertEquals(CARD_NUMBER, parse("4111111111111112 5500 0000 0000 0004"));
+        assertEquals("5500000000000004", mCardNumber.toString());
+    }
+
+    @Test
+    public void findsTheNumberBeforeOtherDigits() {
+        assertEquals(CARD_NUMBER, parse("4111 1111 1111 1111 2027"));
+        assertEquals("4111111111111111", mCardNumber.toString());
+    }
+
+    @Test
+    public void findsTheNumberAfterOtherDigits() {
+        assertEquals(CARD_NUMBER, parse("ID 123456789012 4111 1111 1111 1111"));
+        assertEquals("4111111111111111", mCardNumber.toString());
+    }
+
+    @Test
+    public void findsTheNumberAfterALongRun() {
+        assertEquals(CARD_NUMBER, parse("Ref 12345678901234567890 4111 1111 1111 1111"));
+        assertEquals("4111111111111111", mCardNumber.toString());
+    }
+
+    @Test
+    public void ignoresRunsTooLongForANumber() {
+        assertEquals(0, parse("41111111111111111111111"));
+    }
+
+    @Test
+    public void picksTheLatestExpiryDate() {
+        assertEquals(EXPIRY_DATE, parse("Member since 03/19, valid thru 11/2028 12/27"));
+        assertEquals("11/28", mExpiryDate.toString());
+    }
+
+    @Test
+    public void skipsFullDates() {
+        assertEquals(0, parse("Order date 12/05/2025"));
+        assertEquals(0, parse("Order date 1/12/25"));
+        assertEquals(0, parse("2025/12/05"));
+        assertEquals(EXPIRY_DATE, parse("12/05/2025 exp 06/26"));
+        assertEquals("06/26", mExpiryDate.toString());
+    }
+
+    @Test
+    public void skipsInvalidMonths() {
+        assertEquals(0, parse("13/25 00/26"));
+    }
+
+    @Test
+    public void skipsLabelsAndSingleWords() {
+        assertEquals(CARD_NAME, parse("VALID THRU\nCARDHOLDER\nJOHN SMITH"));
+        assertEquals("JOHN SMITH", mCardName.toString());
+    }
+
+    @Test
+    public void skipsReceiptLines() {
+        assertEquals(CARD_NAME | CARD_NUMBER,
+                parse("THANK YOU FOR YOUR ORDER\nOrder Total\nPaid with 4111 1111 1111 1111\n"
+                        + "Ana Garcia"));
+        assertEquals("ANA GARCIA", mCardName.toString());
+    }
+
+    @Test
+    public void skipsLinesWithTooManyWords() {
+        assertEquals(0, parse("Lorem ipsum dolor sit amet"));
+    }
+
+    @Test
+    public void normalizesNames() {
+        assertEquals(CARD_NAME, parse("Bj\u00f6rn  Stra\u00dfer"));
+        assertEquals("BJORN STRASSER", mCardName.toString());
+    }
+
+    @Test
+    public void limitsTheNameLength() {
+        assertEquals(CARD_NAME, parse("Maximilian Oberhauser"));
+        mParser.setMaxCardNameLength(18);
+        mCardName.clear();
+        assertEquals(0, parse("Maximilian Oberhauser"));
+        assertEquals(CARD_NAME, parse("Maximilian Ober"));
+        assertEquals("MAXIMILIAN OBER", mCardName.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNameLengthsLongerThanACard() {
+        mParser.setMaxCardNameLength(27);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import org.junit.Test;
+
+import static com.vinaygaba.creditcardview.CardType.AMERICAN_EXPRESS;
+import static com.vinaygaba.creditcardview.CardType.DISCOVER;
+import static com.vinaygaba.creditcardview.CardType.MASTERCARD;
+import static com.vinaygaba.creditcardview.CardType.VISA;
+import static org.junit.Assert.assertEquals;
+
+public class CardTypeDetectorTest {
+
+    @Test
+    public void detectsBrands() {
+        assertEquals(VISA, CardTypeDetector.detect("4111111111111111"));
+        assertEquals(MASTERCARD, CardTypeDetector.detect("5500000000000004"));
+        assertEquals(AMERICAN_EXPRESS, CardTypeDetector.detect("340000000000009"));
+        assertEquals(AMERICAN_EXPRESS, CardTypeDetector.detect("378282246310005"));
+        assertEquals(DISCOVER, CardTypeDetector.detect("6011000000000004"));
+        assertEquals(DISCOVER, CardTypeDetector.detect("6011111111111117"));
+    }
+
+    @Test
+    public void ignoresSpaces() {
+        assertEquals(MASTERCARD, CardTypeDetector.detect("5500 0000 0000 0004"));
+        assertEquals(AMERICAN_EXPRESS, CardTypeDetector.detect("3782 822463 10005"));
+    }
+
+    @Test
+    public void defaultsToVisa() {
+        assertEquals(VISA, CardTypeDetector.detect(null));
+        assertEquals(VISA, CardTypeDetector.detect(""));
+        assertEquals(VISA, CardTypeDetector.detect("1234"));
+        // Too short for a MasterCard
+        assertEquals(VISA, CardTypeDetector.detect("55000000"));
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import org.junit.Test;
+
+import static com.vinaygaba.creditcardview.CardType.AMERICAN_EXPRESS;
+import static com.vinaygaba.creditcardview.CardType.VISA;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CardValidatorTest {
+
+    @Test
+    public void validatesCardNumbers() {
+        assertTrue(CardValidator.isValidCardNumber("4111111111111111"));
+        assertTrue(CardValidator.isValidCardNumber("4111 1111 1111 1111"));
+        assertFalse(CardValidator.isValidCardNumber("4111111111111112"));
+        assertFalse(CardValidator.isValidCardNumber("4111-1111-1111-1111"));
+        // Passes the Luhn check but is too short
+        assertFalse(CardValidator.isValidCardNumber("0"));
+        assertFalse(CardValidator.isValidCardNumber(""));
+    }
+
+    @Test
+    public void validatesExpiryDates() {
+        assertTrue(CardValidator.isValidExpiryDate("10/15", 2015, 10));
+        assertTrue(CardValidator.isValidExpiryDate("01/16", 2015, 10));
+        assertFalse(CardValidator.isValidExpiryDate("09/15", 2015, 10));
+        assertFalse(CardValidator.isValidExpiryDate("13/20", 2015, 10));
+        assertFalse(CardValidator.isValidExpiryDate("00/20", 2015, 10));
+        assertFalse(CardValidator.isValidExpiryDate("1/20", 2015, 10));
+        assertFalse(CardValidator.isValidExpiryDate("10-20", 2015, 10));
+    }
+
+    @Test
+    public void validatesCvvLengthByType() {
+        assertEquals(3, CardValidator.getCvvLength(VISA));
+        assertEquals(4, CardValidator.getCvvLength(AMERICAN_EXPRESS));
+        assertTrue(CardValidator.isValidCvv("123", VISA));
+        assertFalse(CardValidator.isValidCvv("1234", VISA));
+        assertTrue(CardValidator.isValidCvv("1234", AMERICAN_EXPRESS));
+        assertFalse(CardValidator.isValidCvv("12a", VISA));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EmbossingNormalizerTest {
+
+    @Test
+    public void keepsEmbossableCharacters() {
+        final String text = "ABC XYZ 0123456789 .-',/&";
+        assertTrue(EmbossingNormalizer.isEmbossable(text, 0, text.length()));
+        assertEquals(text, EmbossingNormalizer.normalize(text));
+    }
+
+    @Test
+    public void upperCasesLetters() {
+        assertFalse(EmbossingNormalizer.isEmbossable('a'));
+        assertEquals("JANE DOE", EmbossingNormalizer.normalize("jane doe"));
+    }
+
+    @Test
+    public void removesAccents() {
+        assertEquals("FRANCOIS ANDRE LODZ",
+                EmbossingNormalizer.normalize("Fran\u00e7ois Andr\u00e9 \u0141\u00f3d\u017a"));
+    }
+
+    @Test
+    public void expandsLigatures() {
+        assertEquals("STRASSE AEOE", EmbossingNormalizer.normalize("Stra\u00dfe \u00e6\u0153"));
+    }
+
+    @Test
+    public void mapsTypographicCharacters() {
+        assertEquals("O'BRIEN", EmbossingNormalizer.normalize("O\u2019Brien"));
+        assertEquals("A B", EmbossingNormalizer.normalize("A\u00a0B"));
+    }
+
+    @Test
+    public void dropsCharactersWithoutAnEmbossableForm() {
+        assertEquals("AB", EmbossingNormalizer.normalize("A@B\u674e\u00bf"));
+        assertEquals("", EmbossingNormalizer.getReplacement('\u4e00'));
+    }
+
+    @Test
+    public void normalizesARange() {
+        assertEquals("ELL", EmbossingNormalizer.normalize("hello", 1, 4));
+        assertFalse(EmbossingNormalizer.isEmbossable("Hello", 0, 2));
+        assertTrue(EmbossingNormalizer.isEmbossable("Hello", 0, 1));
+    }
+
+    @Test
+    public void sharesReplacements() {
+        assertSame(EmbossingNormalizer.getReplacement('a'),
+                EmbossingNormalizer.getReplacement('A'));
+        assertEquals("", EmbossingNormalizer.normalize(null));
+    }
+}
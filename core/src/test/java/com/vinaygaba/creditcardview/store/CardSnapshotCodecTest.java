@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.store;
+
+import com.vinaygaba.creditcardview.CardNumberFormat;
+import com.vinaygaba.creditcardview.CardType;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CardSnapshotCodecTest {
+
+    static CardSnapshot createSnapshot(String cardName) {
+        final CardSnapshot snapshot = new CardSnapshot();
+        snapshot.setCardNumber("3782 822463 10005");
+        snapshot.setCardName(cardName);
+        snapshot.setExpiryDate("04/27");
+        snapshot.setType(CardType.AMERICAN_EXPRESS);
+        snapshot.setCardNumberFormat(CardNumberFormat.ONLY_LAST_FOUR);
+        snapshot.setCardNumberTextColor(0xFF112233);
+        snapshot.setCardNameTextColor(0xFF445566);
+        snapshot.setExpiryDateTextColor(0x80FFFFFF);
+        snapshot.setValidTillTextColor(0);
+        snapshot.setPutChip(true);
+        snapshot.setBrandLogoName("brand_logo");
+        snapshot.setCardFrontBackgroundName("cardbackground_world");
+        snapshot.setCardBackBackgroundName("cardbackground_canvas");
+        return snapshot;
+    }
+
+    @Test
+    public void keepsOnlyTheLastFourDigits() {
+        final CardSnapshot snapshot = createSnapshot("A");
+        assertEquals("0005", snapshot.getLastFour());
+        assertEquals(15, snapshot.getCardNumberLength());
+    }
+
+    @Test
+    public void roundTripsARecord() {
+        final ByteBuffer buffer = ByteBuffer.allocate(CardSnapshotCodec.RECORD_SIZE * 2);
+        CardSnapshotCodec.encode(createSnapshot("ZO\u00cb D'ARCY"), buffer,
+                CardSnapshotCodec.RECORD_SIZE);
+
+        final CardSnapshot snapshot = new CardSnapshot();
+        CardSnapshotCodec.decode(buffer, CardSnapshotCodec.RECORD_SIZE, snapshot);
+        assertEquals("0005", snapshot.getLastFour());
+        assertEquals(15, snapshot.getCardNumberLength());
+        assertEquals("ZO\u00cb D'ARCY", snapshot.getCardName());
+        assertEquals("04/27", snapshot.getExpiryDate());
+        assertEquals(CardType.AMERICAN_EXPRESS, snapshot.getType());
+        assertEquals(CardNumberFormat.ONLY_LAST_FOUR, snapshot.getCardNumberFormat());
+        assertEquals(0xFF112233, snapshot.getCardNumberTextColor());
+        assertEquals(0xFF445566, snapshot.getCardNameTextColor());
+        assertEquals(0x80FFFFFF, snapshot.getExpiryDateTextColor());
+        assertEquals(0, snapshot.getValidTillTextColor());
+        assertTrue(snapshot.getPutChip());
+        assertEquals("brand_logo", snapshot.getBrandLogoName());
+        assertEquals("cardbackground_world", snapshot.getCardFrontBackgroundName());
+        assertEquals("cardbackground_canvas", snapshot.getCardBackBackgroundName());
+        assertFalse(CardSnapshotCodec.isDeleted(buffer, CardSnapshotCodec.RECORD_SIZE));
+    }
+
+    @Test
+    public void truncatesLongNames() {
+        final CardSnapshot snapshot = createSnapshot("ABCDEFGHIJKLMNOPQRSTUVWXYZ0123");
+        assertEquals(CardSnapshot.MAX_NAME_LENGTH, snapshot.getCardName().length());
+    }
+
+    @Test
+    public void dropsResourceNamesThatDoNotFit() {
+        final CardSnapshot snapshot = new CardSnapshot();
+        snapshot.setCardFrontBackgroundName("a_resource_name_that_is_far_too_long");
+        assertEquals("", snapshot.getCardFrontBackgroundName());
+        snapshot.setBrandLogoName("logo_\u00e9");
+        assertEquals("", snapshot.getBrandLogoName());
+        snapshot.setCardBackBackgroundName(null);
+        assertEquals("", snapshot.getCardBackBackgroundName());
+    }
+
+    @Test
+    public void encodingKeepsTheRecordId() {
+        final ByteBuffer buffer = ByteBuffer.allocate(CardSnapshotCodec.RECORD_SIZE);
+        CardSnapshotCodec.setRecordId(buffer, 0, 42);
+        CardSnapshotCodec.encode(createSnapshot("A B"), buffer, 0);
+        assertEquals(42, CardSnapshotCodec.getRecordId(buffer, 0));
+    }
+
+    @Test
+    public void flagsDeletedRecords() {
+        final ByteBuffer buffer = ByteBuffer.allocate(CardSnapshotCodec.RECORD_SIZE);
+        CardSnapshotCodec.encode(createSnapshot("A B"), buffer, 0);
+        CardSnapshotCodec.setDeleted(buffer, 0);
+        assertTrue(CardSnapshotCodec.isDeleted(buffer, 0));
+
+        // The other flags are kept
+        final CardSnapshot snapshot = new CardSnapshot();
+        CardSnapshotCodec.decode(buffer, 0, snapshot);
+        assertTrue(snapshot.getPutChip());
+    }
+}
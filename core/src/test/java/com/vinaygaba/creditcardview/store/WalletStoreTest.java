@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.store;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WalletStoreTest {
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void appendsAndReadsRecords() throws IOException {
+        final File file = mFolder.newFile();
+        final WalletStore store = new WalletStore(file);
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i, store.append(CardSnapshotCodecTest.createSnapshot("CARD " + i)));
+        }
+        assertEquals(40, store.getCount());
+
+        final CardSnapshot snapshot = new CardSnapshot();
+        store.read(39, snapshot);
+        assertEquals("CARD 39", snapshot.getCardName());
+        store.close();
+    }
+
+    @Test
+    public void reopensAFile() throws IOException {
+        final File file = mFolder.newFile();
+        WalletStore store = new WalletStore(file);
+        store.append(CardSnapshotCodecTest.createSnapshot("FIRST CARD"));
+        store.append(CardSnapshotCodecTest.createSnapshot("SECOND CARD"));
+        store.close();
+
+        store = new WalletStore(file);
+        assertEquals(2, store.getCount());
+        final CardSnapshot snapshot = new CardSnapshot();
+        store.read(1, snapshot);
+        assertEquals("SECOND CARD", snapshot.getCardName());
+        // Ids carry on from the ones handed out before
+        store.append(snapshot);
+        assertEquals(2, store.getRecordId(2));
+        store.close();
+    }
+
+    @Test
+    public void growsAFileWithOnlyAHeader() throws IOException {
+        final File file = mFolder.newFile();
+        new WalletStore(file).close();
+        final RandomAccessFile raw = new RandomAccessFile(file, "rw");
+        raw.setLength(WalletStore.HEADER_SIZE);
+        raw.close();
+
+        final WalletStore store = new WalletStore(file);
+        for (int i = 0; i < 20; i++) {
+            store.append(CardSnapshotCodecTest.createSnapshot("CARD " + i));
+        }
+        assertEquals(20, store.getCount());
+        store.close();
+    }
+
+    @Test
+    public void compactKeepsOrderAndRecordIds() throws IOException {
+        final WalletStore store = new WalletStore(mFolder.newFile());
+        for (int i = 0; i < 5; i++) {
+            store.append(CardSnapshotCodecTest.createSnapshot("CARD " + i));
+        }
+        store.delete(0);
+        store.delete(3);
+        assertTrue(store.isDeleted(3));
+        store.compact();
+
+        assertEquals(3, store.getCount());
+        final CardSnapshot snapshot = new CardSnapshot();
+        final int[] ids = {1, 2, 4};
+        for (int i = 0; i < ids.length; i++) {
+            assertFalse(store.isDeleted(i));
+            assertEquals(ids[i], store.getRecordId(i));
+            store.read(i, snapshot);
+            assertEquals("CARD " + ids[i], snapshot.getCardName());
+        }
+        store.close();
+    }
+
+    @Test
+    public void updateKeepsTheRecordId() throws IOException {
+        final WalletStore store = new WalletStore(mFolder.newFile());
+        store.append(CardSnapshotCodecTest.createSnapshot("OLD NAME"));
+        store.update(0, CardSnapshotCodecTest.createSnapshot("NEW NAME"));
+        assertEquals(0, store.getRecordId(0));
+
+        final CardSnapshot snapshot = new CardSnapshot();
+        store.read(0, snapshot);
+        assertEquals("NEW NAME", snapshot.getCardName());
+        store.close();
+    }
+
+    @Test
+    public void rejectsOtherFiles() throws IOException {
+        final File file = mFolder.newFile();
+        final RandomAccessFile raw = new RandomAccessFile(file, "rw");
+        raw.write(new byte[WalletStore.HEADER_SIZE]);
+        raw.close();
+        try {
+            new WalletStore(file);
+            fail();
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsIndexesPastTheEnd() throws IOException {
+        final WalletStore store = new WalletStore(mFolder.newFile());
+        try {
+            store.read(0, new CardSnapshot());
+        } finally {
+            store.close();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.headless;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders many cards in parallel on a fixed thread pool. All renders share one
+ * {@link ResourceCache}, so the font and the images are loaded once per batch renderer.
+ */
+public class BatchCardRenderer {
+
+    private final Java2DCardRenderer mRenderer;
+    private final ExecutorService mExecutor;
+
+    /**
+     * @param density pixels per dp of the rendered cards.
+     * @param threads number of rendering threads.
+     */
+    public BatchCardRenderer(float density, int threads) {
+        this(new Java2DCardRenderer(new ResourceCache(), density),
+                Executors.newFixedThreadPool(threads));
+    }
+
+    public BatchCardRenderer(Java2DCardRenderer renderer, ExecutorService executor) {
+        mRenderer = renderer;
+        mExecutor = executor;
+    }
+
+    /**
+     * Renders all cards. The returned futures are in the order of the specs.
+     */
+    public List<Future<BufferedImage>> renderAll(List<CardSpec> specs, final int width,
+                                                 final int height) {
+        final List<Future<BufferedImage>> results =
+                new ArrayList<Future<BufferedImage>>(specs.size());
+        for (final CardSpec spec : specs) {
+            results.add(mExecutor.submit(new Callable<BufferedImage>() {
+                @Override
+                public BufferedImage call() {
+                    return mRenderer.render(spec, width, height);
+                }
+            }));
+        }
+        return results;
+    }
+
+    /**
+     * Renders all cards as PNG files into a directory and waits for them to be written. Files
+     * are named by the position of the spec in the list.
+     */
+    public List<File> renderToDirectory(List<CardSpec> specs, final int width, final int height,
+                                        File directory) throws InterruptedException,
+            ExecutionException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Could not create " + directory);
+        }
+        final List<Future<File>> pending = new ArrayList<Future<File>>(specs.size());
+        for (int i = 0; i < specs.size(); i++) {
+            final CardSpec spec = specs.get(i);
+            final File file = new File(directory, "card_" + i + ".png");
+            pending.add(mExecutor.submit(new Callable<File>() {
+                @Override
+                public File call() throws Exception {
+                    mRenderer.writePng(spec, width, height, file);
+                    return file;
+                }
+            }));
+        }
+        final List<File> files = new ArrayList<File>(pending.size());
+        for (Future<File> future : pending) {
+            files.add(future.get());
+        }
+        return files;
+    }
+
+    /**
+     * Stops the rendering threads after the submitted cards are done
+     */
+    public void shutdown() throws InterruptedException {
+        mExecutor.shutdown();
+        mExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+}
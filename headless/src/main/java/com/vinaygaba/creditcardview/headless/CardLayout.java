@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.headless;
+
+/**
+ * Positions the elements of the front of a card the same way the RelativeLayout rules in
+ * creditcardview.xml do. All values are in pixels; the dp and sp constants mirror dimens.xml.
+ * Text is measured through a {@link TextMeasurer} so the layout does not depend on a graphics
+ * backend.
+ */
+public class CardLayout {
+
+    public static final int TEXT_CARD_NUMBER = 0;
+    public static final int TEXT_CARD_NAME = 1;
+    public static final int TEXT_EXPIRY_DATE = 2;
+    public static final int TEXT_VALID_TILL = 3;
+
+    // dimens.xml
+    static final float CARD_COMMON_MARGIN_DP = 16;
+    static final float CARD_NUMBER_MARGIN_BOTTOM_DP = 25;
+    static final float EXPIRY_DATE_MARGIN_LEFT_DP = 5;
+    static final float BRAND_LOGO_WIDTH_DP = 120;
+    static final float BRAND_LOGO_HEIGHT_DP = 40;
+    static final float CARD_CORNER_RADIUS_DP = 10;
+    static final float CARD_NUMBER_TEXT_SIZE_SP = 16;
+    static final float CARD_NAME_TEXT_SIZE_SP = 14;
+    static final float EXPIRY_DATE_TEXT_SIZE_SP = 14;
+    static final float VALID_TILL_TEXT_SIZE_SP = 10;
+
+    /**
+     * Measures a single line of text for one of the TEXT_* slots
+     */
+    public interface TextMeasurer {
+
+        float measureWidth(int slot, float textSizePx, String text);
+
+        /**
+         * Height of the line including the font padding, like a TextView with
+         * includeFontPadding
+         */
+        float lineHeight(int slot, float textSizePx);
+    }
+
+    /**
+     * Axis aligned rect of one element
+     */
+    public static class Slot {
+        public float left;
+        public float top;
+        public float right;
+        public float bottom;
+
+        void set(float left, float top, float right, float bottom) {
+            this.left = left;
+            this.top = top;
+            this.right = right;
+            this.bottom = bottom;
+        }
+
+        public float width() {
+            return right - left;
+        }
+
+        public float height() {
+            return bottom - top;
+        }
+    }
+
+    public final Slot cardNumber = new Slot();
+    public final Slot cardName = new Slot();
+    public final Slot expiryDate = new Slot();
+    public final Slot validTill = new Slot();
+    public final Slot cardLogo = new Slot();
+    public final Slot brandLogo = new Slot();
+    public final Slot chip = new Slot();
+
+    private final int mWidth;
+    private final int mHeight;
+    private final float mDensity;
+    private final float mScaledDensity;
+
+    /**
+     * @param width         width of the card in pixels.
+     * @param height        height of the card in pixels.
+     * @param density       pixels per dp.
+     * @param scaledDensity pixels per sp, usually equal to density.
+     */
+    public CardLayout(int width, int height, float density, float scaledDensity) {
+        mWidth = width;
+        mHeight = height;
+        mDensity = density;
+        mScaledDensity = scaledDensity;
+    }
+
+    public int getWidth() {
+        return mWidth;
+    }
+
+    public int getHeight() {
+        return mHeight;
+    }
+
+    public float getDensity() {
+        return mDensity;
+    }
+
+    public float getCornerRadius() {
+        return dp(CARD_CORNER_RADIUS_DP);
+    }
+
+    public float getTextSize(int slot) {
+        switch (slot) {
+            case TEXT_CARD_NUMBER:
+                return sp(CARD_NUMBER_TEXT_SIZE_SP);
+            case TEXT_CARD_NAME:
+                return sp(CARD_NAME_TEXT_SIZE_SP);
+            case TEXT_EXPIRY_DATE:
+                return sp(EXPIRY_DATE_TEXT_SIZE_SP);
+            case TEXT_VALID_TILL:
+                return sp(VALID_TILL_TEXT_SIZE_SP);
+            default:
+                throw new IllegalArgumentException("Unknown text slot: " + slot);
+        }
+    }
+
+    /**
+     * Lays out all elements
+     *
+     * @param spec         card contents.
+     * @param numberText   card number as displayed, i.e. already spaced and masked.
+     * @param measurer     text measurer of the backend.
+     * @param cardLogoSize intrinsic width and height of the card type logo in pixels.
+     * @param chipSize     intrinsic width and height of the chip in pixels.
+     */
+    public void layout(CardSpec spec, String numberText, TextMeasurer measurer,
+                       float[] cardLogoSize, float[] chipSize) {
+        final float margin = dp(CARD_COMMON_MARGIN_DP);
+
+        // card_name: alignParentBottom, alignParentLeft
+        final float nameHeight = measurer.lineHeight(TEXT_CARD_NAME,
+                getTextSize(TEXT_CARD_NAME));
+        final float nameWidth = measurer.measureWidth(TEXT_CARD_NAME,
+                getTextSize(TEXT_CARD_NAME), spec.getCardName());
+        cardName.set(margin, mHeight - margin - nameHeight, margin + nameWidth, mHeight - margin);
+
+        // expiry_date: above card_name, centerHorizontal
+        final float expiryHeight = measurer.lineHeight(TEXT_EXPIRY_DATE,
+                getTextSize(TEXT_EXPIRY_DATE));
+        final float expiryWidth = measurer.measureWidth(TEXT_EXPIRY_DATE,
+                getTextSize(TEXT_EXPIRY_DATE), spec.getExpiryDate());
+        final float expiryBottom = cardName.top - margin;
+        final float expiryLeft = (mWidth - expiryWidth) / 2f;
+        expiryDate.set(expiryLeft, expiryBottom - expiryHeight, expiryLeft + expiryWidth,
+                expiryBottom);
+
+        // valid_till: above card_name, toLeftOf expiry_date (which has a left margin)
+        final float validTillHeight = measurer.lineHeight(TEXT_VALID_TILL,
+                getTextSize(TEXT_VALID_TILL));
+        final float validTillWidth = measurer.measureWidth(TEXT_VALID_TILL,
+                getTextSize(TEXT_VALID_TILL), CardRenderer.VALID_TILL);
+        final float validTillRight = expiryLeft - dp(EXPIRY_DATE_MARGIN_LEFT_DP);
+        validTill.set(validTillRight - validTillWidth, expiryBottom - validTillHeight,
+                validTillRight, expiryBottom);
+
+        // card_number: above valid_till, alignParentLeft
+        final float numberHeight = measurer.lineHeight(TEXT_CARD_NUMBER,
+                getTextSize(TEXT_CARD_NUMBER));
+        final float numberWidth = measurer.measureWidth(TEXT_CARD_NUMBER,
+                getTextSize(TEXT_CARD_NUMBER), numberText);
+        final float numberBottom = validTill.top - dp(CARD_NUMBER_MARGIN_BOTTOM_DP);
+        cardNumber.set(margin, numberBottom - numberHeight, margin + numberWidth, numberBottom);
+
+        // chip: above card_number, alignParentLeft
+        chip.set(margin, cardNumber.top - margin - chipSize[1], margin + chipSize[0],
+                cardNumber.top - margin);
+
+        // card_logo: alignParentBottom, alignParentRight
+        cardLogo.set(mWidth - margin - cardLogoSize[0], mHeight - margin - cardLogoSize[1],
+                mWidth - margin, mHeight - margin);
+
+        // brand_logo: fixed size, alignParentTop, alignParentRight
+        brandLogo.set(mWidth - margin - dp(BRAND_LOGO_WIDTH_DP), margin, mWidth - margin,
+                margin + dp(BRAND_LOGO_HEIGHT_DP));
+    }
+
+    private float dp(float value) {
+        return value * mDensity;
+    }
+
+    private float sp(float value) {
+        return value * mScaledDensity;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.headless;
+
+import com.vinaygaba.creditcardview.CardNumberFormatter;
+import com.vinaygaba.creditcardview.CardTypeDetector;
+import com.vinaygaba.creditcardview.MaskedCardNumber;
+
+import static com.vinaygaba.creditcardview.CardType.AMERICAN_EXPRESS;
+import static com.vinaygaba.creditcardview.CardType.AUTO;
+import static com.vinaygaba.creditcardview.CardType.DISCOVER;
+import static com.vinaygaba.creditcardview.CardType.MASTERCARD;
+
+/**
+ * Backend independent part of rendering a card: the text and logo that CreditCardView would
+ * display for a {@link CardSpec}.
+ */
+public abstract class CardRenderer {
+
+    // strings.xml
+    static final String VALID_TILL = "VALID TILL";
+
+    /**
+     * Returns the card number the way the card number field displays it
+     */
+    protected static String getDisplayedCardNumber(CardSpec spec) {
+        final String cardNumber = CardNumberFormatter.addSpaces(spec.getCardNumber());
+        final CharSequence masked = CardNumberFormatter.mask(cardNumber,
+                spec.getCardNumberFormat());
+        if (masked instanceof MaskedCardNumber) {
+            // The field hides what is before the visible part
+            return masked.subSequence(((MaskedCardNumber) masked).getVisibleStart(),
+                    masked.length()).toString();
+        }
+        return masked.toString();
+    }
+
+    /**
+     * Returns the type of the card, detecting it from the card number when it is AUTO
+     */
+    protected static int resolveType(CardSpec spec) {
+        if (spec.getType() != AUTO) {
+            return spec.getType();
+        }
+        return CardTypeDetector.detect(spec.getCardNumber());
+    }
+
+    /**
+     * Returns the name of the logo drawable for a resolved card type
+     */
+    protected static String getLogoName(int type) {
+        switch (type) {
+            case MASTERCARD:
+                return "mastercard";
+            case AMERICAN_EXPRESS:
+                return "amex";
+            case DISCOVER:
+                return "discover";
+            default:
+                return "visa";
+        }
+    }
+}
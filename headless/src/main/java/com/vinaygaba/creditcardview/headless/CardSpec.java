@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.headless;
+
+import com.vinaygaba.creditcardview.CardNumberFormat;
+import com.vinaygaba.creditcardview.CardType;
+import com.vinaygaba.creditcardview.EmbossingNormalizer;
+
+/**
+ * Describes the contents of one card image, mirroring the attributes of CreditCardView. Colors
+ * are ARGB ints like on Android.
+ */
+public class CardSpec {
+
+    public static final String BACKGROUND_SKY = "cardbackground_sky";
+    public static final String BACKGROUND_WORLD = "cardbackground_world";
+
+    private static final int WHITE = 0xFFFFFFFF;
+
+    private String mCardNumber = "";
+    private String mCardName = "";
+    private String mExpiryDate = "";
+    private int mCardNumberFormat = CardNumberFormat.ALL_DIGITS;
+    private int mType = CardType.VISA;
+    private int mCardNumberTextColor = WHITE;
+    private int mCardNameTextColor = WHITE;
+    private int mExpiryDateTextColor = WHITE;
+    private int mValidTillTextColor = WHITE;
+    private boolean mPutChip = false;
+    private String mBackground = BACKGROUND_SKY;
+    private int mBackgroundColor = 0;
+    private String mBrandLogo;
+
+    public String getCardNumber() {
+        return mCardNumber;
+    }
+
+    public void setCardNumber(String cardNumber) {
+        mCardNumber = cardNumber == null ? "" : cardNumber.replaceAll("\\s+", "");
+    }
+
+    public String getCardName() {
+        return mCardName;
+    }
+
+    public void setCardName(String cardName) {
+        mCardName = EmbossingNormalizer.normalize(cardName);
+    }
+
+    public String getExpiryDate() {
+        return mExpiryDate;
+    }
+
+    public void setExpiryDate(String expiryDate) {
+        mExpiryDate = expiryDate == null ? "" : expiryDate;
+    }
+
+    public int getCardNumberFormat() {
+        return mCardNumberFormat;
+    }
+
+    public void setCardNumberFormat(int cardNumberFormat) {
+        if (cardNumberFormat < 0 | cardNumberFormat > 3) {
+            throw new UnsupportedOperationException("CardNumberFormat: " + cardNumberFormat + "  " +
+                    "is not supported. Use `CardNumberFormat.*` or `CardType.ALL_DIGITS` if " +
+                    "unknown");
+        }
+        mCardNumberFormat = cardNumberFormat;
+    }
+
+    public int getType() {
+        return mType;
+    }
+
+    public void setType(int type) {
+        if (type < 0 | type > 4) {
+            throw new UnsupportedOperationException("CardType: " + type + "  is not supported. " +
+                    "Use `CardType.*` or `CardType.AUTO` if unknown");
+        }
+        mType = type;
+    }
+
+    public int getCardNumberTextColor() {
+        return mCardNumberTextColor;
+    }
+
+    public void setCardNumberTextColor(int cardNumberTextColor) {
+        mCardNumberTextColor = cardNumberTextColor;
+    }
+
+    public int getCardNameTextColor() {
+        return mCardNameTextColor;
+    }
+
+    public void setCardNameTextColor(int cardNameTextColor) {
+        mCardNameTextColor = cardNameTextColor;
+    }
+
+    public int getExpiryDateTextColor() {
+        return mExpiryDateTextColor;
+    }
+
+    public void setExpiryDateTextColor(int expiryDateTextColor) {
+        mExpiryDateTextColor = expiryDateTextColor;
+    }
+
+    public int getValidTillTextColor() {
+        return mValidTillTextColor;
+    }
+
+    public void setValidTillTextColor(int validTillTextColor) {
+        mValidTillTextColor = validTillTextColor;
+    }
+
+    public boolean getPutChip() {
+        return mPutChip;
+    }
+
+    public void putChip(boolean flag) {
+        mPutChip = flag;
+    }
+
+    /**
+     * Name of a bundled background, e.g. {@link #BACKGROUND_SKY}, or a classpath path to an
+     * image
+     */
+    public String getBackground() {
+        return mBackground;
+    }
+
+    public void setBackground(String background) {
+        mBackground = background;
+        mBackgroundColor = 0;
+    }
+
+    /**
+     * Plain rounded background, the equivalent of cardbackground_plain
+     */
+    public int getBackgroundColor() {
+        return mBackgroundColor;
+    }
+
+    public void setBackgroundColor(int backgroundColor) {
+        mBackgroundColor = backgroundColor;
+        mBackground = null;
+    }
+
+    /**
+     * Classpath path or file path of the brand logo image, null for none
+     */
+    public String getBrandLogo() {
+        return mBrandLogo;
+    }
+
+    public void setBrandLogo(String brandLogo) {
+        mBrandLogo = brandLogo;
+    }
+}
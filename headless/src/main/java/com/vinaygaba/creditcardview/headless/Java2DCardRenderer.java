@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.headless;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Renders the front of a card into a {@link BufferedImage} with Java2D. Instances are thread
+ * safe and can share one {@link ResourceCache}.
+ */
+public class Java2DCardRenderer extends CardRenderer {
+
+    // colors.xml, used by cardbackground_plain
+    private static final int CARD_BORDER_COLOR = 0xFFB1BCBE;
+    private static final float CARD_BORDER_WIDTH_DP = 2;
+
+    private final ResourceCache mResourceCache;
+    private final float mDensity;
+
+    /**
+     * @param resourceCache cache of fonts and images, may be shared between renderers.
+     * @param density       pixels per dp, e.g. 3 to match an xxhdpi device.
+     */
+    public Java2DCardRenderer(ResourceCache resourceCache, float density) {
+        mResourceCache = resourceCache;
+        mDensity = density;
+    }
+
+    public float getDensity() {
+        return mDensity;
+    }
+
+    /**
+     * Renders a card
+     *
+     * @param width  width of the card in pixels.
+     * @param height height of the card in pixels.
+     */
+    public BufferedImage render(CardSpec spec, int width, int height) {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                    RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS,
+                    RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            draw(g, spec, width, height);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Renders a card and writes it as PNG
+     */
+    public void writePng(CardSpec spec, int width, int height, OutputStream out)
+            throws IOException {
+        ImageIO.write(render(spec, width, height), "png", out);
+    }
+
+    /**
+     * Renders a card and writes it as PNG
+     */
+    public void writePng(CardSpec spec, int width, int height, File file) throws IOException {
+        ImageIO.write(render(spec, width, height), "png", file);
+    }
+
+    private void draw(Graphics2D g, CardSpec spec, int width, int height) {
+        final CardLayout layout = new CardLayout(width, height, mDensity, mDensity);
+        final String numberText = getDisplayedCardNumber(spec);
+        final ResourceCache.ScaledImage cardLogo = mResourceCache.getDrawable(
+                getLogoName(resolveType(spec)), mDensity);
+        final ResourceCache.ScaledImage chip = mResourceCache.getDrawable("card_chip", mDensity);
+        layout.layout(spec, numberText, new GraphicsTextMeasurer(g),
+                new float[]{cardLogo.width, cardLogo.height},
+                new float[]{chip.width, chip.height});
+
+        drawBackground(g, spec, layout);
+
+        if (spec.getPutChip()) {
+            drawImage(g, chip.image, layout.chip);
+        }
+        if (spec.getBrandLogo() != null) {
+            final BufferedImage brandLogo = mResourceCache.getImage(spec.getBrandLogo());
+            if (brandLogo == null) {
+                throw new IllegalArgumentException("Brand logo not found: "
+                        + spec.getBrandLogo());
+            }
+            drawImage(g, brandLogo, layout.brandLogo);
+        }
+        drawImage(g, cardLogo.image, layout.cardLogo);
+
+        drawText(g, layout, CardLayout.TEXT_CARD_NUMBER, numberText, layout.cardNumber,
+                spec.getCardNumberTextColor());
+        drawText(g, layout, CardLayout.TEXT_VALID_TILL, VALID_TILL, layout.validTill,
+                spec.getValidTillTextColor());
+        drawText(g, layout, CardLayout.TEXT_EXPIRY_DATE, spec.getExpiryDate(), layout.expiryDate,
+                spec.getExpiryDateTextColor());
+        drawText(g, layout, CardLayout.TEXT_CARD_NAME, spec.getCardName(), layout.cardName,
+                spec.getCardNameTextColor());
+    }
+
+    private void drawBackground(Graphics2D g, CardSpec spec, CardLayout layout) {
+        if (spec.getBackground() != null) {
+            BufferedImage background = mResourceCache.getImage("drawable/"
+                    + spec.getBackground() + ".png");
+            if (background == null) {
+                background = mResourceCache.getImage(spec.getBackground());
+            }
+            if (background == null) {
+                throw new IllegalArgumentException("Background not found: "
+                        + spec.getBackground());
+            }
+            // Backgrounds are stretched to the bounds of the view
+            g.drawImage(background, 0, 0, layout.getWidth(), layout.getHeight(), null);
+        } else {
+            // Same shape as cardbackground_plain: solid fill, border and rounded corners
+            final float border = CARD_BORDER_WIDTH_DP * mDensity;
+            final float radius = layout.getCornerRadius();
+            final RoundRectangle2D shape = new RoundRectangle2D.Float(border / 2f, border / 2f,
+                    layout.getWidth() - border, layout.getHeight() - border, radius * 2f,
+                    radius * 2f);
+            g.setColor(new Color(spec.getBackgroundColor(), true));
+            g.fill(shape);
+            g.setColor(new Color(CARD_BORDER_COLOR, true));
+            g.setStroke(new BasicStroke(border));
+            g.draw(shape);
+        }
+    }
+
+    private static void drawImage(Graphics2D g, BufferedImage image, CardLayout.Slot slot) {
+        g.drawImage(image, Math.round(slot.left), Math.round(slot.top),
+                Math.round(slot.width()), Math.round(slot.height()), null);
+    }
+
+    private void drawText(Graphics2D g, CardLayout layout, int slot, String text,
+                          CardLayout.Slot bounds, int color) {
+        if (text.length() == 0) {
+            return;
+        }
+        g.setFont(getFont(slot, layout.getTextSize(slot)));
+        g.setColor(new Color(color, true));
+        // Text is top aligned in its view, the baseline sits below the font padding
+        g.drawString(text, bounds.left, bounds.top + g.getFontMetrics().getMaxAscent());
+    }
+
+    private Font getFont(int slot, float size) {
+        return slot == CardLayout.TEXT_VALID_TILL ? mResourceCache.getValidTillFont(size)
+                : mResourceCache.getCardFont(size);
+    }
+
+    /**
+     * Measures text with the fonts and rendering hints of the graphics being drawn into
+     */
+    private class GraphicsTextMeasurer implements CardLayout.TextMeasurer {
+
+        private final Graphics2D mGraphics;
+
+        GraphicsTextMeasurer(Graphics2D graphics) {
+            mGraphics = graphics;
+        }
+
+        @Override
+        public float measureWidth(int slot, float textSizePx, String text) {
+            final FontMetrics metrics = mGraphics.getFontMetrics(getFont(slot, textSizePx));
+            return (float) metrics.getStringBounds(text, mGraphics).getWidth();
+        }
+
+        @Override
+        public float lineHeight(int slot, float textSizePx) {
+            final FontMetrics metrics = mGraphics.getFontMetrics(getFont(slot, textSizePx));
+            return metrics.getMaxAscent() + metrics.getMaxDescent();
+        }
+    }
+}
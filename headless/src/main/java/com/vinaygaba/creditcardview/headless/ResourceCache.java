@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.headless;
+
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Thread safe cache of the fonts and images used for rendering. Fonts are derived once per
+ * size so that Java2D can keep reusing their glyph caches, and images are decoded once.
+ */
+public class ResourceCache {
+
+    // Font path starts after `assets/`, see strings.xml
+    private static final String FONT_PATH = "fonts/halter.ttf";
+    private static final String VALID_TILL_FONT_FAMILY = Font.SANS_SERIF;
+
+    // Density buckets of the res folder, from the lowest density
+    private static final String[] DENSITY_BUCKETS = {"mdpi", "hdpi", "xhdpi", "xxhdpi", "xxxhdpi"};
+    private static final float[] BUCKET_DENSITIES = {1f, 1.5f, 2f, 3f, 4f};
+
+    /**
+     * A decoded image and the size it is displayed at on a device of the requested density
+     */
+    public static class ScaledImage {
+        public final BufferedImage image;
+        public final float width;
+        public final float height;
+
+        ScaledImage(BufferedImage image, float scale) {
+            this.image = image;
+            this.width = image.getWidth() * scale;
+            this.height = image.getHeight() * scale;
+        }
+    }
+
+    private final ConcurrentMap<Float, Font> mCardFonts = new ConcurrentHashMap<Float, Font>();
+    private final ConcurrentMap<Float, Font> mValidTillFonts = new ConcurrentHashMap<Float, Font>();
+    private final ConcurrentMap<String, BufferedImage> mImages =
+            new ConcurrentHashMap<String, BufferedImage>();
+    private volatile Font mBaseFont;
+
+    /**
+     * Returns halter.ttf at the given size in pixels
+     */
+    public Font getCardFont(float size) {
+        Font font = mCardFonts.get(size);
+        if (font == null) {
+            font = getBaseFont().deriveFont(size);
+            final Font existing = mCardFonts.putIfAbsent(size, font);
+            if (existing != null) {
+                font = existing;
+            }
+        }
+        return font;
+    }
+
+    /**
+     * Returns the font of the "valid till" label, which uses the system font on Android
+     */
+    public Font getValidTillFont(float size) {
+        Font font = mValidTillFonts.get(size);
+        if (font == null) {
+            font = new Font(VALID_TILL_FONT_FAMILY, Font.PLAIN, 1).deriveFont(size);
+            final Font existing = mValidTillFonts.putIfAbsent(size, font);
+            if (existing != null) {
+                font = existing;
+            }
+        }
+        return font;
+    }
+
+    /**
+     * Returns a drawable of the library, picking the density bucket like Android does: the
+     * requested density or the closest higher one, then lower ones, then the density-less
+     * folder.
+     *
+     * @param name    name of the drawable without extension.
+     * @param density pixels per dp of the rendered card.
+     */
+    public ScaledImage getDrawable(String name, float density) {
+        int start = 0;
+        while (start < BUCKET_DENSITIES.length - 1 && BUCKET_DENSITIES[start] < density) {
+            start++;
+        }
+        for (int i = start; i < DENSITY_BUCKETS.length; i++) {
+            final BufferedImage image = getImage("drawable-" + DENSITY_BUCKETS[i] + "/" + name
+                    + ".png");
+            if (image != null) {
+                return new ScaledImage(image, density / BUCKET_DENSITIES[i]);
+            }
+        }
+        for (int i = start - 1; i >= 0; i--) {
+            final BufferedImage image = getImage("drawable-" + DENSITY_BUCKETS[i] + "/" + name
+                    + ".png");
+            if (image != null) {
+                return new ScaledImage(image, density / BUCKET_DENSITIES[i]);
+            }
+        }
+        // drawable/ is treated as mdpi
+        final BufferedImage image = getImage("drawable/" + name + ".png");
+        if (image != null) {
+            return new ScaledImage(image, density);
+        }
+        throw new IllegalArgumentException("Drawable not found: " + name);
+    }
+
+    /**
+     * Returns an image from the classpath or, if it is not found there, from the file system.
+     * Returns null if it does not exist.
+     */
+    public BufferedImage getImage(String path) {
+        BufferedImage image = mImages.get(path);
+        if (image == null) {
+            image = loadImage(path);
+            if (image == null) {
+                return null;
+            }
+            final BufferedImage existing = mImages.putIfAbsent(path, image);
+            if (existing != null) {
+                image = existing;
+            }
+        }
+        return image;
+    }
+
+    private Font getBaseFont() {
+        if (mBaseFont == null) {
+            synchronized (this) {
+                if (mBaseFont == null) {
+                    mBaseFont = loadFont();
+                }
+            }
+        }
+        return mBaseFont;
+    }
+
+    private static Font loadFont() {
+        final InputStream in = ResourceCache.class.getClassLoader().getResourceAsStream(FONT_PATH);
+        if (in == null) {
+            throw new IllegalStateException("Font not found on the classpath: " + FONT_PATH);
+        }
+        try {
+            return Font.createFont(Font.TRUETYPE_FONT, in);
+        } catch (FontFormatException e) {
+            throw new IllegalStateException("Could not load " + FONT_PATH, e);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load " + FONT_PATH, e);
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private static BufferedImage loadImage(String path) {
+        try {
+            final InputStream in = ResourceCache.class.getClassLoader().getResourceAsStream(path);
+            if (in != null) {
+                try {
+                    return ImageIO.read(in);
+                } finally {
+                    closeQuietly(in);
+                }
+            }
+            final File file = new File(path);
+            return file.isFile() ? ImageIO.read(file) : null;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not decode " + path, e);
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.headless;
+
+import com.vinaygaba.creditcardview.CardNumberFormat;
+import com.vinaygaba.creditcardview.CardType;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Renders fixed cards and compares them with the PNGs in {@code golden/}. Text is rasterized
+ * slightly differently across JDKs and platforms, so a few pixels may differ by a small amount.
+ *
+ * <p>Run with {@code -Dgolden.update=<dir>} to write the rendered images to a directory instead,
+ * e.g. {@code src/test/resources/golden} after an intended change. Images that do not match are
+ * written to {@code build/golden} for inspection.</p>
+ */
+public class Java2DCardRendererTest {
+
+    // 340x214dp, the size of the card in the sample, at mdpi
+    private static final int WIDTH = 340;
+    private static final int HEIGHT = 214;
+    private static final float DENSITY = 1f;
+
+    // Largest difference of a channel that is still a match
+    private static final int CHANNEL_TOLERANCE = 48;
+    // Largest share of pixels that may differ by more
+    private static final float MAX_DIFFERENT_PIXELS = 0.01f;
+
+    private static Java2DCardRenderer sRenderer;
+
+    @BeforeClass
+    public static void setUpClass() {
+        sRenderer = new Java2DCardRenderer(new ResourceCache(), DENSITY);
+    }
+
+    @Test
+    public void rendersTheDefaultCard() throws IOException {
+        final CardSpec spec = new CardSpec();
+        spec.setCardNumber("4111111111111111");
+        spec.setCardName("VINAY GABA");
+        spec.setExpiryDate("12/28");
+        spec.putChip(true);
+        assertMatchesGolden("default_sky", spec);
+    }
+
+    @Test
+    public void rendersAMaskedCardOnWorld() throws IOException {
+        final CardSpec spec = new CardSpec();
+        spec.setCardNumber("5500000000000004");
+        spec.setCardName("Zo\u00eb O'Brien");
+        spec.setExpiryDate("03/27");
+        spec.setType(CardType.AUTO);
+        spec.setCardNumberFormat(CardNumberFormat.MASKED_ALL_BUT_LAST_FOUR);
+        spec.setBackground(CardSpec.BACKGROUND_WORLD);
+        spec.setCardNameTextColor(0xFFFFD54F);
+        assertMatchesGolden("masked_world", spec);
+    }
+
+    @Test
+    public void rendersAPlainCard() throws IOException {
+        final CardSpec spec = new CardSpec();
+        spec.setCardNumber("378282246310005");
+        spec.setCardName("JANE DOE");
+        spec.setExpiryDate("07/30");
+        spec.setType(CardType.AMERICAN_EXPRESS);
+        spec.setCardNumberFormat(CardNumberFormat.ONLY_LAST_FOUR);
+        spec.setBackgroundColor(0xFF37474F);
+        spec.setValidTillTextColor(0xFFB0BEC5);
+        assertMatchesGolden("plain_last_four", spec);
+    }
+
+    @Test
+    public void rendersTheSameImageTwice() {
+        final CardSpec spec = new CardSpec();
+        spec.setCardNumber("6011000000000004");
+        final BufferedImage first = sRenderer.render(spec, WIDTH, HEIGHT);
+        final BufferedImage second = sRenderer.render(spec, WIDTH, HEIGHT);
+        assertEquals(0, countDifferentPixels(first, second, 0));
+    }
+
+    private static void assertMatchesGolden(String name, CardSpec spec) throws IOException {
+        final BufferedImage actual = sRenderer.render(spec, WIDTH, HEIGHT);
+        final String updateDir = System.getProperty("golden.update");
+        if (updateDir != null) {
+            write(actual, new File(updateDir, name + ".png"));
+            return;
+        }
+
+        final BufferedImage expected = readGolden(name);
+        assertEquals(name + " width", expected.getWidth(), actual.getWidth());
+        assertEquals(name + " height", expected.getHeight(), actual.getHeight());
+        final int different = countDifferentPixels(expected, actual, CHANNEL_TOLERANCE);
+        final int allowed = (int) (WIDTH * HEIGHT * MAX_DIFFERENT_PIXELS);
+        if (different > allowed) {
+            write(actual, new File("build/golden", name + ".png"));
+        }
+        assertTrue(name + ": " + different + " pixels differ, at most " + allowed + " may",
+                different <= allowed);
+    }
+
+    private static BufferedImage readGolden(String name) throws IOException {
+        final InputStream in = Java2DCardRendererTest.class.getResourceAsStream(
+                "/golden/" + name + ".png");
+        assertNotNull("Missing golden image " + name, in);
+        try {
+            return ImageIO.read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void write(BufferedImage image, File file) throws IOException {
+        file.getParentFile().mkdirs();
+        ImageIO.write(image, "png", file);
+    }
+
+    /**
+     * Returns the number of pixels with a channel, alpha included, that differs by more than
+     * the tolerance
+     */
+    private static int countDifferentPixels(BufferedImage expected, BufferedImage actual,
+                                            int tolerance) {
+        int different = 0;
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                final int a = expected.getRGB(x, y);
+                final int b = actual.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    if (Math.abs(((a >>> shift) & 0xff) - ((b >>> shift) & 0xff)) > tolerance) {
+                        different++;
+                        break;
+                    }
+                }
+            }
+        }
+        return different;
+    }
+}
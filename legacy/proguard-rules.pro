@@ -0,0 +1,4 @@
+# CreditCardView loads the flip animator for devices before Honeycomb by name
+-keep class com.vinaygaba.creditcardview.legacy.LegacyCardFlipAnimator {
+    public <init>();
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.legacy;
+
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+
+import com.nineoldandroids.animation.Animator;
+import com.nineoldandroids.animation.AnimatorListenerAdapter;
+import com.nineoldandroids.animation.AnimatorSet;
+import com.nineoldandroids.animation.ObjectAnimator;
+import com.nineoldandroids.view.ViewHelper;
+import com.vinaygaba.creditcardview.CardFlipAnimator;
+
+/**
+ * {@link CardFlipAnimator} for devices before Honeycomb, built on nineoldandroids. CreditCardView
+ * picks it up automatically when this module is on the classpath; without it cards flip without
+ * an animation on those devices.
+ */
+public class LegacyCardFlipAnimator implements CardFlipAnimator {
+
+    private static final int HALF_FLIP_DURATION = 300;
+    // Delay before the card is shown again, hides the face swap for the first frames
+    private static final int SHOW_DELAY = 150;
+
+    private AnimatorSet mAnimation;
+
+    @Override
+    public void start(View card, final Listener listener) {
+        final ObjectAnimator rotateIn = ObjectAnimator.ofFloat(card, "rotationY", 0, 90);
+        final ObjectAnimator hide = ObjectAnimator.ofFloat(card, "alpha", 1, 0);
+        final ObjectAnimator rotateOut = ObjectAnimator.ofFloat(card, "rotationY", -90, 0);
+        final ObjectAnimator show = ObjectAnimator.ofFloat(card, "alpha", 0, 1);
+        rotateIn.setInterpolator(new AccelerateDecelerateInterpolator());
+        rotateIn.setDuration(HALF_FLIP_DURATION);
+        hide.setDuration(1);
+        rotateOut.setInterpolator(new AccelerateDecelerateInterpolator());
+        rotateOut.setDuration(HALF_FLIP_DURATION);
+        show.setDuration(1);
+        show.setStartDelay(SHOW_DELAY);
+        rotateOut.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationStart(Animator animation) {
+                listener.onFlipMidpoint();
+            }
+        });
+
+        final AnimatorSet set = new AnimatorSet();
+        set.play(hide).after(rotateIn);
+        set.play(rotateOut).with(show).after(hide);
+        set.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                if (mAnimation == animation) {
+                    mAnimation = null;
+                }
+            }
+        });
+        mAnimation = set;
+        set.start();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return mAnimation != null && mAnimation.isRunning();
+    }
+
+    @Override
+    public void cancel(View card) {
+        if (mAnimation == null) {
+            return;
+        }
+        final AnimatorSet animation = mAnimation;
+        mAnimation = null;
+        animation.cancel();
+        ViewHelper.setRotationY(card, 0);
+        ViewHelper.setAlpha(card, 1);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.image;
+
+import android.test.InstrumentationTestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class DiskCacheTest extends InstrumentationTestCase {
+
+    private File mDirectory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mDirectory = new File(getInstrumentation().getTargetContext().getCacheDir(),
+                "disk-cache-test-" + System.nanoTime());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        final File[] files = mDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        mDirectory.delete();
+        super.tearDown();
+    }
+
+    public void testSlowPutDoesNotBlockOthers() throws Exception {
+        final DiskCache cache = new DiskCache(mDirectory, 1024 * 1024);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        // A download that stalls after its first bytes
+        final InputStream slow = new InputStream() {
+            private int mRead;
+
+            @Override
+            public int read() throws IOException {
+                if (mRead == 1) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e.toString());
+                    }
+                }
+                return mRead++ < 16 ? 'a' : -1;
+            }
+        };
+        final Thread slowPut = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    cache.put("slow", slow).close();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        slowPut.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        final CountDownLatch fastDone = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    cache.put("fast", stream("fast")).close();
+                    cache.get("fast").close();
+                    fastDone.countDown();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }).start();
+        final boolean fastFinished = fastDone.await(5, TimeUnit.SECONDS);
+        release.countDown();
+        slowPut.join(5000);
+
+        assertTrue("Put waited for a slow put", fastFinished);
+        assertEquals("aaaaaaaaaaaaaaaa", read(cache.get("slow")));
+        assertEquals("fast", read(cache.get("fast")));
+    }
+
+    public void testReplacesEntriesWithoutLeavingTemporaryFiles() throws Exception {
+        final DiskCache cache = new DiskCache(mDirectory, 1024 * 1024);
+        cache.put("key", stream("first")).close();
+        cache.put("key", stream("second")).close();
+
+        assertEquals("second", read(cache.get("key")));
+        assertEquals(1, mDirectory.listFiles().length);
+    }
+
+    public void testEvictsTheLeastRecentlyUsed() throws Exception {
+        final DiskCache cache = new DiskCache(mDirectory, 25);
+        // Modification times have a resolution of a second on some file systems
+        final long now = System.currentTimeMillis();
+        cache.put("old", stream("0123456789")).close();
+        setLastModified("old", now - 20000);
+        cache.put("used", stream("0123456789")).close();
+        setLastModified("used", now - 10000);
+        cache.put("new", stream("0123456789")).close();
+
+        assertNull(cache.get("old"));
+        assertEquals("0123456789", read(cache.get("used")));
+        assertEquals("0123456789", read(cache.get("new")));
+    }
+
+    public void testKeepsAnEntryLargerThanTheCache() throws Exception {
+        final DiskCache cache = new DiskCache(mDirectory, 25);
+        cache.put("old", stream("0123456789")).close();
+        final InputStream in = cache.put("large", new ByteArrayInputStream(new byte[100]));
+
+        assertEquals(100, read(in).length());
+        assertNull(cache.get("old"));
+        assertEquals(100, read(cache.get("large")).length());
+    }
+
+    public void testOpenEntriesSurviveEviction() throws Exception {
+        final DiskCache cache = new DiskCache(mDirectory, 15);
+        cache.put("old", stream("0123456789")).close();
+        setLastModified("old", System.currentTimeMillis() - 10000);
+        final InputStream in = cache.get("old");
+        setLastModified("old", System.currentTimeMillis() - 10000);
+        cache.put("new", stream("0123456789")).close();
+
+        assertNull(cache.get("old"));
+        assertEquals("0123456789", read(in));
+    }
+
+    public void testDropsTemporaryFilesOfAnEarlierRun() throws Exception {
+        assertTrue(mDirectory.mkdirs());
+        assertTrue(new File(mDirectory, "left-behind.tmp").createNewFile());
+        new DiskCache(mDirectory, 1024).put("key", stream("value")).close();
+
+        assertEquals(1, mDirectory.listFiles().length);
+    }
+
+    private static InputStream stream(String value) {
+        return new ByteArrayInputStream(value.getBytes());
+    }
+
+    private void setLastModified(String key, long time) {
+        assertTrue(new File(mDirectory, DiskCache.fileName(key)).setLastModified(time));
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try {
+            final StringBuilder result = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1) {
+                result.append((char) c);
+            }
+            return result.toString();
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.image;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal HTTP server on localhost that stands in for an image host. It serves fixed bodies by
+ * path, answers 404 for anything else, and counts the requests of each path. Responses can be
+ * delayed so that concurrent requests overlap.
+ */
+class HttpStandIn {
+
+    private final ServerSocket mServerSocket;
+    private final Map<String, byte[]> mBodies = new HashMap<String, byte[]>();
+    private final Map<String, Integer> mRequestCounts = new HashMap<String, Integer>();
+    private volatile long mDelayMillis;
+    private final Thread mThread;
+
+    HttpStandIn() throws IOException {
+        mServerSocket = new ServerSocket(0, 0, InetAddress.getByName("127.0.0.1"));
+        mThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                acceptConnections();
+            }
+        }, "HttpStandIn");
+        mThread.start();
+    }
+
+    /**
+     * Returns the url a path is served at
+     */
+    String getUrl(String path) {
+        return "http://127.0.0.1:" + mServerSocket.getLocalPort() + path;
+    }
+
+    synchronized void setBody(String path, byte[] body) {
+        mBodies.put(path, body);
+    }
+
+    void setDelayMillis(long delayMillis) {
+        mDelayMillis = delayMillis;
+    }
+
+    synchronized int getRequestCount(String path) {
+        final Integer count = mRequestCounts.get(path);
+        return count == null ? 0 : count;
+    }
+
+    void shutdown() throws IOException {
+        mServerSocket.close();
+        try {
+            mThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptConnections() {
+        while (!mServerSocket.isClosed()) {
+            final Socket socket;
+            try {
+                socket = mServerSocket.accept();
+            } catch (IOException e) {
+                // Closed by shutdown()
+                return;
+            }
+            // One thread per connection, so a delayed response does not hold up the others
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        respond(socket);
+                    } catch (IOException ignored) {
+                    } finally {
+                        try {
+                            socket.close();
+                        } catch (IOException ignored) {
+                        }
+                    }
+                }
+            }).start();
+        }
+    }
+
+    private void respond(Socket socket) throws IOException {
+        final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+        final String requestLine = reader.readLine();
+        if (requestLine == null) {
+            return;
+        }
+        // Skip the headers
+        String line;
+        while ((line = reader.readLine()) != null && line.length() > 0) {
+        }
+
+        final String path = requestLine.split(" ")[1];
+        final byte[] body;
+        synchronized (this) {
+            final Integer count = mRequestCounts.get(path);
+            mRequestCounts.put(path, count == null ? 1 : count + 1);
+            body = mBodies.get(path);
+        }
+        if (mDelayMillis > 0) {
+            try {
+                Thread.sleep(mDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        final OutputStream out = socket.getOutputStream();
+        if (body == null) {
+            out.write(("HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\n"
+                    + "Connection: close\r\n\r\n").getBytes("US-ASCII"));
+        } else {
+            out.write(("HTTP/1.1 200 OK\r\nContent-Type: image/png\r\nContent-Length: "
+                    + body.length + "\r\nConnection: close\r\n\r\n").getBytes("US-ASCII"));
+            out.write(body);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.image;
+
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.test.InstrumentationTestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads images from {@link HttpStandIn} through the shared {@link ImageLoader}. Every test uses
+ * paths of its own, so the memory and disk caches left by other tests do not interfere.
+ */
+public class ImageLoaderTest extends InstrumentationTestCase {
+
+    private static final int IMAGE_WIDTH = 400;
+    private static final int IMAGE_HEIGHT = 252;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private HttpStandIn mServer;
+    private ImageLoader mLoader;
+    private String mPath;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mServer = new HttpStandIn();
+        mLoader = ImageLoader.getInstance(getInstrumentation().getTargetContext());
+        mPath = "/" + getName() + "-" + System.nanoTime() + ".png";
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mServer.shutdown();
+        super.tearDown();
+    }
+
+    public void testDownloadsOnceForTwoSizes() throws Exception {
+        mServer.setBody(mPath, createPng());
+        // Long enough for the second request to start while the first is downloading
+        mServer.setDelayMillis(500);
+        final Uri uri = Uri.parse(mServer.getUrl(mPath));
+
+        final Result full = new Result();
+        final Result half = new Result();
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mLoader.load(uri, IMAGE_WIDTH, IMAGE_HEIGHT, full);
+                mLoader.load(uri, IMAGE_WIDTH / 2, IMAGE_HEIGHT / 2, half);
+            }
+        });
+        full.await();
+        half.await();
+
+        assertEquals(1, mServer.getRequestCount(mPath));
+        assertEquals(IMAGE_WIDTH, full.mBitmap.getWidth());
+        // Decoded per size from the same file
+        assertEquals(IMAGE_WIDTH / 2, half.mBitmap.getWidth());
+    }
+
+    public void testSharesOneLoadForTheSameSize() throws Exception {
+        mServer.setBody(mPath, createPng());
+        mServer.setDelayMillis(200);
+        final Uri uri = Uri.parse(mServer.getUrl(mPath));
+
+        final Result first = new Result();
+        final Result second = new Result();
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mLoader.load(uri, IMAGE_WIDTH, IMAGE_HEIGHT, first);
+                mLoader.load(uri, IMAGE_WIDTH, IMAGE_HEIGHT, second);
+            }
+        });
+        first.await();
+        second.await();
+
+        assertEquals(1, mServer.getRequestCount(mPath));
+        assertSame(first.mBitmap, second.mBitmap);
+        assertSame(first.mBitmap, mLoader.getCached(uri, IMAGE_WIDTH, IMAGE_HEIGHT));
+    }
+
+    public void testReadsTheDiskCacheForANewSize() throws Exception {
+        mServer.setBody(mPath, createPng());
+        final Uri uri = Uri.parse(mServer.getUrl(mPath));
+        load(uri, IMAGE_WIDTH, IMAGE_HEIGHT).await();
+        final Result quarter = load(uri, IMAGE_WIDTH / 4, IMAGE_HEIGHT / 4);
+        quarter.await();
+
+        assertEquals(1, mServer.getRequestCount(mPath));
+        assertEquals(IMAGE_WIDTH / 4, quarter.mBitmap.getWidth());
+    }
+
+    public void testReportsMissingImages() throws Exception {
+        final Uri uri = Uri.parse(mServer.getUrl(mPath));
+        final Result result = load(uri, IMAGE_WIDTH, IMAGE_HEIGHT);
+        result.await();
+
+        assertNull(result.mBitmap);
+        assertNotNull(result.mError);
+        assertEquals(1, mServer.getRequestCount(mPath));
+    }
+
+    private Result load(final Uri uri, final int width, final int height) {
+        final Result result = new Result();
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mLoader.load(uri, width, height, result);
+            }
+        });
+        return result;
+    }
+
+    private void runOnMainSync(Runnable runnable) {
+        getInstrumentation().runOnMainSync(runnable);
+    }
+
+    private static byte[] createPng() throws IOException {
+        final Bitmap bitmap = Bitmap.createBitmap(IMAGE_WIDTH, IMAGE_HEIGHT,
+                Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(0xFF1E88E5);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        bitmap.recycle();
+        return out.toByteArray();
+    }
+
+    private static class Result implements ImageLoader.Callback {
+
+        private final CountDownLatch mLatch = new CountDownLatch(1);
+        volatile Bitmap mBitmap;
+        volatile Exception mError;
+
+        @Override
+        public void onImageLoaded(Uri uri, Bitmap bitmap) {
+            mBitmap = bitmap;
+            mLatch.countDown();
+        }
+
+        @Override
+        public void onImageFailed(Uri uri, Exception e) {
+            mError = e;
+            mLatch.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("Timed out", mLatch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.library;
+
+import android.test.ActivityInstrumentationTestCase2;
+
+import com.vinaygaba.creditcardview.CardData;
+import com.vinaygaba.creditcardview.CreditCardView;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the {@link CreditCardView.OnCardDataChangedListener} callbacks for the setters,
+ * {@link CreditCardView#ingest(CharSequence)} and {@link CreditCardView#clearSensitiveData()}
+ */
+public class CardDataChangedListenerTest extends ActivityInstrumentationTestCase2<CardHostActivity> {
+
+    private static final long FRAME_TIMEOUT_MS = 2000;
+    // Long enough for a callback scheduled by mistake to arrive
+    private static final long QUIET_PERIOD_MS = 200;
+
+    private CreditCardView mView;
+    private volatile CountDownLatch mCallback;
+    private volatile int mCallbackCount;
+    private volatile int mChangedFields;
+
+    public CardDataChangedListenerTest() {
+        super(CardHostActivity.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        final CardHostActivity activity = getActivity();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mView = new CreditCardView(activity);
+                activity.setContentView(mView);
+                mView.setOnCardDataChangedListener(
+                        new CreditCardView.OnCardDataChangedListener() {
+                            @Override
+                            public void onCardDataChanged(CreditCardView view, int changedFields,
+                                                          CardData data) {
+                                mCallbackCount++;
+                                mChangedFields = changedFields;
+                                mCallback.countDown();
+                            }
+                        });
+            }
+        });
+        getInstrumentation().waitForIdleSync();
+    }
+
+    public void testSettersNotify() throws InterruptedException {
+        assertCallback(CreditCardView.FIELD_CARD_NUMBER, new Runnable() {
+            @Override
+            public void run() {
+                mView.setCardNumber("4111 1111 1111 1111");
+            }
+        });
+        // Changes within a frame are delivered together
+        assertCallback(CreditCardView.FIELD_CARD_NAME | CreditCardView.FIELD_EXPIRY_DATE
+                | CreditCardView.FIELD_CVV, new Runnable() {
+            @Override
+            public void run() {
+                mView.setCardName("JOHN DOE");
+                mView.setExpiryDate("12/30");
+                mView.setCvv("123");
+            }
+        });
+        assertNoCallback(new Runnable() {
+            @Override
+            public void run() {
+                mView.setCardNumber("4111111111111111");
+                mView.setCardName("JOHN DOE");
+            }
+        });
+        assertEquals(2, mCallbackCount);
+    }
+
+    public void testIngestNotifies() throws InterruptedException {
+        assertCallback(CreditCardView.FIELD_CARD_NUMBER | CreditCardView.FIELD_EXPIRY_DATE,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        mView.ingest("4012 8888 8888 1881 VALID THRU 01/29");
+                    }
+                });
+        assertNoCallback(new Runnable() {
+            @Override
+            public void run() {
+                mView.ingest("no card here");
+            }
+        });
+        assertEquals(1, mCallbackCount);
+    }
+
+    public void testClearSensitiveDataNotifies() throws InterruptedException {
+        assertCallback(CreditCardView.FIELD_CARD_NUMBER | CreditCardView.FIELD_CVV,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        mView.setCardNumber("4111111111111111");
+                        mView.setCvv("123");
+                    }
+                });
+        assertCallback(CreditCardView.FIELD_CARD_NUMBER | CreditCardView.FIELD_CVV,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        mView.clearSensitiveData();
+                    }
+                });
+        // Nothing left to clear
+        assertNoCallback(new Runnable() {
+            @Override
+            public void run() {
+                mView.clearSensitiveData();
+            }
+        });
+        assertEquals(2, mCallbackCount);
+    }
+
+    private void assertCallback(int expectedFields, Runnable change)
+            throws InterruptedException {
+        final int countBefore = mCallbackCount;
+        mCallback = new CountDownLatch(1);
+        getInstrumentation().runOnMainSync(change);
+        assertTrue("No callback", mCallback.await(FRAME_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        Thread.sleep(QUIET_PERIOD_MS);
+        getInstrumentation().waitForIdleSync();
+        assertEquals(countBefore + 1, mCallbackCount);
+        assertEquals(expectedFields, mChangedFields);
+    }
+
+    private void assertNoCallback(Runnable change) throws InterruptedException {
+        final int countBefore = mCallbackCount;
+        mCallback = new CountDownLatch(1);
+        getInstrumentation().runOnMainSync(change);
+        assertFalse("Unexpected callback",
+                mCallback.await(QUIET_PERIOD_MS, TimeUnit.MILLISECONDS));
+        assertEquals(countBefore, mCallbackCount);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.library;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.test.InstrumentationTestCase;
+import android.util.Log;
+import android.view.View;
+
+import com.vinaygaba.creditcardview.CreditCardView;
+import com.vinaygaba.creditcardview.ProceduralCardBackground;
+import com.vinaygaba.creditcardview.R;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the memory one {@link CreditCardView} retains for every combination of the attributes
+ * that load drawables or editing state, writes the results to {@code footprint.csv} in the files
+ * directory and fails when a combination goes over {@link #BUDGET_BYTES}. The report also lists
+ * the shared cost, what the first card loads after {@link CreditCardView#releaseSharedResources()}
+ * and every later card reuses; it is not part of the budget.
+ */
+public class CreditCardViewFootprintTest extends InstrumentationTestCase {
+
+    private static final String TAG = "CardFootprint";
+    private static final String REPORT_FILE = "footprint.csv";
+
+    // Per instance budget, Java and native heap together
+    private static final long BUDGET_BYTES = 200 * 1024;
+    private static final int INSTANCES_PER_MEASUREMENT = 8;
+
+    private static final int CARD_WIDTH_DP = 340;
+    private static final int CARD_HEIGHT_DP = 214;
+
+    private static final String[] BACKGROUND_NAMES = {
+            "sky", "world", "plain", "procedural_sky", "procedural_world"
+    };
+
+    private Context mContext;
+    private Bitmap mDrawTarget;
+    private Canvas mCanvas;
+    private int mWidth;
+    private int mHeight;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mContext = getInstrumentation().getTargetContext();
+        final float density = mContext.getResources().getDisplayMetrics().density;
+        mWidth = (int) (CARD_WIDTH_DP * density + 0.5f);
+        mHeight = (int) (CARD_HEIGHT_DP * density + 0.5f);
+        // One shared target, so drawing a view does not charge it a bitmap of its own
+        mDrawTarget = Bitmap.createBitmap(mWidth, mHeight, Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(mDrawTarget);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mDrawTarget.recycle();
+        mDrawTarget = null;
+        mCanvas = null;
+        super.tearDown();
+    }
+
+    public void testFootprintWithinBudget() throws IOException {
+        final FootprintMeter meter = new FootprintMeter(INSTANCES_PER_MEASUREMENT);
+        final StringBuilder report =
+                new StringBuilder("configuration,java_bytes,native_bytes,total_bytes,"
+                        + "shared_java_bytes,shared_native_bytes,shared_bytes\n");
+        final List<String> overBudget = new ArrayList<String>();
+
+        for (int background = 0; background < BACKGROUND_NAMES.length; background++) {
+            for (int flags = 0; flags < 16; flags++) {
+                final Configuration configuration = new Configuration(background,
+                        (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0, (flags & 8) != 0);
+                final FootprintMeter.Footprint footprint = measureOnMainThread(meter, configuration);
+
+                report.append(configuration).append(',')
+                        .append(footprint.javaBytes).append(',')
+                        .append(footprint.nativeBytes).append(',')
+                        .append(footprint.getTotalBytes()).append(',')
+                        .append(footprint.sharedJavaBytes).append(',')
+                        .append(footprint.sharedNativeBytes).append(',')
+                        .append(footprint.getSharedBytes()).append('\n');
+                if (footprint.getTotalBytes() > BUDGET_BYTES) {
+                    overBudget.add(configuration + " (" + footprint.getTotalBytes() + " bytes)");
+                }
+            }
+        }
+
+        writeReport(report.toString());
+        assertTrue("Over the " + BUDGET_BYTES + " byte budget: " + overBudget,
+                overBudget.isEmpty());
+    }
+
+    private FootprintMeter.Footprint measureOnMainThread(final FootprintMeter meter,
+                                                         final Configuration configuration) {
+        final FootprintMeter.Footprint[] result = new FootprintMeter.Footprint[1];
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                result[0] = meter.measure(new FootprintMeter.Factory<CreditCardView>() {
+                    @Override
+                    public CreditCardView create() {
+                        return createView(configuration);
+                    }
+                }, new Runnable() {
+                    @Override
+                    public void run() {
+                        CreditCardView.releaseSharedResources();
+                    }
+                });
+            }
+        });
+        return result[0];
+    }
+
+    private CreditCardView createView(Configuration configuration) {
+        final CreditCardView view = new CreditCardView(mContext);
+        view.setIsFlippable(configuration.mIsFlippable);
+        view.putChip(configuration.mPutChip);
+        view.setIsEditable(configuration.mIsEditable);
+        if (configuration.mHasBrandLogo) {
+            view.setBrandLogo(R.drawable.amex);
+        }
+        switch (configuration.mBackground) {
+            case 0:
+                view.setBackgroundResource(R.drawable.cardbackground_sky);
+                break;
+            case 1:
+                view.setBackgroundResource(R.drawable.cardbackground_world);
+                break;
+            case 2:
+                view.setBackgroundResource(R.drawable.cardbackground_plain);
+                break;
+            case 3:
+                view.setCardBackgroundPreset(ProceduralCardBackground.PRESET_SKY);
+                break;
+            default:
+                view.setCardBackgroundPreset(ProceduralCardBackground.PRESET_WORLD);
+                break;
+        }
+
+        // Lay out and draw once so lazily created bitmaps and caches are counted
+        view.measure(View.MeasureSpec.makeMeasureSpec(mWidth, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(mHeight, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, mWidth, mHeight);
+        view.draw(mCanvas);
+        return view;
+    }
+
+    private void writeReport(String report) throws IOException {
+        Log.i(TAG, report);
+        final FileWriter writer = new FileWriter(new File(mContext.getFilesDir(), REPORT_FILE));
+        try {
+            writer.write(report);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static class Configuration {
+        final int mBackground;
+        final boolean mIsFlippable;
+        final boolean mPutChip;
+        final boolean mHasBrandLogo;
+        final boolean mIsEditable;
+
+        Configuration(int background, boolean isFlippable, boolean putChip, boolean hasBrandLogo,
+                      boolean isEditable) {
+            mBackground = background;
+            mIsFlippable = isFlippable;
+            mPutChip = putChip;
+            mHasBrandLogo = hasBrandLogo;
+            mIsEditable = isEditable;
+        }
+
+        @Override
+        public String toString() {
+            return BACKGROUND_NAMES[mBackground]
+                    + (mIsFlippable ? "+flippable" : "")
+                    + (mPutChip ? "+chip" : "")
+                    + (mHasBrandLogo ? "+logo" : "")
+                    + (mIsEditable ? "+editable" : "+read_only");
+        }
+    }
+}
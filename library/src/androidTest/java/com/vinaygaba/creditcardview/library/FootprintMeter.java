@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.library;
+
+import android.os.Debug;
+
+/**
+ * Measures how much Java and native heap a number of live instances retain. The heaps are
+ * sampled after repeated collections before the instances are created and while they are still
+ * referenced, so the difference is what the instances keep alive, including their bitmaps.
+ * What the first instance loads into shared caches is reported separately, since the later
+ * instances reuse it.
+ */
+class FootprintMeter {
+
+    private static final int GC_PASSES = 4;
+    private static final int WARM_UP_INSTANCES = 2;
+
+    interface Factory<T> {
+        T create();
+    }
+
+    /**
+     * Retained size of one instance, and of the shared caches the first instance fills
+     */
+    static class Footprint {
+        final long javaBytes;
+        final long nativeBytes;
+        final long sharedJavaBytes;
+        final long sharedNativeBytes;
+
+        Footprint(long javaBytes, long nativeBytes, long sharedJavaBytes,
+                  long sharedNativeBytes) {
+            this.javaBytes = javaBytes;
+            this.nativeBytes = nativeBytes;
+            this.sharedJavaBytes = sharedJavaBytes;
+            this.sharedNativeBytes = sharedNativeBytes;
+        }
+
+        long getTotalBytes() {
+            return javaBytes + nativeBytes;
+        }
+
+        long getSharedBytes() {
+            return sharedJavaBytes + sharedNativeBytes;
+        }
+    }
+
+    private final int mCount;
+
+    /**
+     * @param count number of instances kept alive per measurement. More instances average out
+     *              the noise of the heap samples.
+     */
+    FootprintMeter(int count) {
+        mCount = count;
+    }
+
+    /**
+     * @param clearCaches empties the shared caches, so the first instance has to fill them again.
+     *                    Classes loaded by the first measurement stay loaded and are charged to
+     *                    its shared cost.
+     */
+    <T> Footprint measure(Factory<T> factory, Runnable clearCaches) {
+        clearCaches.run();
+        collectGarbage();
+        final long javaBeforeFirst = usedJavaHeap();
+        final long nativeBeforeFirst = Debug.getNativeHeapAllocatedSize();
+
+        final T first = factory.create();
+
+        collectGarbage();
+        final long firstJavaBytes = Math.max(0, usedJavaHeap() - javaBeforeFirst);
+        final long firstNativeBytes =
+                Math.max(0, Debug.getNativeHeapAllocatedSize() - nativeBeforeFirst);
+        if (first == null) {
+            throw new IllegalStateException("Factory returned null");
+        }
+
+        // Load the remaining classes so they are not charged to the instances
+        for (int i = 0; i < WARM_UP_INSTANCES; i++) {
+            factory.create();
+        }
+
+        collectGarbage();
+        final long javaBefore = usedJavaHeap();
+        final long nativeBefore = Debug.getNativeHeapAllocatedSize();
+
+        final Object[] instances = new Object[mCount];
+        for (int i = 0; i < mCount; i++) {
+            instances[i] = factory.create();
+        }
+
+        collectGarbage();
+        final long javaAfter = usedJavaHeap();
+        final long nativeAfter = Debug.getNativeHeapAllocatedSize();
+
+        // Keep the instances reachable until the heaps have been sampled
+        if (instances[mCount - 1] == null) {
+            throw new IllegalStateException("Factory returned null");
+        }
+
+        final long javaBytes = Math.max(0, javaAfter - javaBefore) / mCount;
+        final long nativeBytes = Math.max(0, nativeAfter - nativeBefore) / mCount;
+        // The first instance retains as much as any other, the rest of its cost is shared
+        return new Footprint(javaBytes, nativeBytes,
+                Math.max(0, firstJavaBytes - javaBytes),
+                Math.max(0, firstNativeBytes - nativeBytes));
+    }
+
+    private static long usedJavaHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void collectGarbage() {
+        for (int i = 0; i < GC_PASSES; i++) {
+            System.gc();
+            System.runFinalization();
+        }
+    }
+}
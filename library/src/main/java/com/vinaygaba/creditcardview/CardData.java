@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+/**
+ * Immutable snapshot of the data entered on a {@link CreditCardView}
+ */
+public final class CardData {
+
+    private final String mCardNumber;
+    private final String mCardName;
+    private final String mExpiryDate;
+    private final String mCvv;
+    private final int mType;
+
+    CardData(String cardNumber, String cardName, String expiryDate, String cvv, int type) {
+        mCardNumber = cardNumber;
+        mCardName = cardName;
+        mExpiryDate = expiryDate;
+        mCvv = cvv;
+        mType = type;
+    }
+
+    /**
+     * Card number without spaces
+     */
+    public String getCardNumber() {
+        return mCardNumber;
+    }
+
+    public String getCardName() {
+        return mCardName;
+    }
+
+    public String getExpiryDate() {
+        return mExpiryDate;
+    }
+
+    public String getCvv() {
+        return mCvv;
+    }
+
+    @CreditCardView.CreditCardType
+    public int getType() {
+        return mType;
+    }
+
+    @Override
+    public String toString() {
+        // Never print the card number or the cvv
+        return "CardData{cardName=" + mCardName + ", expiryDate=" + mExpiryDate + ", type="
+                + mType + "}";
+    }
+}
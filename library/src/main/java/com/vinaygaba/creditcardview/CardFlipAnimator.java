@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import android.view.View;
+
+/**
+ * Animates a card turning over. The card rotates until it is edge on, its faces are swapped
+ * through the {@link Listener}, and it rotates back into view showing the other side. An animator
+ * is used by a single card at a time.
+ */
+public interface CardFlipAnimator {
+
+    /**
+     * Receives the point of the flip where the card is edge on and invisible
+     */
+    interface Listener {
+        void onFlipMidpoint();
+    }
+
+    void start(View card, Listener listener);
+
+    boolean isRunning();
+
+    /**
+     * Stops the flip and leaves the card unrotated and opaque. The faces are not swapped if the
+     * midpoint has not been reached yet.
+     */
+    void cancel(View card);
+}
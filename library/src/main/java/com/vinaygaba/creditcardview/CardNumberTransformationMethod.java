@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.text.Spanned;
+import android.text.method.TransformationMethod;
+import android.text.style.ReplacementSpan;
+import android.view.View;
+
+import java.lang.reflect.Array;
+
+import static com.vinaygaba.creditcardview.CardNumberFormat.ALL_DIGITS;
+import static com.vinaygaba.creditcardview.CardNumberFormat.MASKED_ALL;
+import static com.vinaygaba.creditcardview.CardNumberFormat.MASKED_ALL_BUT_LAST_FOUR;
+import static com.vinaygaba.creditcardview.CardNumberFormat.ONLY_LAST_FOUR;
+
+/**
+ * Displays the card number in one of the {@link CardNumberFormat}s. Only the displayed text is
+ * masked, the text of the field keeps the real digits. Like the framework's transformations the
+ * displayed text has the length of the field's text, so offsets map one to one; for
+ * {@link CardNumberFormat#ONLY_LAST_FOUR} the masked part is hidden by a zero width span.
+ */
+class CardNumberTransformationMethod implements TransformationMethod {
+
+    private static final CardNumberTransformationMethod[] sInstances = {
+            new CardNumberTransformationMethod(ALL_DIGITS),
+            new CardNumberTransformationMethod(MASKED_ALL_BUT_LAST_FOUR),
+            new CardNumberTransformationMethod(ONLY_LAST_FOUR),
+            new CardNumberTransformationMethod(MASKED_ALL)
+    };
+
+    private final int mCardNumberFormat;
+
+    static CardNumberTransformationMethod getInstance(int cardNumberFormat) {
+        return sInstances[cardNumberFormat];
+    }
+
+    private CardNumberTransformationMethod(int cardNumberFormat) {
+        mCardNumberFormat = cardNumberFormat;
+    }
+
+    @Override
+    public CharSequence getTransformation(CharSequence source, View view) {
+        final CharSequence masked = CardNumberFormatter.mask(source, mCardNumberFormat);
+        return mCardNumberFormat == ONLY_LAST_FOUR
+                ? new LastFourText((MaskedCardNumber) masked) : masked;
+    }
+
+    @Override
+    public void onFocusChanged(View view, CharSequence sourceText, boolean focused,
+                               int direction, Rect previouslyFocusedRect) {
+    }
+
+    /**
+     * Takes no space and draws nothing
+     */
+    private static class HiddenSpan extends ReplacementSpan {
+
+        @Override
+        public int getSize(Paint paint, CharSequence text, int start, int end,
+                           Paint.FontMetricsInt fm) {
+            return 0;
+        }
+
+        @Override
+        public void draw(Canvas canvas, CharSequence text, int start, int end, float x, int top,
+                         int y, int bottom, Paint paint) {
+        }
+    }
+
+    /**
+     * Masked number with a {@link HiddenSpan} over everything before the last four digits. The
+     * span follows the number as it changes.
+     */
+    private static class LastFourText implements Spanned {
+
+        private static final HiddenSpan HIDDEN = new HiddenSpan();
+
+        private final MaskedCardNumber mMasked;
+
+        LastFourText(MaskedCardNumber masked) {
+            mMasked = masked;
+        }
+
+        @Override
+        public int length() {
+            return mMasked.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return mMasked.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return mMasked.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return mMasked.toString();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T[] getSpans(int start, int end, Class<T> type) {
+            final int hiddenEnd = mMasked.getVisibleStart();
+            // Same overlap rules as SpannedString
+            final boolean overlaps = hiddenEnd > 0 && start <= hiddenEnd && end >= 0
+                    && (start == end || (start != hiddenEnd && end != 0));
+            if (overlaps && type.isInstance(HIDDEN)) {
+                final T[] spans = (T[]) Array.newInstance(type, 1);
+                spans[0] = (T) HIDDEN;
+                return spans;
+            }
+            return (T[]) Array.newInstance(type, 0);
+        }
+
+        @Override
+        public int getSpanStart(Object tag) {
+            return tag == HIDDEN && mMasked.getVisibleStart() > 0 ? 0 : -1;
+        }
+
+        @Override
+        public int getSpanEnd(Object tag) {
+            return tag == HIDDEN && mMasked.getVisibleStart() > 0 ? mMasked.getVisibleStart() : -1;
+        }
+
+        @Override
+        public int getSpanFlags(Object tag) {
+            return tag == HIDDEN ? SPAN_EXCLUSIVE_EXCLUSIVE : 0;
+        }
+
+        @Override
+        public int nextSpanTransition(int start, int limit, Class type) {
+            final int hiddenEnd = mMasked.getVisibleStart();
+            if ((type == null || type.isInstance(HIDDEN)) && start < hiddenEnd) {
+                return Math.min(hiddenEnd, limit);
+            }
+            return limit;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import android.graphics.Color;
+import android.support.annotation.ColorInt;
+import android.support.annotation.DrawableRes;
+
+/**
+ * Colors and backgrounds applied to every card by {@link CardThemeRegistry}. The default colors
+ * are those of a card without attributes. The backgrounds are {@link #UNSET} by default, which
+ * keeps each card's own background.
+ */
+public class CardTheme {
+
+    /**
+     * Background value that leaves the card's own background as it is
+     */
+    public static final int UNSET = Integer.MIN_VALUE;
+
+    private int mCardNumberTextColor = Color.WHITE;
+    private int mCardNameTextColor = Color.WHITE;
+    private int mExpiryDateTextColor = Color.WHITE;
+    private int mValidTillTextColor = Color.WHITE;
+    private int mHintTextColor = Color.WHITE;
+    private int mCvvTextColor = Color.BLACK;
+    private int mCvvHintColor = Color.WHITE;
+    // The front background and preset are either both set or both UNSET
+    private int mCardFrontBackground = UNSET;
+    private int mCardBackgroundPreset = UNSET;
+    private int mCardBackBackground = UNSET;
+
+    public CardTheme() {
+    }
+
+    public CardTheme(CardTheme theme) {
+        mCardNumberTextColor = theme.mCardNumberTextColor;
+        mCardNameTextColor = theme.mCardNameTextColor;
+        mExpiryDateTextColor = theme.mExpiryDateTextColor;
+        mValidTillTextColor = theme.mValidTillTextColor;
+        mHintTextColor = theme.mHintTextColor;
+        mCvvTextColor = theme.mCvvTextColor;
+        mCvvHintColor = theme.mCvvHintColor;
+        mCardFrontBackground = theme.mCardFrontBackground;
+        mCardBackgroundPreset = theme.mCardBackgroundPreset;
+        mCardBackBackground = theme.mCardBackBackground;
+    }
+
+    @ColorInt
+    public int getCardNumberTextColor() {
+        return mCardNumberTextColor;
+    }
+
+    public void setCardNumberTextColor(@ColorInt int cardNumberTextColor) {
+        mCardNumberTextColor = cardNumberTextColor;
+    }
+
+    @ColorInt
+    public int getCardNameTextColor() {
+        return mCardNameTextColor;
+    }
+
+    public void setCardNameTextColor(@ColorInt int cardNameTextColor) {
+        mCardNameTextColor = cardNameTextColor;
+    }
+
+    @ColorInt
+    public int getExpiryDateTextColor() {
+        return mExpiryDateTextColor;
+    }
+
+    public void setExpiryDateTextColor(@ColorInt int expiryDateTextColor) {
+        mExpiryDateTextColor = expiryDateTextColor;
+    }
+
+    @ColorInt
+    public int getValidTillTextColor() {
+        return mValidTillTextColor;
+    }
+
+    public void setValidTillTextColor(@ColorInt int validTillTextColor) {
+        mValidTillTextColor = validTillTextColor;
+    }
+
+    @ColorInt
+    public int getHintTextColor() {
+        return mHintTextColor;
+    }
+
+    public void setHintTextColor(@ColorInt int hintTextColor) {
+        mHintTextColor = hintTextColor;
+    }
+
+    @ColorInt
+    public int getCvvTextColor() {
+        return mCvvTextColor;
+    }
+
+    public void setCvvTextColor(@ColorInt int cvvTextColor) {
+        mCvvTextColor = cvvTextColor;
+    }
+
+    @ColorInt
+    public int getCvvHintColor() {
+        return mCvvHintColor;
+    }
+
+    public void setCvvHintColor(@ColorInt int cvvHintColor) {
+        mCvvHintColor = cvvHintColor;
+    }
+
+    @DrawableRes
+    public int getCardFrontBackground() {
+        return mCardFrontBackground;
+    }
+
+    /**
+     * Front background resource, replaces the background preset. 0 for the default background,
+     * {@link #UNSET} to keep the cards' own front backgrounds.
+     */
+    public void setCardFrontBackground(@DrawableRes int cardFrontBackground) {
+        mCardFrontBackground = cardFrontBackground;
+        mCardBackgroundPreset = cardFrontBackground == UNSET ? UNSET
+                : ProceduralCardBackground.PRESET_NONE;
+    }
+
+    /**
+     * Returns the background preset, {@link #UNSET} if the theme keeps the front backgrounds
+     */
+    public int getCardBackgroundPreset() {
+        return mCardBackgroundPreset;
+    }
+
+    /**
+     * Procedural front background, see {@link CreditCardView#setCardBackgroundPreset(int)}.
+     * Replaces the front background resource, {@link #setCardFrontBackground(int)} with
+     * {@link #UNSET} unsets both.
+     */
+    public void setCardBackgroundPreset(@ProceduralCardBackground.Preset int cardBackgroundPreset) {
+        mCardBackgroundPreset = cardBackgroundPreset;
+        mCardFrontBackground = cardBackgroundPreset == UNSET ? UNSET : 0;
+    }
+
+    /**
+     * Returns whether the theme replaces the front background of the cards
+     */
+    public boolean hasCardFrontBackground() {
+        return mCardBackgroundPreset != UNSET;
+    }
+
+    @DrawableRes
+    public int getCardBackBackground() {
+        return mCardBackBackground;
+    }
+
+    /**
+     * Back background resource, {@link #UNSET} to keep the cards' own back backgrounds
+     */
+    public void setCardBackBackground(@DrawableRes int cardBackBackground) {
+        mCardBackBackground = cardBackBackground;
+    }
+
+    public boolean hasCardBackBackground() {
+        return mCardBackBackground != UNSET;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import android.support.annotation.Nullable;
+
+import com.vinaygaba.creditcardview.util.FrameScheduler;
+
+import java.util.WeakHashMap;
+
+/**
+ * Applies a {@link CardTheme} to every card in the process. Cards register themselves when they
+ * are created and are only weakly held. A new theme is applied to all attached cards together
+ * on the next frame, and to detached cards when they are attached again. Must be used on the
+ * main thread.
+ */
+public final class CardThemeRegistry {
+
+    private static CardThemeRegistry sInstance;
+
+    private final WeakHashMap<CreditCardView, Boolean> mCards =
+            new WeakHashMap<CreditCardView, Boolean>();
+    private CardTheme mTheme;
+    // Incremented for every theme, cards remember the generation they have applied
+    private int mGeneration;
+    private FrameScheduler mApplyScheduler;
+
+    public static CardThemeRegistry getInstance() {
+        if (sInstance == null) {
+            sInstance = new CardThemeRegistry();
+        }
+        return sInstance;
+    }
+
+    private CardThemeRegistry() {
+    }
+
+    /**
+     * Applies a theme to all cards on the next frame. The theme is copied, later changes to it
+     * need another call. Null stops theming, cards keep their current look.
+     */
+    public void setTheme(@Nullable CardTheme theme) {
+        mTheme = theme != null ? new CardTheme(theme) : null;
+        mGeneration++;
+        if (mTheme == null) {
+            if (mApplyScheduler != null) {
+                mApplyScheduler.cancel();
+            }
+            return;
+        }
+        if (mApplyScheduler == null) {
+            mApplyScheduler = new FrameScheduler(new Runnable() {
+                @Override
+                public void run() {
+                    applyToAttachedCards();
+                }
+            });
+        }
+        mApplyScheduler.schedule();
+    }
+
+    /**
+     * Returns a copy of the current theme, null if there is none
+     */
+    @Nullable
+    public CardTheme getTheme() {
+        return mTheme != null ? new CardTheme(mTheme) : null;
+    }
+
+    void register(CreditCardView card) {
+        mCards.put(card, Boolean.TRUE);
+    }
+
+    /**
+     * Brings a card that was detached while the theme changed up to date
+     */
+    void onCardAttached(CreditCardView card) {
+        if (mTheme != null && card.getThemeGeneration() != mGeneration) {
+            card.applyTheme(mTheme, mGeneration);
+        }
+    }
+
+    private void applyToAttachedCards() {
+        if (mTheme == null) {
+            return;
+        }
+        for (CreditCardView card : mCards.keySet()) {
+            if (card != null && card.getWindowToken() != null
+                    && card.getThemeGeneration() != mGeneration) {
+                card.applyTheme(mTheme, mGeneration);
+            }
+        }
+    }
+}
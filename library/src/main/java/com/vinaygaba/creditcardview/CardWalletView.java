@@ -0,0 +1,540 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.database.DataSetObservable;
+import android.database.DataSetObserver;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.support.annotation.Nullable;
+import android.support.v4.util.LruCache;
+import android.support.v4.view.ViewCompat;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewGroup;
+import android.widget.Scroller;
+
+import java.util.ArrayList;
+
+/**
+ * Shows a list of cards as an overlapping vertical stack. Only the two bottom-most visible cards
+ * are backed by live {@link CreditCardView}s, which are recycled as the stack scrolls. Every
+ * other card is only visible as the strip at its top, which is drawn from a cached bitmap.
+ */
+public class CardWalletView extends ViewGroup {
+
+    /**
+     * Provides the cards of a {@link CardWalletView}
+     */
+    public static abstract class Adapter {
+
+        private final DataSetObservable mDataSetObservable = new DataSetObservable();
+
+        public abstract int getCount();
+
+        /**
+         * Sets the data of the card at a position on a card which may have shown another card
+         * before
+         */
+        public abstract void bindCard(CreditCardView card, int position);
+
+        /**
+         * Returns a stable id for the card at a position, used to cache its snapshot
+         */
+        public long getItemId(int position) {
+            return position;
+        }
+
+        public void notifyDataSetChanged() {
+            mDataSetObservable.notifyChanged();
+        }
+
+        void registerDataSetObserver(DataSetObserver observer) {
+            mDataSetObservable.registerObserver(observer);
+        }
+
+        void unregisterDataSetObserver(DataSetObserver observer) {
+            mDataSetObservable.unregisterObserver(observer);
+        }
+    }
+
+    // Height to width ratio of an ID-1 card
+    private static final float CARD_ASPECT_RATIO = 53.98f / 85.6f;
+    private static final int LIVE_CARD_COUNT = 2;
+    private static final int SNAPSHOT_CACHE_FRACTION = 16;
+    private static final int MAX_RECYCLED_SNAPSHOTS = 4;
+    private static final int NO_POSITION = -1;
+
+    private Adapter mAdapter;
+    private final DataSetObserver mDataSetObserver = new DataSetObserver() {
+        @Override
+        public void onChanged() {
+            onDataSetChanged();
+        }
+
+        @Override
+        public void onInvalidated() {
+            onDataSetChanged();
+        }
+    };
+
+    private int mCardSpacing;
+    private int mCardWidth;
+    private int mCardHeight;
+
+    private final CreditCardView[] mLiveCards = new CreditCardView[LIVE_CARD_COUNT];
+    private final int[] mLivePositions = new int[LIVE_CARD_COUNT];
+    private final CreditCardView[] mUnassignedCards = new CreditCardView[LIVE_CARD_COUNT];
+    private CreditCardView mSnapshotCard;
+    private final Canvas mSnapshotCanvas = new Canvas();
+    private final LruCache<Long, Bitmap> mSnapshots;
+    private final ArrayList<Bitmap> mRecycledSnapshots = new ArrayList<Bitmap>();
+
+    private final Scroller mScroller;
+    private VelocityTracker mVelocityTracker;
+    private final int mTouchSlop;
+    private final int mMinimumFlingVelocity;
+    private final int mMaximumFlingVelocity;
+    private float mLastMotionY;
+    private float mDownMotionY;
+    private boolean mIsBeingDragged = false;
+
+    public CardWalletView(Context context) {
+        this(context, null);
+    }
+
+    public CardWalletView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+
+        final TypedArray a = context.getTheme().obtainStyledAttributes(attrs,
+                R.styleable.CardWalletView, 0, 0);
+        try {
+            mCardSpacing = a.getDimensionPixelSize(R.styleable.CardWalletView_cardSpacing,
+                    getResources().getDimensionPixelSize(R.dimen.wallet_card_spacing));
+        } finally {
+            a.recycle();
+        }
+
+        final ViewConfiguration configuration = ViewConfiguration.get(context);
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mMinimumFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        mMaximumFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        mScroller = new Scroller(context);
+
+        final int snapshotCacheSize = (int) (Runtime.getRuntime().maxMemory()
+                / SNAPSHOT_CACHE_FRACTION);
+        mSnapshots = new LruCache<Long, Bitmap>(snapshotCacheSize) {
+            @Override
+            protected int sizeOf(Long key, Bitmap bitmap) {
+                return bitmap.getRowBytes() * bitmap.getHeight();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, Long key, Bitmap oldValue,
+                                        Bitmap newValue) {
+                // Keep a few bitmaps around so scrolling does not allocate new ones
+                if (mRecycledSnapshots.size() < MAX_RECYCLED_SNAPSHOTS) {
+                    mRecycledSnapshots.add(oldValue);
+                }
+            }
+        };
+
+        for (int i = 0; i < LIVE_CARD_COUNT; i++) {
+            mLiveCards[i] = new CreditCardView(context);
+            mLiveCards[i].setVisibility(View.INVISIBLE);
+            mLivePositions[i] = NO_POSITION;
+            addView(mLiveCards[i]);
+        }
+        mSnapshotCard = new CreditCardView(context);
+
+        setChildrenDrawingOrderEnabled(true);
+        setWillNotDraw(false);
+    }
+
+    @Nullable
+    public Adapter getAdapter() {
+        return mAdapter;
+    }
+
+    public void setAdapter(@Nullable Adapter adapter) {
+        if (mAdapter != null) {
+            mAdapter.unregisterDataSetObserver(mDataSetObserver);
+        }
+        mAdapter = adapter;
+        if (mAdapter != null) {
+            mAdapter.registerDataSetObserver(mDataSetObserver);
+        }
+        scrollTo(0, 0);
+        onDataSetChanged();
+    }
+
+    public int getCardSpacing() {
+        return mCardSpacing;
+    }
+
+    /**
+     * Sets the height of the strip of each card that stays visible in the stack
+     */
+    public void setCardSpacing(int cardSpacing) {
+        mCardSpacing = cardSpacing;
+        mSnapshots.evictAll();
+        requestLayout();
+    }
+
+    /**
+     * Returns the position of the bottom-most visible card, the only one shown entirely
+     */
+    public int getFocusedPosition() {
+        final int count = getCount();
+        if (count == 0 || mCardSpacing <= 0) {
+            return NO_POSITION;
+        }
+        final int last = (int) Math.floor((getScrollY() + getHeight() - getPaddingTop() - 1)
+                / (float) mCardSpacing);
+        return Math.max(0, Math.min(count - 1, last));
+    }
+
+    /**
+     * Returns the live view of the focused card, or null if there is none
+     */
+    @Nullable
+    public CreditCardView getFocusedCard() {
+        final int position = getFocusedPosition();
+        for (int i = 0; i < LIVE_CARD_COUNT; i++) {
+            if (position != NO_POSITION && mLivePositions[i] == position) {
+                return mLiveCards[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Flips the focused card, see {@link CreditCardView#flip()}
+     */
+    public void flipFocusedCard() {
+        final CreditCardView card = getFocusedCard();
+        if (card != null) {
+            card.flip();
+        }
+    }
+
+    private int getCount() {
+        return mAdapter == null ? 0 : mAdapter.getCount();
+    }
+
+    private int getCardTop(int position) {
+        return getPaddingTop() + position * mCardSpacing;
+    }
+
+    private int getMaxScrollY() {
+        final int count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        final int contentHeight = getCardTop(count - 1) + mCardHeight + getPaddingBottom();
+        return Math.max(0, contentHeight - getHeight());
+    }
+
+    private void onDataSetChanged() {
+        mSnapshots.evictAll();
+        for (int i = 0; i < LIVE_CARD_COUNT; i++) {
+            mLivePositions[i] = NO_POSITION;
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        final int width = MeasureSpec.getSize(widthMeasureSpec);
+        mCardWidth = Math.max(0, width - getPaddingLeft() - getPaddingRight());
+        mCardHeight = Math.round(mCardWidth * CARD_ASPECT_RATIO);
+
+        final int count = getCount();
+        final int contentHeight = getPaddingTop() + getPaddingBottom()
+                + (count == 0 ? 0 : (count - 1) * mCardSpacing + mCardHeight);
+        final int height = resolveSize(contentHeight, heightMeasureSpec);
+
+        final int cardWidthSpec = MeasureSpec.makeMeasureSpec(mCardWidth, MeasureSpec.EXACTLY);
+        final int cardHeightSpec = MeasureSpec.makeMeasureSpec(mCardHeight, MeasureSpec.EXACTLY);
+        for (int i = 0; i < LIVE_CARD_COUNT; i++) {
+            mLiveCards[i].measure(cardWidthSpec, cardHeightSpec);
+        }
+        setMeasuredDimension(width, height);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (w != oldw) {
+            // Snapshots are as wide as the cards
+            mSnapshots.evictAll();
+        }
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        if (getScrollY() > getMaxScrollY()) {
+            scrollTo(0, getMaxScrollY());
+        }
+        updateLiveCards(true);
+    }
+
+    /**
+     * Binds the live cards to the focused card and the one above it, reusing a card if it
+     * already shows one of them
+     */
+    private void updateLiveCards(boolean forceLayout) {
+        final int focused = getFocusedPosition();
+
+        // Keep cards which already show one of the needed positions
+        int unassigned = 0;
+        for (int i = 0; i < LIVE_CARD_COUNT; i++) {
+            final int position = mLivePositions[i];
+            if (position == NO_POSITION || position > focused
+                    || position <= focused - LIVE_CARD_COUNT) {
+                mUnassignedCards[unassigned++] = mLiveCards[i];
+                mLivePositions[i] = NO_POSITION;
+            }
+        }
+
+        // Bind the remaining positions to the free cards
+        for (int position = focused; position > focused - LIVE_CARD_COUNT; position--) {
+            if (position < 0 || isLive(position)) {
+                continue;
+            }
+            final CreditCardView card = mUnassignedCards[--unassigned];
+            mUnassignedCards[unassigned] = null;
+            mAdapter.bindCard(card, position);
+            setLivePosition(card, position);
+            forceLayout = true;
+        }
+        while (unassigned > 0) {
+            final CreditCardView card = mUnassignedCards[--unassigned];
+            mUnassignedCards[unassigned] = null;
+            card.setVisibility(View.INVISIBLE);
+        }
+
+        if (forceLayout) {
+            for (int i = 0; i < LIVE_CARD_COUNT; i++) {
+                if (mLivePositions[i] != NO_POSITION) {
+                    final CreditCardView card = mLiveCards[i];
+                    final int top = getCardTop(mLivePositions[i]);
+                    card.setVisibility(View.VISIBLE);
+                    card.layout(getPaddingLeft(), top, getPaddingLeft() + mCardWidth,
+                            top + mCardHeight);
+                }
+            }
+            invalidate();
+        }
+    }
+
+    private boolean isLive(int position) {
+        for (int i = 0; i < LIVE_CARD_COUNT; i++) {
+            if (mLivePositions[i] == position) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void setLivePosition(CreditCardView card, int position) {
+        for (int i = 0; i < LIVE_CARD_COUNT; i++) {
+            if (mLiveCards[i] == card) {
+                mLivePositions[i] = position;
+                return;
+            }
+        }
+    }
+
+    @Override
+    protected int getChildDrawingOrder(int childCount, int i) {
+        // Cards further down the stack are drawn on top
+        if (childCount == LIVE_CARD_COUNT && mLivePositions[0] > mLivePositions[1]) {
+            return childCount - 1 - i;
+        }
+        return i;
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        final int count = getCount();
+        if (count > 0 && mCardWidth > 0 && mCardHeight > 0) {
+            final int focused = getFocusedPosition();
+            final int first = Math.max(0, (int) Math.floor((getScrollY() - getPaddingTop()
+                    - mCardHeight) / (float) mCardSpacing) + 1);
+            for (int position = first; position <= focused; position++) {
+                if (!isLive(position)) {
+                    canvas.drawBitmap(getSnapshot(position), getPaddingLeft(),
+                            getCardTop(position), null);
+                }
+            }
+        }
+        super.dispatchDraw(canvas);
+    }
+
+    /**
+     * Returns the bitmap of the visible strip at the top of a card, rendering it if needed
+     */
+    private Bitmap getSnapshot(int position) {
+        final Long id = mAdapter.getItemId(position);
+        Bitmap snapshot = mSnapshots.get(id);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        final int stripHeight = Math.max(1, Math.min(mCardSpacing, mCardHeight));
+        snapshot = obtainSnapshotBitmap(mCardWidth, stripHeight);
+        // The snapshot card is never attached, it is laid out by hand after each bind
+        mAdapter.bindCard(mSnapshotCard, position);
+        mSnapshotCard.measure(MeasureSpec.makeMeasureSpec(mCardWidth, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(mCardHeight, MeasureSpec.EXACTLY));
+        mSnapshotCard.layout(0, 0, mCardWidth, mCardHeight);
+        mSnapshotCanvas.setBitmap(snapshot);
+        mSnapshotCard.draw(mSnapshotCanvas);
+        mSnapshotCanvas.setBitmap(null);
+        mSnapshots.put(id, snapshot);
+        return snapshot;
+    }
+
+    private Bitmap obtainSnapshotBitmap(int width, int height) {
+        for (int i = mRecycledSnapshots.size() - 1; i >= 0; i--) {
+            final Bitmap bitmap = mRecycledSnapshots.remove(i);
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height) {
+                bitmap.eraseColor(Color.TRANSPARENT);
+                return bitmap;
+            }
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    @Override
+    public void scrollTo(int x, int y) {
+        super.scrollTo(0, Math.max(0, Math.min(y, getMaxScrollY())));
+    }
+
+    @Override
+    protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+        super.onScrollChanged(l, t, oldl, oldt);
+        // Children move with the scroll offset, they only need binding when the focus changes
+        updateLiveCards(false);
+    }
+
+    @Override
+    public void computeScroll() {
+        if (mScroller.computeScrollOffset()) {
+            scrollTo(0, mScroller.getCurrY());
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        switch (ev.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                mDownMotionY = ev.getY();
+                mLastMotionY = mDownMotionY;
+                // Catch the stack while it is flinging
+                mIsBeingDragged = !mScroller.isFinished();
+                mScroller.abortAnimation();
+                obtainVelocityTracker().addMovement(ev);
+                break;
+            case MotionEvent.ACTION_MOVE:
+                obtainVelocityTracker().addMovement(ev);
+                if (Math.abs(ev.getY() - mDownMotionY) > mTouchSlop) {
+                    mIsBeingDragged = true;
+                    mLastMotionY = ev.getY();
+                    requestParentDisallowInterceptTouchEvent();
+                }
+                break;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                mIsBeingDragged = false;
+                break;
+        }
+        return mIsBeingDragged;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent ev) {
+        obtainVelocityTracker().addMovement(ev);
+        switch (ev.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                mScroller.abortAnimation();
+                mDownMotionY = ev.getY();
+                mLastMotionY = mDownMotionY;
+                return true;
+            case MotionEvent.ACTION_MOVE:
+                if (!mIsBeingDragged && Math.abs(ev.getY() - mDownMotionY) > mTouchSlop) {
+                    mIsBeingDragged = true;
+                    requestParentDisallowInterceptTouchEvent();
+                }
+                if (mIsBeingDragged) {
+                    scrollBy(0, Math.round(mLastMotionY - ev.getY()));
+                }
+                mLastMotionY = ev.getY();
+                break;
+            case MotionEvent.ACTION_UP:
+                if (mIsBeingDragged) {
+                    mVelocityTracker.computeCurrentVelocity(1000, mMaximumFlingVelocity);
+                    final int velocityY = (int) mVelocityTracker.getYVelocity();
+                    if (Math.abs(velocityY) > mMinimumFlingVelocity) {
+                        mScroller.fling(0, getScrollY(), 0, -velocityY, 0, 0, 0,
+                                getMaxScrollY());
+                        ViewCompat.postInvalidateOnAnimation(this);
+                    }
+                }
+                mIsBeingDragged = false;
+                mVelocityTracker.clear();
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                mIsBeingDragged = false;
+                mVelocityTracker.clear();
+                break;
+        }
+        return true;
+    }
+
+    private VelocityTracker obtainVelocityTracker() {
+        if (mVelocityTracker == null) {
+            mVelocityTracker = VelocityTracker.obtain();
+        }
+        return mVelocityTracker;
+    }
+
+    private void requestParentDisallowInterceptTouchEvent() {
+        if (getParent() != null) {
+            getParent().requestDisallowInterceptTouchEvent(true);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mScroller.abortAnimation();
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+}
@@ -16,17 +16,26 @@
 
 package com.vinaygaba.creditcardview;
 
-import android.animation.Animator;
-import android.animation.AnimatorSet;
-import android.animation.ObjectAnimator;
 import android.annotation.SuppressLint;
 import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Outline;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Picture;
+import android.graphics.PixelFormat;
+import android.graphics.RectF;
 import android.graphics.Typeface;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
+import android.net.Uri;
 import android.support.annotation.ColorInt;
 import android.support.annotation.DrawableRes;
 import android.support.annotation.IntDef;
@@ -37,19 +46,30 @@ import android.text.TextWatcher;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
-import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.ViewOutlineProvider;
 import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.ImageView;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
+import com.vinaygaba.creditcardview.image.ContrastAnalyzer;
+import com.vinaygaba.creditcardview.image.ImageLoader;
+import com.vinaygaba.creditcardview.image.LogoAtlas;
+import com.vinaygaba.creditcardview.store.CardSnapshot;
 import com.vinaygaba.creditcardview.util.AndroidUtils;
+import com.vinaygaba.creditcardview.util.FrameScheduler;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import java.util.regex.Pattern;
+import java.lang.ref.WeakReference;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static com.vinaygaba.creditcardview.CardNumberFormat.ALL_DIGITS;
 import static com.vinaygaba.creditcardview.CardNumberFormat.MASKED_ALL;
@@ -59,9 +79,6 @@ import static com.vinaygaba.creditcardview.CardType.AMERICAN_EXPRESS;
 import static com.vinaygaba.creditcardview.CardType.AUTO;
 import static com.vinaygaba.creditcardview.CardType.DISCOVER;
 import static com.vinaygaba.creditcardview.CardType.MASTERCARD;
-import static com.vinaygaba.creditcardview.CardType.PATTERN_AMERICAN_EXPRESS;
-import static com.vinaygaba.creditcardview.CardType.PATTERN_DISCOVER;
-import static com.vinaygaba.creditcardview.CardType.PATTERN_MASTER_CARD;
 import static com.vinaygaba.creditcardview.CardType.VISA;
 
 @SuppressLint("DefaultLocale")
@@ -77,14 +94,68 @@ public class CreditCardView extends RelativeLayout {
     public @interface CreditCardFormat {
     }
 
+    /**
+     * Receives changes to the card data, at most once per frame
+     */
+    public interface OnCardDataChangedListener {
+        /**
+         * @param changedFields the {@code FIELD_*} flags of the fields that changed since the
+         *                      last call.
+         * @param data the data on the card after the changes.
+         */
+        void onCardDataChanged(CreditCardView view, int changedFields, CardData data);
+    }
+
+    /**
+     * Receives changes to the set of valid fields. Called only when a field becomes valid or
+     * invalid, not on every edit.
+     */
+    public interface OnValidationChangedListener {
+        /**
+         * @param validFields the {@code FIELD_*} flags of the fields that are now valid.
+         * @param isComplete  whether all fields are valid.
+         */
+        void onValidationChanged(CreditCardView view, int validFields, boolean isComplete);
+    }
+
+    /**
+     * Called on the main thread once the resources started by
+     * {@link #preload(Context, Executor)} are ready
+     */
+    public interface OnPreloadedListener {
+        void onPreloaded();
+    }
+
+    // The same flags as CardFormValidator and CardTextParser use, so they are passed as they are
+    public static final int FIELD_CARD_NUMBER = CardFormValidator.CARD_NUMBER;
+    public static final int FIELD_CARD_NAME = CardFormValidator.CARD_NAME;
+    public static final int FIELD_EXPIRY_DATE = CardFormValidator.EXPIRY_DATE;
+    public static final int FIELD_CVV = CardFormValidator.CVV;
+    public static final int ALL_FIELDS = CardFormValidator.ALL_FIELDS;
+
     private static int CARD_FRONT = 0;
     private static int CARD_BACK = 1;
     private static final boolean DEBUG = false;
-    private Context mContext;
-    private String mCardNumber = "";
-    private String mCardName = "";
-    private String mExpiryDate = "";
-    private String mCvv = "";
+    private static final int STATIC_LAYER_COUNT = 7;
+    private static final String LEGACY_FLIP_ANIMATOR =
+            "com.vinaygaba.creditcardview.legacy.LegacyCardFlipAnimator";
+    // Drawable ids by resource name, for snapshots. Only used on the main thread.
+    private static final HashMap<String, Integer> sDrawableIds = new HashMap<String, Integer>();
+    private static final String ANDROID_NAMESPACE = "http://schemas.android.com/apk/res/android";
+    // The fields are kept in reusable buffers so typing creates no garbage and the number and
+    // cvv can be wiped
+    private final CardFieldBuffer mCardNumber = new CardFieldBuffer();
+    private final CardFieldBuffer mCardName = new CardFieldBuffer();
+    private final CardFieldBuffer mExpiryDate = new CardFieldBuffer();
+    private final CardFieldBuffer mCvv = new CardFieldBuffer();
+    private final CardFormValidator mFormValidator =
+            new CardFormValidator(mCardNumber, mCardName, mExpiryDate, mCvv);
+    private OnValidationChangedListener mOnValidationChangedListener;
+    private CardTextParser mTextParser;
+    // Generation of the CardThemeRegistry theme last applied, 0 for none
+    private int mThemeGeneration;
+    // Set while fields are overwritten, so the intermediate text is not validated
+    private boolean mIsWipingFields = false;
     private int mCardNumberTextColor = Color.WHITE;
     private int mCardNumberFormat = ALL_DIGITS;
     private int mCardNameTextColor = Color.WHITE;
@@ -93,6 +164,9 @@ public class CreditCardView extends RelativeLayout {
     private int mValidTillTextColor = Color.WHITE;
     private int mType = VISA;
     private int mBrandLogo;
+    private Uri mBrandLogoUri;
+    private Uri mCardBackgroundUri;
+    private int mCardBackgroundPreset = ProceduralCardBackground.PRESET_NONE;
     private int cardSide = CARD_FRONT;
     private boolean mPutChip = false;
     private boolean mIsEditable = false;
@@ -104,7 +178,44 @@ public class CreditCardView extends RelativeLayout {
     private int mCvvHintColor = Color.WHITE;
     private int mCardFrontBackground;
     private int mCardBackBackground;
+    // Resource id of the drawable currently set as background, 0 if it was not set from a resource
+    private int mCurrentBackgroundRes;
+    private boolean mIsSettingBackgroundInternally;
+    private boolean mDrawablesReleased = false;
     private boolean mIsFlippable = false;
+    private CardFlipAnimator mFlipAnimator;
+    private boolean mIsFlipAnimatorLoaded = false;
+    private TrimMemoryCallbacks mTrimMemoryCallbacks;
+    private boolean mIsDragFlippable = false;
+    private DragFlipController mDragFlipController;
+    private OnCardDataChangedListener mOnCardDataChangedListener;
+    private FrameScheduler mDataChangedScheduler;
+    // FIELD_* flags of the changes not yet delivered to the listener
+    private int mChangedFields;
+    private boolean mOptimizeOverdraw = false;
+    private boolean mCacheStaticLayers = false;
+    // Recording of the children that only change through setters, null when it has to be redone
+    private Picture mStaticLayers;
+    // Children recorded into mStaticLayers, and their bounds when they were recorded
+    private View[] mStaticLayerViews;
+    private final int[] mStaticLayerBounds = new int[STATIC_LAYER_COUNT * 4];
+    private boolean mIsSkippingStaticLayers = false;
+    private boolean mAutoContrast = false;
+    private final ContrastAnalyzer.Callback mContrastCallback = new ContrastAnalyzer.Callback() {
+        @Override
+        public void onContrastAnalyzed(String key, int[] textColors) {
+            // Ignore results for a background which has been replaced since
+            if (mAutoContrast && key.equals(getBackgroundKey())) {
+                applyContrastColors(textColors);
+            }
+        }
+    };
+    private final Path mCardOutlinePath = new Path();
+    private final RectF mCardOutlineRect = new RectF();
+    private float mCardCornerRadius;
+    private Paint mStripePaint;
+    private Paint mSignaturePaint;
+    private static Typeface sCreditCardTypeface;
     private Typeface creditCardTypeFace;
     private ImageButton mFlipBtn;
     private EditText cardNumber;
@@ -123,33 +234,88 @@ public class CreditCardView extends RelativeLayout {
 
     public CreditCardView(Context context, @Nullable AttributeSet attrs) {
         super(context, attrs);
-        if (context != null) {
-            this.mContext = context;
-        } else {
-            this.mContext = getContext();
-        }
 
         init();
         loadAttributes(attrs);
         initDefaults();
         addListeners();
+        validateFields(ALL_FIELDS);
+        CardThemeRegistry.getInstance().register(this);
+    }
+
+    /**
+     * Loads the card font, logos and backgrounds on the executor, so the first card created
+     * afterwards does not parse or decode them on the main thread. Call it early, e.g. from
+     * {@code Application.onCreate()}. Only the first call has an effect.
+     */
+    public static void preload(Context context, Executor executor) {
+        ResourcePreloader.preload(context, executor);
+    }
+
+    /**
+     * Returns whether the resources started by {@link #preload(Context, Executor)} are ready
+     */
+    public static boolean isPreloaded() {
+        return ResourcePreloader.isReady();
+    }
+
+    /**
+     * Blocks until the resources started by {@link #preload(Context, Executor)} are ready or the
+     * timeout passes. Returns whether they are ready.
+     */
+    public static boolean awaitPreload(long timeout, TimeUnit unit) throws InterruptedException {
+        return ResourcePreloader.await(timeout, unit);
+    }
+
+    /**
+     * Calls the listener once when the preloaded resources are ready, or right away on the next
+     * message if they already are. Must be called on the main thread.
+     */
+    public static void addOnPreloadedListener(OnPreloadedListener listener) {
+        ResourcePreloader.addListener(listener);
+    }
+
+    public static void removeOnPreloadedListener(OnPreloadedListener listener) {
+        ResourcePreloader.removeListener(listener);
+    }
+
+    /**
+     * Drops the bitmaps shared by all cards: the logo atlas, the tiles and shaders of the
+     * background presets and the preloaded backgrounds. Live cards keep what they use, new cards
+     * load the rest again. Useful from {@code onTrimMemory()} when no card is showing.
+     */
+    public static void releaseSharedResources() {
+        ResourcePreloader.clear();
+        ProceduralCardBackground.clearCaches();
+        LogoAtlas.clear();
+    }
+
+    /**
+     * Returns the card font, parsing it from the assets only once for all cards
+     */
+    static synchronized Typeface getCreditCardTypeface(Context context) {
+        if (sCreditCardTypeface == null) {
+            // Font path
+            final String fontPath = context.getString(R.string.font_path);
+            // Loading Font Face
+            sCreditCardTypeface = Typeface.createFromAsset(context.getAssets(), fontPath);
+        }
+        return sCreditCardTypeface;
     }
 
     /**
      * Initialize various views and variables
      */
+    @SuppressWarnings("deprecation")
     private void init() {
-        final LayoutInflater inflater = (LayoutInflater) mContext
+        final LayoutInflater inflater = (LayoutInflater) getContext()
                 .getSystemService(Context.LAYOUT_INFLATER_SERVICE);
         inflater.inflate(R.layout.creditcardview, this, true);
 
         // Added this check to fix the issue of custom view not rendering correctly in the layout
         // preview.
         if (!isInEditMode()) {
-            // Font path
-            final String fontPath = mContext.getString(R.string.font_path);
-            // Loading Font Face
-            creditCardTypeFace = Typeface.createFromAsset(mContext.getAssets(), fontPath);
+            creditCardTypeFace = getCreditCardTypeface(getContext());
         }
 
         cardNumber = (EditText) findViewById(R.id.card_number);
@@ -164,17 +330,55 @@ public class CreditCardView extends RelativeLayout {
         authorized_sig_tv = findViewById(R.id.authorized_sig_tv);
         signature = findViewById(R.id.signature);
         cvv = (EditText)findViewById(R.id.cvv_et);
+        mStaticLayerViews = new View[]{
+                type, brandLogo, chip, validTill, stripe, authorized_sig_tv, signature
+        };
+
+        // The chip and the flip icon are drawn from the shared logo atlas
+        chip.setBackgroundDrawable(getLogoAtlas().getDrawable(R.drawable.card_chip));
+        mFlipBtn.setImageDrawable(getLogoAtlas().getDrawable(R.drawable.ic_flip));
+
+        mCardCornerRadius = getResources().getDimension(R.dimen.card_corner_radius);
+        removeTransparentBackground(cardNumber);
+        removeTransparentBackground(cardName);
+        removeTransparentBackground(expiryDate);
+        removeTransparentBackground(cvv);
+        removeTransparentBackground(mFlipBtn);
+    }
+
+    private LogoAtlas getLogoAtlas() {
+        return LogoAtlas.get(getResources());
+    }
+
+    /**
+     * Shows the logo of the card type, from the shared logo atlas
+     */
+    @SuppressWarnings("deprecation")
+    private void showLogo() {
+        type.setBackgroundDrawable(getLogoAtlas().getDrawable(getLogo(mType)));
+        invalidateStaticLayers();
+    }
+
+    /**
+     * Removes a fully transparent background from a child so that it is not drawn for nothing
+     */
+    @SuppressWarnings("deprecation")
+    private void removeTransparentBackground(View view) {
+        final Drawable background = view.getBackground();
+        if (background != null && background.getOpacity() == PixelFormat.TRANSPARENT) {
+            view.setBackgroundDrawable(null);
+        }
     }
 
     private void loadAttributes(@Nullable AttributeSet attrs) {
 
-        final TypedArray a = mContext.getTheme().obtainStyledAttributes(attrs,
+        final TypedArray a = getContext().getTheme().obtainStyledAttributes(attrs,
                 R.styleable.CreditCardView, 0, 0);
 
         try {
-            mCardNumber = a.getString(R.styleable.CreditCardView_cardNumber);
-            mCardName = a.getString(R.styleable.CreditCardView_cardName);
-            mExpiryDate = a.getString(R.styleable.CreditCardView_expiryDate);
+            mCardNumber.setWithoutWhitespace(a.getString(R.styleable.CreditCardView_cardNumber));
+            mCardName.setEmbossed(a.getString(R.styleable.CreditCardView_cardName));
+            mExpiryDate.set(a.getString(R.styleable.CreditCardView_expiryDate));
             mCardNumberTextColor = a.getColor(R.styleable.CreditCardView_cardNumberTextColor,
                     Color.WHITE);
             mCardNumberFormat = a.getInt(R.styleable.CreditCardView_cardNumberFormat, 0);
@@ -198,8 +402,23 @@ public class CreditCardView extends RelativeLayout {
             mIsCvvEditable = a.getBoolean(R.styleable.CreditCardView_isCvvEditable, mIsEditable);
             mHintTextColor = a.getColor(R.styleable.CreditCardView_hintTextColor, Color.WHITE);
             mIsFlippable = a.getBoolean(R.styleable.CreditCardView_isFlippable, mIsFlippable);
-            mCvv = a.getString(R.styleable.CreditCardView_cvv);
+            mIsDragFlippable = a.getBoolean(R.styleable.CreditCardView_isDragFlippable,
+                    mIsDragFlippable);
+            mCvv.set(a.getString(R.styleable.CreditCardView_cvv));
             mCardBackBackground = a.getResourceId(R.styleable.CreditCardView_cardBackBackground, R.drawable.cardbackground_canvas);
+            mCardBackgroundPreset = a.getInt(R.styleable.CreditCardView_cardBackgroundPreset,
+                    ProceduralCardBackground.PRESET_NONE);
+            mOptimizeOverdraw = a.getBoolean(R.styleable.CreditCardView_optimizeOverdraw, false);
+            mAutoContrast = a.getBoolean(R.styleable.CreditCardView_autoContrast, false);
+            mCacheStaticLayers = a.getBoolean(R.styleable.CreditCardView_cacheStaticLayers,
+                    false);
+            // Remember the resource behind android:background so that it can be released while the
+            // view is off screen and decoded again when it comes back
+            if (attrs != null) {
+                mCardFrontBackground = attrs.getAttributeResourceValue(ANDROID_NAMESPACE,
+                        "background", 0);
+                mCurrentBackgroundRes = mCardFrontBackground;
+            }
 
         } finally {
             a.recycle();
@@ -209,9 +428,9 @@ public class CreditCardView extends RelativeLayout {
     private void initDefaults() {
 
         // Set default background if background attribute was not entered in the xml
-        if (getBackground() == null) {
-            mCardFrontBackground = R.drawable.cardbackground_sky;
-            setBackgroundResource(mCardFrontBackground);
+        if (getBackground() == null
+                || mCardBackgroundPreset != ProceduralCardBackground.PRESET_NONE) {
+            showFrontBackground();
         }
 
 
@@ -284,10 +503,14 @@ public class CreditCardView extends RelativeLayout {
 
         // If card number is not null, add space every 4 characters and format it in the appropriate
         // format
-        if (mCardNumber != null) {
-            cardNumber.setText(checkCardNumberFormat(addSpaceToCardNumber(mCardNumber)));
+        if (!mCardNumber.isEmpty()) {
+            cardNumber.setText(addSpaceToCardNumber(mCardNumber));
         }
 
+        // The format only masks what is displayed, the field keeps the real digits
+        cardNumber.setTransformationMethod(
+                CardNumberTransformationMethod.getInstance(mCardNumberFormat));
+
         // Set the user entered card number color to card number field
         cardNumber.setTextColor(mCardNumberTextColor);
 
@@ -298,14 +521,17 @@ public class CreditCardView extends RelativeLayout {
         }
 
         // If card name is not null, convert the text to upper case
-        if (mCardName != null) {
-            cardName.setText(mCardName.toUpperCase());
+        if (!mCardName.isEmpty()) {
+            cardName.setText(mCardName);
         }
 
-        // This filter will ensure the text entered is in uppercase when the user manually enters
-        // the card name
+        // This filter will ensure the text entered can be embossed, in uppercase and without
+        // accents, when the user manually enters the card name
         cardName.setFilters(new InputFilter[]{
-                new InputFilter.AllCaps()
+                EmbossingInputFilter.getInstance(),
+                // Replacing the filters drops the one android:maxLength set
+                new InputFilter.LengthFilter(
+                        getResources().getInteger(R.integer.card_name_max_length))
         });
 
         // Set the user entered card name color to card name field
@@ -318,7 +544,7 @@ public class CreditCardView extends RelativeLayout {
         }
 
         // Set the appropriate logo based on the type of card
-        type.setBackgroundResource(getLogo(mType));
+        showLogo();
 
         // If background logo attribute is present, set it as the brand logo background resource
         if (mBrandLogo != 0) {
@@ -332,7 +558,7 @@ public class CreditCardView extends RelativeLayout {
         }
 
         // If expiry date is not null, set it to the expiryDate TextView
-        if (mExpiryDate != null) {
+        if (!mExpiryDate.isEmpty()) {
             expiryDate.setText(mExpiryDate);
         }
 
@@ -349,7 +575,7 @@ public class CreditCardView extends RelativeLayout {
         validTill.setTextColor(mValidTillTextColor);
 
         // If CVV is not null, set it to the expiryDate TextView
-        if (mCvv != null) {
+        if (!mCvv.isEmpty()) {
             cvv.setText(mCvv);
         }
 
@@ -380,6 +606,17 @@ public class CreditCardView extends RelativeLayout {
         }
         mFlipBtn.setEnabled(mIsFlippable);
 
+        if (mIsDragFlippable) {
+            setIsDragFlippable(true);
+        }
+
+        if (mOptimizeOverdraw) {
+            applyOverdrawOptimization();
+        }
+
+        if (mAutoContrast) {
+            updateAutoContrast();
+        }
     }
     private void addListeners() {
 
@@ -401,7 +638,10 @@ public class CreditCardView extends RelativeLayout {
             public void afterTextChanged(Editable s) {
                 // Delete any spaces the user might have entered manually. The library automatically
                 // adds spaces after every 4 characters to the view.
-                mCardNumber = s.toString().replaceAll("\\s+", "");
+                if (mCardNumber.setWithoutWhitespace(s)) {
+                    validateFields(FIELD_CARD_NUMBER);
+                    notifyCardDataChanged(FIELD_CARD_NUMBER);
+                }
             }
         });
 
@@ -410,19 +650,22 @@ public class CreditCardView extends RelativeLayout {
 
             @Override
             public void onFocusChange(View v, boolean hasFocus) {
+                // Show the real digits while the number is being edited and the card number
+                // format otherwise
+                cardNumber.setTransformationMethod(hasFocus ? null
+                        : CardNumberTransformationMethod.getInstance(mCardNumberFormat));
+
                 // If the field just lost focus
                 if (!hasFocus) {
                     //Fix for NPE. Issue #6
-                    if(mCardNumber != null) {
+                    if(!mCardNumber.isEmpty()) {
                         if (mCardNumber.length() > 12) {
-                            // If the length of card is >12, add space every 4 characters and format it
-                            // in the appropriate format
-                            cardNumber
-                                    .setText(checkCardNumberFormat(addSpaceToCardNumber(mCardNumber)));
+                            // If the length of card is >12, add space every 4 characters
+                            cardNumber.setText(addSpaceToCardNumber(mCardNumber));
 
                             // If card type is "auto",find the appropriate logo
                             if (mType == AUTO) {
-                                type.setBackgroundResource(getLogo(mType));
+                                showLogo();
                             }
                         }
                     }
@@ -442,8 +685,12 @@ public class CreditCardView extends RelativeLayout {
 
             @Override
             public void afterTextChanged(Editable s) {
-                // Set the mCardName attribute the user entered value in the Card Name field
-                mCardName = s.toString().toUpperCase();
+                // Set the mCardName attribute the user entered value in the Card Name field, which
+                // the filter has already made embossable
+                if (mCardName.set(s)) {
+                    validateFields(FIELD_CARD_NAME);
+                    notifyCardDataChanged(FIELD_CARD_NAME);
+                }
             }
         });
 
@@ -460,7 +707,29 @@ public class CreditCardView extends RelativeLayout {
             @Override
             public void afterTextChanged(Editable s) {
                 // Set the mExpiryDate attribute the user entered value in the Expiry Date field
-                mExpiryDate = s.toString();
+                if (mExpiryDate.set(s)) {
+                    validateFields(FIELD_EXPIRY_DATE);
+                    notifyCardDataChanged(FIELD_EXPIRY_DATE);
+                }
+            }
+        });
+
+        cvv.addTextChangedListener(new TextWatcher() {
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                if (mCvv.set(s)) {
+                    validateFields(FIELD_CVV);
+                    notifyCardDataChanged(FIELD_CVV);
+                }
             }
         });
 
@@ -472,172 +741,1193 @@ public class CreditCardView extends RelativeLayout {
         });
     }
 
-    public boolean isFlippable(){
-        return mIsFlippable;
+    public void setOnCardDataChangedListener(@Nullable OnCardDataChangedListener listener) {
+        mOnCardDataChangedListener = listener;
+        if (listener == null) {
+            mChangedFields = 0;
+            if (mDataChangedScheduler != null) {
+                mDataChangedScheduler.cancel();
+            }
+        }
     }
 
-    public void setIsFlippable(boolean flippable){
-        mIsFlippable = flippable;
-        if(mIsFlippable){
-            mFlipBtn.setVisibility(View.VISIBLE);
-        } else {
-            mFlipBtn.setVisibility(View.INVISIBLE);
-        }
-        mFlipBtn.setEnabled(mIsFlippable);
+    public void setOnValidationChangedListener(@Nullable OnValidationChangedListener listener) {
+        mOnValidationChangedListener = listener;
     }
 
-    public void flip(){
-        if(mIsFlippable){
-            if(AndroidUtils.icsOrBetter()){
-                if(cardSide == CARD_FRONT){
-                    rotateInToBack();
-                } else if(cardSide == CARD_BACK){
-                    rotateInToFront();
-                }
-            } else {
-                if(cardSide == CARD_FRONT){
-                    rotateInToBackBeforeEleven();
-                } else if(cardSide == CARD_BACK){
-                    rotateInToFrontBeforeEleven();
-                }
-            }
+    /**
+     * Returns the {@code FIELD_*} flags of the fields that hold valid data. The cvv length
+     * depends on the card type, 4 digits for American Express and 3 for the others.
+     */
+    public int getValidFields() {
+        return mFormValidator.getValidFields();
+    }
 
-        }
+    /**
+     * Returns whether the card number, name, expiry date and cvv are all valid
+     */
+    public boolean isComplete() {
+        return mFormValidator.isComplete();
     }
 
-    private void showFrontView(){
-        cardNumber.setVisibility(View.VISIBLE);
-        cardName.setVisibility(View.VISIBLE);
-        type.setVisibility(View.VISIBLE);
-        brandLogo.setVisibility(View.VISIBLE);
-        if(mPutChip) {
-            chip.setVisibility(View.VISIBLE);
+    /**
+     * Re-checks the fields that changed and reports it if a field became valid or invalid
+     */
+    private void validateFields(int fields) {
+        if (mIsWipingFields) {
+            return;
+        }
+        final int validFieldsBefore = mFormValidator.getValidFields();
+        final int typeBefore = mFormValidator.getType();
+        mFormValidator.setType(mType);
+        final int validFields = mFormValidator.validate(fields);
+
+        if (mFormValidator.getType() != typeBefore) {
+            // American Express cards have a 4 digit cvv
+            cvv.setFilters(new InputFilter[]{
+                    new InputFilter.LengthFilter(mFormValidator.getCvvLength())
+            });
+        }
+        if (validFields != validFieldsBefore && mOnValidationChangedListener != null) {
+            mOnValidationChangedListener.onValidationChanged(this, validFields,
+                    mFormValidator.isComplete());
         }
-        validTill.setVisibility(View.VISIBLE);
-        expiryDate.setVisibility(View.VISIBLE);
     }
 
-    private void hideFrontView(){
-        cardNumber.setVisibility(View.GONE);
-        cardName.setVisibility(View.GONE);
-        type.setVisibility(View.GONE);
-        brandLogo.setVisibility(View.GONE);
-        chip.setVisibility(View.GONE);
-        validTill.setVisibility(View.GONE);
-        expiryDate.setVisibility(View.GONE);
+    /**
+     * Returns a snapshot of the data currently on the card
+     */
+    public CardData getCardData() {
+        return new CardData(mCardNumber.toString(), mCardName.toString(),
+                mExpiryDate.toString(), mCvv.toString(), mType);
     }
 
-    private void showBackView(){
-        stripe.setVisibility(View.VISIBLE);
-        authorized_sig_tv.setVisibility(View.VISIBLE);
-        signature.setVisibility(View.VISIBLE);
-        cvv.setVisibility(View.VISIBLE);
+    /**
+     * Returns the display state of the card. Only the last four digits of the card number are
+     * kept, and remote images are not part of it.
+     */
+    public CardSnapshot getSnapshot() {
+        final CardSnapshot snapshot = new CardSnapshot();
+        snapshot.setCardNumber(mCardNumber);
+        snapshot.setCardName(mCardName.toString());
+        snapshot.setExpiryDate(mExpiryDate.toString());
+        snapshot.setType(mType == AUTO ? CardTypeDetector.detect(mCardNumber) : mType);
+        snapshot.setCardNumberFormat(mCardNumberFormat);
+        snapshot.setCardNumberTextColor(mCardNumberTextColor);
+        snapshot.setCardNameTextColor(mCardNameTextColor);
+        snapshot.setExpiryDateTextColor(mExpiryDateTextColor);
+        snapshot.setValidTillTextColor(mValidTillTextColor);
+        snapshot.setPutChip(mPutChip);
+        snapshot.setBrandLogoName(getResourceName(mBrandLogo));
+        snapshot.setCardFrontBackgroundName(getResourceName(mCardFrontBackground));
+        snapshot.setCardBackBackgroundName(getResourceName(mCardBackBackground));
+        return snapshot;
     }
 
-    private void hideBackView(){
-        stripe.setVisibility(View.GONE);
-        authorized_sig_tv.setVisibility(View.GONE);
-        signature.setVisibility(View.GONE);
-        cvv.setVisibility(View.GONE);
+    /**
+     * Returns the entry name of a resource, an empty String for 0 or an unknown id
+     */
+    private String getResourceName(int resid) {
+        if (resid == 0) {
+            return "";
+        }
+        try {
+            return getResources().getResourceEntryName(resid);
+        } catch (Resources.NotFoundException e) {
+            return "";
+        }
     }
 
-    private void redrawViews() {
-        invalidate();
-        requestLayout();
+    /**
+     * Returns the id of a drawable of the app or the library by its name, 0 if there is none
+     */
+    private int getDrawableId(String name) {
+        if (name.length() == 0) {
+            return 0;
+        }
+        Integer id = sDrawableIds.get(name);
+        if (id == null) {
+            id = getResources().getIdentifier(name, "drawable", getContext().getPackageName());
+            sDrawableIds.put(name, id);
+        }
+        return id;
     }
 
-    public String getCardNumber() {
-        return mCardNumber;
+    /**
+     * Displays a snapshot. The card number field only gets the last four digits, so a snapshot
+     * taken with {@link CardNumberFormat#ALL_DIGITS} is shown as
+     * {@link CardNumberFormat#MASKED_ALL_BUT_LAST_FOUR}. Art whose resource no longer exists is
+     * replaced by the default.
+     */
+    public void applySnapshot(CardSnapshot snapshot) {
+        setCardNumber(snapshot.getLastFour());
+        // After the number, which resets the type to auto
+        setType(snapshot.getType());
+        setCardNumberFormat(snapshot.getCardNumberFormat() == ALL_DIGITS
+                ? MASKED_ALL_BUT_LAST_FOUR : snapshot.getCardNumberFormat());
+        setCardName(snapshot.getCardName());
+        setExpiryDate(snapshot.getExpiryDate());
+        setCardNumberTextColor(snapshot.getCardNumberTextColor());
+        setCardNameTextColor(snapshot.getCardNameTextColor());
+        setExpiryDateTextColor(snapshot.getExpiryDateTextColor());
+        setValidTillTextColor(snapshot.getValidTillTextColor());
+        putChip(snapshot.getPutChip());
+        setBrandLogo(getDrawableId(snapshot.getBrandLogoName()));
+
+        mCardFrontBackground = getDrawableId(snapshot.getCardFrontBackgroundName());
+        mCardBackgroundUri = null;
+        mCardBackgroundPreset = ProceduralCardBackground.PRESET_NONE;
+        final int cardBackBackground = getDrawableId(snapshot.getCardBackBackgroundName());
+        mCardBackBackground = cardBackBackground != 0 ? cardBackBackground
+                : R.drawable.cardbackground_canvas;
+        if (cardSide == CARD_FRONT) {
+            showFrontBackground();
+        } else {
+            applyBackgroundResource(mCardBackBackground);
+        }
     }
 
-    public void setCardNumber(String cardNumber) {
-        mCardNumber = cardNumber.replaceAll("\\s+", "");
-        this.cardNumber.setText(addSpaceToCardNumber(mCardNumber));
-        redrawViews();
+    /**
+     * Records a field change and schedules the listener for the next frame, so any number of
+     * edits within a frame result in a single callback
+     */
+    private void notifyCardDataChanged(int field) {
+        if (mOnCardDataChangedListener == null) {
+            return;
+        }
+        mChangedFields |= field;
+        if (mDataChangedScheduler == null) {
+            mDataChangedScheduler = new FrameScheduler(new Runnable() {
+                @Override
+                public void run() {
+                    dispatchCardDataChanged();
+                }
+            });
+        }
+        if (getWindowToken() != null) {
+            mDataChangedScheduler.schedule();
+        }
     }
 
-    public String getCardName() {
-        return mCardName;
+    private void dispatchCardDataChanged() {
+        final int changedFields = mChangedFields;
+        mChangedFields = 0;
+        if (changedFields != 0 && mOnCardDataChangedListener != null) {
+            mOnCardDataChangedListener.onCardDataChanged(this, changedFields, getCardData());
+        }
     }
 
-    public void setCardName(String cardName) {
-        mCardName = cardName.toUpperCase();
-        this.cardName.setText(mCardName);
-        redrawViews();
+    public boolean isFlippable(){
+        return mIsFlippable;
     }
 
-    @ColorInt
-    public int getCardNumberTextColor() {
-        return mCardNumberTextColor;
+    public void setIsFlippable(boolean flippable){
+        mIsFlippable = flippable;
+        if(mIsFlippable){
+            mFlipBtn.setVisibility(View.VISIBLE);
+        } else {
+            mFlipBtn.setVisibility(View.INVISIBLE);
+        }
+        mFlipBtn.setEnabled(mIsFlippable);
     }
 
-    public void setCardNumberTextColor(@ColorInt int cardNumberTextColor) {
-        mCardNumberTextColor = cardNumberTextColor;
-        this.cardNumber.setTextColor(mCardNumberTextColor);
-        redrawViews();
+    public boolean isDragFlippable() {
+        return mIsDragFlippable;
     }
 
-    @CreditCardFormat
-    public int getCardNumberFormat() {
-        return mCardNumberFormat;
+    /**
+     * Lets the user flip the card by dragging it horizontally. Only has an effect on flippable
+     * cards, on Ice Cream Sandwich and above.
+     */
+    public void setIsDragFlippable(boolean dragFlippable) {
+        mIsDragFlippable = dragFlippable;
+        if (mIsDragFlippable && mDragFlipController == null && AndroidUtils.icsOrBetter()) {
+            mDragFlipController = new DragFlipController(this);
+        }
     }
 
-    public void setCardNumberFormat(@CreditCardFormat int cardNumberFormat) {
-        if (cardNumberFormat < 0 | cardNumberFormat > 3) {
-            throw new UnsupportedOperationException("CardNumberFormat: " + cardNumberFormat + "  " +
-                    "is not supported. Use `CardNumberFormat.*` or `CardType.ALL_DIGITS` if " +
-                    "unknown");
-        }
-        mCardNumberFormat = cardNumberFormat;
-        this.cardNumber.setText(checkCardNumberFormat(mCardNumber));
-        redrawViews();
+    private boolean canDragFlip() {
+        return mIsDragFlippable && mIsFlippable && mDragFlipController != null
+                && !isFlipRunning();
     }
 
-    @ColorInt
-    public int getCardNameTextColor() {
-        return mCardNameTextColor;
+    @Override
+    public boolean onInterceptTouchEvent(MotionEvent ev) {
+        if (canDragFlip() && mDragFlipController.onInterceptTouchEvent(ev)) {
+            return true;
+        }
+        return super.onInterceptTouchEvent(ev);
     }
 
-    public void setCardNameTextColor(@ColorInt int cardNameTextColor) {
-        mCardNameTextColor = cardNameTextColor;
-        this.cardName.setTextColor(mCardNameTextColor);
-        redrawViews();
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (canDragFlip() && mDragFlipController.onTouchEvent(event)) {
+            return true;
+        }
+        return super.onTouchEvent(event);
     }
 
-    public String getExpiryDate() {
-        return mExpiryDate;
+    public void flip(){
+        if(mIsFlippable && !isFlipRunning()){
+            final CardFlipAnimator animator = getFlipAnimator();
+            if (animator == null) {
+                // No animator for this platform, turn the card over at once
+                switchSide();
+                return;
+            }
+            animator.start(this, new CardFlipAnimator.Listener() {
+                @Override
+                public void onFlipMidpoint() {
+                    switchSide();
+                }
+            });
+        }
     }
 
-    public void setExpiryDate(String expiryDate) {
-        mExpiryDate = expiryDate;
-        this.expiryDate.setText(mExpiryDate);
-        redrawViews();
+    private void switchSide() {
+        if (cardSide == CARD_FRONT) {
+            switchToBack();
+        } else {
+            switchToFront();
+        }
     }
 
-    @ColorInt
-    public int getExpiryDateTextColor() {
-        return mExpiryDateTextColor;
+    /**
+     * Returns the animator used by {@link #flip()}: the platform one on Honeycomb and above, the
+     * one of the optional legacy module before that, or null if that module is not included
+     */
+    @Nullable
+    public CardFlipAnimator getFlipAnimator() {
+        if (!mIsFlipAnimatorLoaded) {
+            mIsFlipAnimatorLoaded = true;
+            if (AndroidUtils.honeycombOrBetter()) {
+                mFlipAnimator = new PlatformCardFlipAnimator();
+            } else {
+                mFlipAnimator = loadLegacyFlipAnimator();
+            }
+        }
+        return mFlipAnimator;
     }
 
-    public void setExpiryDateTextColor(@ColorInt int expiryDateTextColor) {
-        mExpiryDateTextColor = expiryDateTextColor;
-        this.expiryDate.setTextColor(mExpiryDateTextColor);
-        redrawViews();
+    /**
+     * Replaces the animation used by {@link #flip()}. Pass null to flip without an animation.
+     */
+    public void setFlipAnimator(@Nullable CardFlipAnimator flipAnimator) {
+        cancelFlip();
+        mFlipAnimator = flipAnimator;
+        mIsFlipAnimatorLoaded = true;
     }
 
-    @ColorInt
-    public int getValidTillTextColor() {
-        return mValidTillTextColor;
+    @Nullable
+    private static CardFlipAnimator loadLegacyFlipAnimator() {
+        try {
+            return (CardFlipAnimator) Class.forName(LEGACY_FLIP_ANIMATOR).newInstance();
+        } catch (ClassNotFoundException e) {
+            if (DEBUG) {
+                Log.d("CreditCardView", "Legacy flip animator not included, flipping without animation");
+            }
+        } catch (InstantiationException e) {
+            Log.e("CreditCardView", "Could not create " + LEGACY_FLIP_ANIMATOR, e);
+        } catch (IllegalAccessException e) {
+            Log.e("CreditCardView", "Could not create " + LEGACY_FLIP_ANIMATOR, e);
+        }
+        return null;
     }
 
-    public void setValidTillTextColor(@ColorInt int validTillTextColor) {
-        mValidTillTextColor = validTillTextColor;
-        this.validTill.setTextColor(mValidTillTextColor);
-        redrawViews();
+    private boolean isFlipRunning() {
+        return (mFlipAnimator != null && mFlipAnimator.isRunning())
+                || (mDragFlipController != null && mDragFlipController.isSettling());
     }
 
-    @CreditCardType
-    public int getType() {
+    /**
+     * Cancels a flip that is still running and leaves the card at rest on the side that is
+     * currently visible
+     */
+    private void cancelFlip() {
+        if (mFlipAnimator != null) {
+            mFlipAnimator.cancel(this);
+        }
+        if (mDragFlipController != null) {
+            mDragFlipController.cancel();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (AndroidUtils.icsOrBetter() && mTrimMemoryCallbacks == null) {
+            mTrimMemoryCallbacks = new TrimMemoryCallbacks(this);
+            getContext().getApplicationContext().registerComponentCallbacks(mTrimMemoryCallbacks);
+        }
+        restoreDrawables();
+        CardThemeRegistry.getInstance().onCardAttached(this);
+        if (mChangedFields != 0 && mDataChangedScheduler != null) {
+            // Deliver changes made while detached
+            mDataChangedScheduler.schedule();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        cancelFlip();
+        if (mDataChangedScheduler != null) {
+            mDataChangedScheduler.cancel();
+        }
+        if (mTrimMemoryCallbacks != null) {
+            getContext().getApplicationContext()
+                    .unregisterComponentCallbacks(mTrimMemoryCallbacks);
+            mTrimMemoryCallbacks = null;
+        }
+        releaseDrawables();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        if (visibility == View.VISIBLE) {
+            restoreDrawables();
+        }
+    }
+
+    private void onTrimMemory(int level) {
+        // Only drop what is not on screen, a visible card would otherwise have to decode again
+        // in its next frame
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
+                || getWindowVisibility() != View.VISIBLE) {
+            releaseDrawables();
+        }
+    }
+
+    /**
+     * Drops the references to the decoded backgrounds and logos so that their bitmaps can be
+     * collected. Only drawables which can be loaded again from a resource are released.
+     */
+    @SuppressWarnings("deprecation")
+    private void releaseDrawables() {
+        if (mDrawablesReleased || isInEditMode()) {
+            return;
+        }
+        mDrawablesReleased = true;
+        if (mCurrentBackgroundRes != 0 || isShowingCardBackgroundUri()) {
+            setBackgroundInternal(null);
+        }
+        type.setBackgroundDrawable(null);
+        chip.setBackgroundDrawable(null);
+        if (mBrandLogo != 0 || mBrandLogoUri != null) {
+            brandLogo.setBackgroundDrawable(null);
+        }
+        // The recording holds on to the bitmaps it drew
+        invalidateStaticLayers();
+    }
+
+    /**
+     * Loads the drawables released by {@link #releaseDrawables()} again
+     */
+    @SuppressWarnings("deprecation")
+    private void restoreDrawables() {
+        if (!mDrawablesReleased) {
+            return;
+        }
+        mDrawablesReleased = false;
+        if (mCurrentBackgroundRes != 0) {
+            applyBackgroundResource(mCurrentBackgroundRes);
+        } else if (isShowingCardBackgroundUri()) {
+            loadCardBackground();
+        }
+        showLogo();
+        chip.setBackgroundDrawable(getLogoAtlas().getDrawable(R.drawable.card_chip));
+        if (mBrandLogo != 0) {
+            brandLogo.setBackgroundResource(mBrandLogo);
+        } else if (mBrandLogoUri != null) {
+            loadBrandLogo();
+        }
+        invalidateStaticLayers();
+    }
+
+    @Override
+    public void setBackgroundResource(@DrawableRes int resid) {
+        if (cardSide == CARD_FRONT) {
+            mCardFrontBackground = resid;
+            mCardBackgroundUri = null;
+            mCardBackgroundPreset = ProceduralCardBackground.PRESET_NONE;
+        }
+        applyBackgroundResource(resid);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void setBackgroundDrawable(Drawable background) {
+        super.setBackgroundDrawable(background);
+        if (!mIsSettingBackgroundInternally) {
+            // The background no longer comes from a resource or uri we could load again
+            mCurrentBackgroundRes = 0;
+            if (cardSide == CARD_FRONT) {
+                mCardBackgroundUri = null;
+                mCardBackgroundPreset = ProceduralCardBackground.PRESET_NONE;
+            }
+            updateAutoContrast();
+        }
+    }
+
+    /**
+     * Sets the background without changing what the card remembers as its backgrounds
+     */
+    @SuppressWarnings("deprecation")
+    private void setBackgroundInternal(Drawable background) {
+        mIsSettingBackgroundInternally = true;
+        try {
+            setBackgroundDrawable(background);
+        } finally {
+            mIsSettingBackgroundInternally = false;
+        }
+    }
+
+    /**
+     * Sets the front background from the uri, preset or resource it was last set from. Cards
+     * without one get the sky image; the presets are only used when set.
+     */
+    private void showFrontBackground() {
+        if (mCardBackgroundUri != null) {
+            loadCardBackground();
+        } else if (mCardBackgroundPreset != ProceduralCardBackground.PRESET_NONE) {
+            applyBackgroundPreset(mCardBackgroundPreset);
+        } else if (mCardFrontBackground != 0) {
+            applyBackgroundResource(mCardFrontBackground);
+        } else {
+            applyBackgroundResource(R.drawable.cardbackground_sky);
+        }
+    }
+
+    private void applyBackgroundPreset(int preset) {
+        setBackgroundInternal(new ProceduralCardBackground(getResources(), preset));
+        mCurrentBackgroundRes = 0;
+        updateAutoContrast();
+    }
+
+    @ProceduralCardBackground.Preset
+    public int getCardBackgroundPreset() {
+        return mCardBackgroundPreset;
+    }
+
+    /**
+     * Draws the front background from a procedural preset instead of an image. Pass
+     * {@link ProceduralCardBackground#PRESET_NONE} to go back to the default background.
+     */
+    public void setCardBackgroundPreset(@ProceduralCardBackground.Preset int preset) {
+        if (preset < ProceduralCardBackground.PRESET_NONE
+                || preset > ProceduralCardBackground.PRESET_WORLD) {
+            throw new UnsupportedOperationException("CardBackgroundPreset: " + preset
+                    + " is not supported. Use `ProceduralCardBackground.PRESET_*`");
+        }
+        mCardBackgroundPreset = preset;
+        mCardBackgroundUri = null;
+        mCardFrontBackground = 0;
+        if (cardSide == CARD_FRONT) {
+            showFrontBackground();
+        }
+        redrawViews();
+    }
+
+    int getThemeGeneration() {
+        return mThemeGeneration;
+    }
+
+    /**
+     * Applies the colors and the backgrounds that are set in a theme in one go. Unlike the
+     * setters, this only redraws the card and does not request a layout.
+     */
+    void applyTheme(CardTheme theme, int generation) {
+        mThemeGeneration = generation;
+        mCardNumberTextColor = theme.getCardNumberTextColor();
+        mCardNameTextColor = theme.getCardNameTextColor();
+        mExpiryDateTextColor = theme.getExpiryDateTextColor();
+        mValidTillTextColor = theme.getValidTillTextColor();
+        mHintTextColor = theme.getHintTextColor();
+        mCvvTextColor = theme.getCvvTextColor();
+        mCvvHintColor = theme.getCvvHintColor();
+        final boolean hasFrontBackground = theme.hasCardFrontBackground();
+        if (hasFrontBackground) {
+            mCardFrontBackground = theme.getCardFrontBackground();
+            mCardBackgroundPreset = theme.getCardBackgroundPreset();
+            mCardBackgroundUri = null;
+        }
+        final boolean hasBackBackground = theme.hasCardBackBackground();
+        if (hasBackBackground) {
+            mCardBackBackground = theme.getCardBackBackground();
+        }
+
+        // The backgrounds first, auto contrast picks the text colors from them
+        if (cardSide == CARD_FRONT) {
+            if (hasFrontBackground) {
+                showFrontBackground();
+            }
+        } else if (hasBackBackground) {
+            applyBackgroundResource(mCardBackBackground);
+        }
+        if (!mAutoContrast) {
+            applyTextColors();
+        }
+        cvv.setTextColor(mCvvTextColor);
+        cvv.setHintTextColor(mCvvHintColor);
+        invalidate();
+    }
+
+    private boolean isShowingCardBackgroundUri() {
+        return cardSide == CARD_FRONT && mCardBackgroundUri != null;
+    }
+
+    /**
+     * Sets the background from a resource without changing the front background of the card
+     */
+    private void applyBackgroundResource(@DrawableRes int resid) {
+        mIsSettingBackgroundInternally = true;
+        try {
+            super.setBackgroundResource(resid);
+        } finally {
+            mIsSettingBackgroundInternally = false;
+        }
+        mCurrentBackgroundRes = resid;
+        updateAutoContrast();
+    }
+
+    public boolean getAutoContrast() {
+        return mAutoContrast;
+    }
+
+    /**
+     * When enabled, the front text colors are picked to be readable on the front background
+     * instead of the configured ones. Works for backgrounds set from a resource or uri; each
+     * background is sampled once, in the background.
+     */
+    public void setAutoContrast(boolean autoContrast) {
+        if (mAutoContrast == autoContrast) {
+            return;
+        }
+        mAutoContrast = autoContrast;
+        if (mAutoContrast) {
+            updateAutoContrast();
+        } else {
+            applyTextColors();
+        }
+    }
+
+    /**
+     * Returns what the background currently shown on the front was loaded from, null if it is
+     * not known
+     */
+    @Nullable
+    private String getBackgroundKey() {
+        if (cardSide != CARD_FRONT) {
+            return null;
+        }
+        if (mCurrentBackgroundRes != 0) {
+            return "res:" + mCurrentBackgroundRes;
+        }
+        if (getBackground() instanceof ProceduralCardBackground) {
+            return "preset:" + ((ProceduralCardBackground) getBackground()).getPreset();
+        }
+        if (mCardBackgroundUri != null && getBackground() != null) {
+            return mCardBackgroundUri.toString();
+        }
+        return null;
+    }
+
+    private void updateAutoContrast() {
+        if (!mAutoContrast || cardSide != CARD_FRONT || mDrawablesReleased) {
+            return;
+        }
+        final String key = getBackgroundKey();
+        if (key == null) {
+            applyTextColors();
+            return;
+        }
+        final ContrastAnalyzer analyzer = ContrastAnalyzer.getInstance();
+        final int[] cached = analyzer.getCached(key);
+        if (cached != null) {
+            applyContrastColors(cached);
+            return;
+        }
+        final Drawable background = getBackground();
+        final Drawable.ConstantState state = background != null
+                ? background.getConstantState() : null;
+        if (getWidth() == 0 || getHeight() == 0 || state == null) {
+            // Analyzed from onLayout() once the text has a position
+            return;
+        }
+        final RectF[] regions = {
+                getRegion(cardNumber), getRegion(cardName), getRegion(expiryDate),
+                getRegion(validTill)
+        };
+        // A copy is drawn by the analyzer so the displayed background is never touched off the
+        // main thread
+        analyzer.analyze(key, state.newDrawable(getResources()), regions,
+                (float) getHeight() / getWidth(), mContrastCallback);
+    }
+
+    /**
+     * Returns the bounds of a child as fractions of the card size
+     */
+    private RectF getRegion(View child) {
+        final float width = getWidth();
+        final float height = getHeight();
+        return new RectF(child.getLeft() / width, child.getTop() / height,
+                child.getRight() / width, child.getBottom() / height);
+    }
+
+    private void applyContrastColors(int[] textColors) {
+        cardNumber.setTextColor(textColors[0]);
+        cardNumber.setHintTextColor(ContrastAnalyzer.getHintColor(textColors[0]));
+        cardName.setTextColor(textColors[1]);
+        cardName.setHintTextColor(ContrastAnalyzer.getHintColor(textColors[1]));
+        expiryDate.setTextColor(textColors[2]);
+        expiryDate.setHintTextColor(ContrastAnalyzer.getHintColor(textColors[2]));
+        validTill.setTextColor(textColors[3]);
+        invalidateStaticLayers();
+    }
+
+    /**
+     * Restores the configured front text colors
+     */
+    private void applyTextColors() {
+        cardNumber.setTextColor(mCardNumberTextColor);
+        cardName.setTextColor(mCardNameTextColor);
+        expiryDate.setTextColor(mExpiryDateTextColor);
+        validTill.setTextColor(mValidTillTextColor);
+        cardNumber.setHintTextColor(mHintTextColor);
+        cardName.setHintTextColor(mHintTextColor);
+        expiryDate.setHintTextColor(mHintTextColor);
+        invalidateStaticLayers();
+    }
+
+    public boolean getOptimizeOverdraw() {
+        return mOptimizeOverdraw;
+    }
+
+    /**
+     * When enabled, the card is clipped once to its rounded outline and the magnetic stripe and
+     * signature panel are drawn as plain rects by the card itself instead of as child backgrounds
+     */
+    public void setOptimizeOverdraw(boolean optimizeOverdraw) {
+        if (mOptimizeOverdraw == optimizeOverdraw) {
+            return;
+        }
+        mOptimizeOverdraw = optimizeOverdraw;
+        applyOverdrawOptimization();
+        redrawViews();
+    }
+
+    @SuppressWarnings("deprecation")
+    @SuppressLint("NewApi")
+    private void applyOverdrawOptimization() {
+        if (mOptimizeOverdraw) {
+            if (mStripePaint == null) {
+                mStripePaint = new Paint();
+                mStripePaint.setColor(getResources().getColor(R.color.card_stripe));
+                mSignaturePaint = new Paint();
+                mSignaturePaint.setColor(getResources().getColor(R.color.card_signature));
+            }
+            stripe.setBackgroundDrawable(null);
+            signature.setBackgroundDrawable(null);
+        } else {
+            stripe.setBackgroundResource(R.drawable.cardbackground_stripe);
+            signature.setBackgroundResource(R.drawable.card_background_signature);
+        }
+
+        // The panels are part of the static layers when drawn by the card
+        invalidateStaticLayers();
+
+        if (AndroidUtils.lollipopOrBetter()) {
+            // The outline clip is applied by the render thread, no path clipping needed
+            if (mOptimizeOverdraw) {
+                setOutlineProvider(new CardOutlineProvider(mCardCornerRadius));
+            } else {
+                setOutlineProvider(ViewOutlineProvider.BACKGROUND);
+            }
+            setClipToOutline(mOptimizeOverdraw);
+        }
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        super.onLayout(changed, l, t, r, b);
+        if (changed && mAutoContrast) {
+            updateAutoContrast();
+        }
+        // Labels such as valid till move with the text next to them
+        if (mStaticLayers != null && haveStaticLayersMoved()) {
+            invalidateStaticLayers();
+        }
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        // Rebuild the cached outline only when the size of the card changes
+        mCardOutlineRect.set(0, 0, w, h);
+        mCardOutlinePath.reset();
+        mCardOutlinePath.addRoundRect(mCardOutlineRect, mCardCornerRadius, mCardCornerRadius,
+                Path.Direction.CW);
+
+        // A remote background waits for the card to be measured so it can be decoded at size
+        if (isShowingCardBackgroundUri() && (w != oldw || h != oldh)) {
+            loadCardBackground();
+        }
+    }
+
+    @SuppressLint("NewApi")
+    @Override
+    public void draw(Canvas canvas) {
+        // From Lollipop the outline does the clipping. Before 4.3 clipPath() is only supported on
+        // software canvases.
+        if (mOptimizeOverdraw && !AndroidUtils.lollipopOrBetter()
+                && (AndroidUtils.jellyBeanMR2OrBetter() || !AndroidUtils.honeycombOrBetter()
+                || !canvas.isHardwareAccelerated())) {
+            final int saveCount = canvas.save();
+            canvas.clipPath(mCardOutlinePath);
+            super.draw(canvas);
+            canvas.restoreToCount(saveCount);
+        } else {
+            super.draw(canvas);
+        }
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        if (canDrawStaticLayers(canvas)) {
+            if (mStaticLayers == null) {
+                recordStaticLayers();
+            }
+            canvas.drawPicture(mStaticLayers);
+            // Only the children which are not part of the recording are drawn
+            mIsSkippingStaticLayers = true;
+            try {
+                super.dispatchDraw(canvas);
+            } finally {
+                mIsSkippingStaticLayers = false;
+            }
+            return;
+        }
+        drawPanels(canvas);
+        super.dispatchDraw(canvas);
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (mIsSkippingStaticLayers && isStaticLayer(child)) {
+            return false;
+        }
+        return super.drawChild(canvas, child, drawingTime);
+    }
+
+    public boolean getCacheStaticLayers() {
+        return mCacheStaticLayers;
+    }
+
+    /**
+     * When enabled and no field is editable, the logos, chip, labels and back panels are
+     * recorded once into a {@link Picture} which is replayed on every draw, and only the text
+     * fields are drawn again. Used on software canvases, and on hardware accelerated ones from
+     * Marshmallow.
+     */
+    public void setCacheStaticLayers(boolean cacheStaticLayers) {
+        if (mCacheStaticLayers == cacheStaticLayers) {
+            return;
+        }
+        mCacheStaticLayers = cacheStaticLayers;
+        invalidateStaticLayers();
+    }
+
+    /**
+     * Drops the recording of the static layers, it is recorded again on the next draw
+     */
+    private void invalidateStaticLayers() {
+        if (mStaticLayers != null) {
+            mStaticLayers = null;
+            invalidate();
+        }
+    }
+
+    @SuppressLint("NewApi")
+    private boolean canDrawStaticLayers(Canvas canvas) {
+        if (!mCacheStaticLayers || cardNumber.isEnabled() || cardName.isEnabled()
+                || expiryDate.isEnabled() || cvv.isEnabled()) {
+            return false;
+        }
+        // Hardware accelerated canvases only replay pictures from Marshmallow
+        return AndroidUtils.marshmallowOrBetter() || !AndroidUtils.honeycombOrBetter()
+                || !canvas.isHardwareAccelerated();
+    }
+
+    private boolean isStaticLayer(View child) {
+        for (View view : mStaticLayerViews) {
+            if (view == child) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordStaticLayers() {
+        final Picture picture = new Picture();
+        final Canvas canvas = picture.beginRecording(getWidth(), getHeight());
+        drawPanels(canvas);
+        final long drawingTime = getDrawingTime();
+        for (int i = 0; i < mStaticLayerViews.length; i++) {
+            final View view = mStaticLayerViews[i];
+            if (view.getVisibility() == View.VISIBLE) {
+                super.drawChild(canvas, view, drawingTime);
+            }
+            mStaticLayerBounds[i * 4] = view.getLeft();
+            mStaticLayerBounds[i * 4 + 1] = view.getTop();
+            mStaticLayerBounds[i * 4 + 2] = view.getRight();
+            mStaticLayerBounds[i * 4 + 3] = view.getBottom();
+        }
+        picture.endRecording();
+        mStaticLayers = picture;
+    }
+
+    private boolean haveStaticLayersMoved() {
+        for (int i = 0; i < mStaticLayerViews.length; i++) {
+            final View view = mStaticLayerViews[i];
+            if (mStaticLayerBounds[i * 4] != view.getLeft()
+                    || mStaticLayerBounds[i * 4 + 1] != view.getTop()
+                    || mStaticLayerBounds[i * 4 + 2] != view.getRight()
+                    || mStaticLayerBounds[i * 4 + 3] != view.getBottom()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drawPanels(Canvas canvas) {
+        if (mOptimizeOverdraw) {
+            drawPanel(canvas, stripe, mStripePaint);
+            drawPanel(canvas, signature, mSignaturePaint);
+        }
+    }
+
+    /**
+     * Draws a back side panel in the bounds of its placeholder view
+     */
+    private void drawPanel(Canvas canvas, View panel, Paint paint) {
+        if (panel.getVisibility() == View.VISIBLE) {
+            canvas.drawRect(panel.getLeft(), panel.getTop(), panel.getRight(), panel.getBottom(),
+                    paint);
+        }
+    }
+
+    /**
+     * Shows the back of the card in place of the front
+     */
+    void switchToBack() {
+        hideFrontView();
+        showBackView();
+        cardSide = CARD_BACK;
+        invalidateStaticLayers();
+        applyBackgroundResource(mCardBackBackground);
+    }
+
+    /**
+     * Shows the front of the card in place of the back
+     */
+    void switchToFront() {
+        showFrontView();
+        hideBackView();
+        cardSide = CARD_FRONT;
+        invalidateStaticLayers();
+        showFrontBackground();
+    }
+
+    boolean isShowingBack() {
+        return cardSide == CARD_BACK;
+    }
+
+    private void showFrontView(){
+        cardNumber.setVisibility(View.VISIBLE);
+        cardName.setVisibility(View.VISIBLE);
+        type.setVisibility(View.VISIBLE);
+        brandLogo.setVisibility(View.VISIBLE);
+        if(mPutChip) {
+            chip.setVisibility(View.VISIBLE);
+        }
+        validTill.setVisibility(View.VISIBLE);
+        expiryDate.setVisibility(View.VISIBLE);
+    }
+
+    private void hideFrontView(){
+        cardNumber.setVisibility(View.GONE);
+        cardName.setVisibility(View.GONE);
+        type.setVisibility(View.GONE);
+        brandLogo.setVisibility(View.GONE);
+        chip.setVisibility(View.GONE);
+        validTill.setVisibility(View.GONE);
+        expiryDate.setVisibility(View.GONE);
+    }
+
+    private void showBackView(){
+        stripe.setVisibility(View.VISIBLE);
+        authorized_sig_tv.setVisibility(View.VISIBLE);
+        signature.setVisibility(View.VISIBLE);
+        cvv.setVisibility(View.VISIBLE);
+    }
+
+    private void hideBackView(){
+        stripe.setVisibility(View.GONE);
+        authorized_sig_tv.setVisibility(View.GONE);
+        signature.setVisibility(View.GONE);
+        cvv.setVisibility(View.GONE);
+    }
+
+    private void redrawViews() {
+        invalidate();
+        requestLayout();
+    }
+
+    /**
+     * Returns the card number without spaces. Creates a String that can not be wiped, see
+     * {@link #getCardNumber(char[])} to avoid it.
+     */
+    public String getCardNumber() {
+        return mCardNumber.toString();
+    }
+
+    /**
+     * Copies the card number without spaces into {@code dest} and returns its length
+     *
+     * @throws IndexOutOfBoundsException if {@code dest} is too short.
+     */
+    public int getCardNumber(char[] dest) {
+        return mCardNumber.getChars(dest);
+    }
+
+    /**
+     * Returns a read-only view of the card number without spaces. It reflects later changes, so
+     * copy it if it has to be kept.
+     */
+    public CharSequence getCardNumberChars() {
+        return mCardNumber;
+    }
+
+    public void setCardNumber(String cardNumber) {
+        // The buffer already holds the new value, so the text watcher sees no change
+        final boolean isChanged = mCardNumber.setWithoutWhitespace(cardNumber);
+        this.cardNumber.setText(addSpaceToCardNumber(mCardNumber));
+        validateFields(FIELD_CARD_NUMBER);
+        if (isChanged) {
+            notifyCardDataChanged(FIELD_CARD_NUMBER);
+        }
+        redrawViews();
+    }
+
+    public String getCardName() {
+        return mCardName.toString();
+    }
+
+    public int getCardName(char[] dest) {
+        return mCardName.getChars(dest);
+    }
+
+    public CharSequence getCardNameChars() {
+        return mCardName;
+    }
+
+    public void setCardName(String cardName) {
+        final boolean isChanged = mCardName.setEmbossed(cardName);
+        this.cardName.setText(mCardName);
+        validateFields(FIELD_CARD_NAME);
+        if (isChanged) {
+            notifyCardDataChanged(FIELD_CARD_NAME);
+        }
+        redrawViews();
+    }
+
+    @ColorInt
+    public int getCardNumberTextColor() {
+        return mCardNumberTextColor;
+    }
+
+    public void setCardNumberTextColor(@ColorInt int cardNumberTextColor) {
+        mCardNumberTextColor = cardNumberTextColor;
+        this.cardNumber.setTextColor(mCardNumberTextColor);
+        redrawViews();
+    }
+
+    @CreditCardFormat
+    public int getCardNumberFormat() {
+        return mCardNumberFormat;
+    }
+
+    public void setCardNumberFormat(@CreditCardFormat int cardNumberFormat) {
+        if (cardNumberFormat < 0 | cardNumberFormat > 3) {
+            throw new UnsupportedOperationException("CardNumberFormat: " + cardNumberFormat + "  " +
+                    "is not supported. Use `CardNumberFormat.*` or `CardType.ALL_DIGITS` if " +
+                    "unknown");
+        }
+        mCardNumberFormat = cardNumberFormat;
+        // Only the displayed text changes, the digits in the field and mCardNumber stay as they
+        // are
+        if (!this.cardNumber.hasFocus()) {
+            this.cardNumber.setTransformationMethod(
+                    CardNumberTransformationMethod.getInstance(mCardNumberFormat));
+        }
+    }
+
+    @ColorInt
+    public int getCardNameTextColor() {
+        return mCardNameTextColor;
+    }
+
+    public void setCardNameTextColor(@ColorInt int cardNameTextColor) {
+        mCardNameTextColor = cardNameTextColor;
+        this.cardName.setTextColor(mCardNameTextColor);
+        redrawViews();
+    }
+
+    public String getCvv() {
+        return mCvv.toString();
+    }
+
+    public int getCvv(char[] dest) {
+        return mCvv.getChars(dest);
+    }
+
+    public CharSequence getCvvChars() {
+        return mCvv;
+    }
+
+    public void setCvv(String cvv) {
+        final boolean isChanged = mCvv.set(cvv);
+        this.cvv.setText(mCvv);
+        validateFields(FIELD_CVV);
+        if (isChanged) {
+            notifyCardDataChanged(FIELD_CVV);
+        }
+        redrawViews();
+    }
+
+    public String getExpiryDate() {
+        return mExpiryDate.toString();
+    }
+
+    public int getExpiryDate(char[] dest) {
+        return mExpiryDate.getChars(dest);
+    }
+
+    public CharSequence getExpiryDateChars() {
+        return mExpiryDate;
+    }
+
+    public void setExpiryDate(String expiryDate) {
+        final boolean isChanged = mExpiryDate.set(expiryDate);
+        this.expiryDate.setText(mExpiryDate);
+        validateFields(FIELD_EXPIRY_DATE);
+        if (isChanged) {
+            notifyCardDataChanged(FIELD_EXPIRY_DATE);
+        }
+        redrawViews();
+    }
+
+    /**
+     * Picks the card number, expiry date and name out of pasted text or the output of a card
+     * scanner and shows them in a single update. Fields that are not found in the text keep
+     * their values. See {@link CardTextParser} for what is recognized.
+     *
+     * @return the {@code FIELD_*} flags of the fields that were found.
+     */
+    public int ingest(CharSequence text) {
+        if (mTextParser == null) {
+            mTextParser = new CardTextParser();
+            // Names the name field would cut are not picked
+            mTextParser.setMaxCardNameLength(
+                    getResources().getInteger(R.integer.card_name_max_length));
+        }
+        final int found = mTextParser.parse(text, mCardNumber, mExpiryDate, mCardName);
+        if (found == 0) {
+            return 0;
+        }
+
+        // The buffers already hold the new values, so the text watchers see no change
+        if ((found & FIELD_CARD_NUMBER) != 0) {
+            this.cardNumber.setText(addSpaceToCardNumber(mCardNumber));
+            if (mType == AUTO) {
+                showLogo();
+            }
+        }
+        if ((found & FIELD_CARD_NAME) != 0) {
+            this.cardName.setText(mCardName);
+        }
+        if ((found & FIELD_EXPIRY_DATE) != 0) {
+            this.expiryDate.setText(mExpiryDate);
+        }
+        validateFields(found);
+        notifyCardDataChanged(found);
+        redrawViews();
+        return found;
+    }
+
+    /**
+     * Overwrites the card number and cvv in the card's own buffers and empties them and the
+     * text of their fields. The fields' text is only overwritten on a best-effort basis, see
+     * {@link #wipe(Editable)}. Strings returned earlier by {@link #getCardNumber()} or
+     * {@link #getCvv()} are not affected.
+     */
+    public void clearSensitiveData() {
+        final int clearedFields = (mCardNumber.isEmpty() ? 0 : FIELD_CARD_NUMBER)
+                | (mCvv.isEmpty() ? 0 : FIELD_CVV);
+        mIsWipingFields = true;
+        try {
+            wipe(this.cardNumber.getText());
+            wipe(this.cvv.getText());
+        } finally {
+            mIsWipingFields = false;
+        }
+        mCardNumber.clear();
+        mCvv.clear();
+        validateFields(FIELD_CARD_NUMBER | FIELD_CVV);
+        if (clearedFields != 0) {
+            notifyCardDataChanged(clearedFields);
+        }
+        redrawViews();
+    }
+
+    /**
+     * Replaces the characters of an editable with zeros before removing them. This is best
+     * effort: the editable may move or copy its buffer, so older copies of the characters can
+     * remain in memory.
+     */
+    private static void wipe(Editable text) {
+        final char[] zeros = new char[text.length()];
+        Arrays.fill(zeros, '0');
+        text.replace(0, zeros.length, CharBuffer.wrap(zeros));
+        text.clear();
+    }
+
+    @ColorInt
+    public int getExpiryDateTextColor() {
+        return mExpiryDateTextColor;
+    }
+
+    public void setExpiryDateTextColor(@ColorInt int expiryDateTextColor) {
+        mExpiryDateTextColor = expiryDateTextColor;
+        this.expiryDate.setTextColor(mExpiryDateTextColor);
+        redrawViews();
+    }
+
+    @ColorInt
+    public int getValidTillTextColor() {
+        return mValidTillTextColor;
+    }
+
+    public void setValidTillTextColor(@ColorInt int validTillTextColor) {
+        mValidTillTextColor = validTillTextColor;
+        this.validTill.setTextColor(mValidTillTextColor);
+        invalidateStaticLayers();
+        redrawViews();
+    }
+
+    @CreditCardType
+    public int getType() {
         return mType;
     }
 
@@ -647,7 +1937,9 @@ public class CreditCardView extends RelativeLayout {
                     "Use `CardType.*` or `CardType.AUTO` if unknown");
         }
         mType = type;
-        this.type.setBackgroundResource(getLogo(mType));
+        showLogo();
+        // The cvv length depends on the type
+        validateFields(0);
         redrawViews();
     }
 
@@ -709,10 +2001,93 @@ public class CreditCardView extends RelativeLayout {
 
     public void setBrandLogo(@DrawableRes int brandLogo) {
         mBrandLogo = brandLogo;
+        mBrandLogoUri = null;
         this.brandLogo.setBackgroundResource(mBrandLogo);
+        invalidateStaticLayers();
         redrawViews();
     }
 
+    @Nullable
+    public Uri getBrandLogoUri() {
+        return mBrandLogoUri;
+    }
+
+    /**
+     * Loads the brand logo from a http(s), content or file uri. The image is decoded in the
+     * background at the size of the logo and cached in memory and on disk.
+     */
+    public void setBrandLogo(Uri brandLogoUri) {
+        mBrandLogo = 0;
+        mBrandLogoUri = brandLogoUri;
+        loadBrandLogo();
+    }
+
+    private void loadBrandLogo() {
+        final Uri uri = mBrandLogoUri;
+        final LayoutParams params = (LayoutParams) brandLogo.getLayoutParams();
+        ImageLoader.getInstance(getContext()).load(uri, params.width, params.height,
+                new ImageLoader.Callback() {
+                    @SuppressWarnings("deprecation")
+                    @Override
+                    public void onImageLoaded(Uri loadedUri, Bitmap bitmap) {
+                        // Ignore results of a logo which has been replaced since
+                        if (loadedUri.equals(mBrandLogoUri) && !mDrawablesReleased) {
+                            brandLogo.setBackgroundDrawable(
+                                    new BitmapDrawable(getResources(), bitmap));
+                            invalidateStaticLayers();
+                        }
+                    }
+
+                    @Override
+                    public void onImageFailed(Uri failedUri, Exception e) {
+                        Log.w("CreditCardView", "Could not load brand logo " + failedUri, e);
+                    }
+                });
+    }
+
+    @Nullable
+    public Uri getCardBackgroundUri() {
+        return mCardBackgroundUri;
+    }
+
+    /**
+     * Loads the front background of the card from a http(s), content or file uri. The image is
+     * decoded in the background at the size of the card and cached in memory and on disk.
+     */
+    public void setCardBackground(Uri cardBackgroundUri) {
+        mCardBackgroundUri = cardBackgroundUri;
+        mCardFrontBackground = 0;
+        mCardBackgroundPreset = ProceduralCardBackground.PRESET_NONE;
+        if (cardSide == CARD_FRONT && getWidth() > 0 && getHeight() > 0) {
+            loadCardBackground();
+        }
+    }
+
+    private void loadCardBackground() {
+        if (getWidth() == 0 || getHeight() == 0) {
+            // Loaded from onSizeChanged()
+            return;
+        }
+        ImageLoader.getInstance(getContext()).load(mCardBackgroundUri, getWidth(), getHeight(),
+                new ImageLoader.Callback() {
+                    @Override
+                    public void onImageLoaded(Uri loadedUri, Bitmap bitmap) {
+                        // Ignore results of a background which has been replaced since
+                        if (loadedUri.equals(mCardBackgroundUri) && isShowingCardBackgroundUri()
+                                && !mDrawablesReleased) {
+                            setBackgroundInternal(new BitmapDrawable(getResources(), bitmap));
+                            mCurrentBackgroundRes = 0;
+                            updateAutoContrast();
+                        }
+                    }
+
+                    @Override
+                    public void onImageFailed(Uri failedUri, Exception e) {
+                        Log.w("CreditCardView", "Could not load card background " + failedUri, e);
+                    }
+                });
+    }
+
     public int getBrandLogoPosition() {
         return mBrandLogo;
     }
@@ -724,6 +2099,7 @@ public class CreditCardView extends RelativeLayout {
     public void putChip(boolean flag) {
         mPutChip = flag;
         chip.setVisibility(mPutChip?View.VISIBLE:View.GONE);
+        invalidateStaticLayers();
         redrawViews();
     }
 
@@ -742,8 +2118,8 @@ public class CreditCardView extends RelativeLayout {
     }
 
     public void setCardBackBackground(@DrawableRes int cardBackBackground) {
-            mCardBackBackground = cardBackBackground;
-            setBackgroundResource(mCardBackBackground);
+        mCardBackBackground = cardBackBackground;
+        applyBackgroundResource(mCardBackBackground);
         redrawViews();
     }
 
@@ -778,35 +2154,6 @@ public class CreditCardView extends RelativeLayout {
 
     }
 
-    /**
-     * Returns the formatted card number based on the user entered value for card number format
-     *
-     * @param cardNumber Card Number.
-     */
-    private String checkCardNumberFormat(String cardNumber) {
-
-        if (DEBUG) {
-            Log.e("Card Number", cardNumber);
-        }
-
-        switch (getCardNumberFormat()) {
-            case MASKED_ALL_BUT_LAST_FOUR:
-                cardNumber = "**** **** **** "
-                        + cardNumber.substring(cardNumber.length() - 4, cardNumber.length());
-                break;
-            case ONLY_LAST_FOUR:
-                cardNumber = cardNumber.substring(cardNumber.length() - 4, cardNumber.length());
-                break;
-            case MASKED_ALL:
-                cardNumber = "**** **** **** ****";
-                break;
-            default:
-                //do nothing.
-                break;
-        }
-        return cardNumber;
-    }
-
     /**
      * Returns the appropriate card type drawable resource based on the regex pattern of the card
      * number
@@ -816,17 +2163,7 @@ public class CreditCardView extends RelativeLayout {
 
         int type = VISA;
         if (cardNumber.length() > 0) {
-
-            final String cardNumber = getCardNumber().replaceAll("\\s+", "");
-
-            if (Pattern.compile(PATTERN_MASTER_CARD).matcher(cardNumber).matches()) {
-                type = MASTERCARD;
-            } else if (Pattern.compile(PATTERN_AMERICAN_EXPRESS).matcher(cardNumber)
-                    .matches()) {
-                type = AMERICAN_EXPRESS;
-            } else if (Pattern.compile(PATTERN_DISCOVER).matcher(cardNumber).matches()) {
-                type = DISCOVER;
-            }
+            type = CardTypeDetector.detect(mCardNumber);
         }
         setType(type);
 
@@ -838,303 +2175,53 @@ public class CreditCardView extends RelativeLayout {
      *
      * @param cardNumber Card Number.
      */
-    private String addSpaceToCardNumber(String cardNumber) {
-
-        if (cardNumber.length() % 4 != 0) {
-            return cardNumber;
-        } else {
-            final StringBuilder result = new StringBuilder();
-            for (int i = 0; i < cardNumber.length(); i++) {
-                if (i % 4 == 0 && i != 0 && i != cardNumber.length() - 1) {
-                    result.append(" ");
-                }
-                result.append(cardNumber.charAt(i));
-            }
-            return result.toString();
-        }
-    }
-
-    @TargetApi(11)
-    private void rotateInToBack(){
-        AnimatorSet set = new AnimatorSet();
-        final ObjectAnimator rotateIn = ObjectAnimator.ofFloat(this, "rotationY", 0, 90);
-        final ObjectAnimator hideFrontView = ObjectAnimator.ofFloat(this, "alpha", 1, 0);
-        rotateIn.setInterpolator(new AccelerateDecelerateInterpolator());
-        rotateIn.setDuration(300);
-        hideFrontView.setDuration(1);
-        set.addListener(new Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                rotateOutToBack();
-            }
-
-            @Override
-            public void onAnimationCancel(Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationRepeat(Animator animation) {
-
-            }
-        });
-        set.play(hideFrontView).after(rotateIn);
-        set.start();
-    }
-
-    @TargetApi(11)
-    private void rotateInToFront(){
-        AnimatorSet set = new AnimatorSet();
-        final ObjectAnimator rotateIn = ObjectAnimator.ofFloat(this, "rotationY", 0, 90);
-        final ObjectAnimator hideBackView = ObjectAnimator.ofFloat(this, "alpha", 1, 0);
-        rotateIn.setDuration(300);
-        hideBackView.setDuration(1);
-        set.addListener(new Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                rotateOutToFront();
-            }
-
-            @Override
-            public void onAnimationCancel(Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationRepeat(Animator animation) {
-
-            }
-        });
-        set.play(hideBackView).after(rotateIn);
-        set.start();
-    }
-
-    @TargetApi(11)
-    private void rotateOutToBack(){
-        hideFrontView();
-        showBackView();
-        CreditCardView.this.setRotationY(-90);
-        setBackgroundResource(mCardBackBackground);
-        AnimatorSet set = new AnimatorSet();
-        final ObjectAnimator flipView = ObjectAnimator.ofInt(CreditCardView.this, "rotationY", 90, -90);
-        final ObjectAnimator rotateOut = ObjectAnimator.ofFloat(CreditCardView.this, "rotationY", -90, 0);
-        final ObjectAnimator showBackView = ObjectAnimator.ofFloat(CreditCardView.this, "alpha", 0, 1);
-        flipView.setDuration(0);
-        showBackView.setDuration(1);
-        rotateOut.setDuration(300);
-        showBackView.setStartDelay(150);
-        rotateOut.setInterpolator(new AccelerateDecelerateInterpolator());
-        set.addListener(new Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                //Do nothing
-            }
-
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                cardSide = CARD_BACK;
-            }
-
-            @Override
-            public void onAnimationCancel(Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationRepeat(Animator animation) {
-                //Do nothing
-            }
-        });
-        set.play(flipView).with(showBackView).before(rotateOut);
-        set.start();
-    }
-
-    @TargetApi(11)
-    private void rotateOutToFront(){
-        showFrontView();
-        hideBackView();
-        CreditCardView.this.setRotationY(-90);
-        setBackgroundResource(R.drawable.cardbackground_sky);
-        AnimatorSet set = new AnimatorSet();
-        final ObjectAnimator flipView = ObjectAnimator.ofInt(CreditCardView.this, "rotationY", 90, -90);
-        final ObjectAnimator rotateOut = ObjectAnimator.ofFloat(CreditCardView.this, "rotationY", -90, 0);
-        final ObjectAnimator showFrontView = ObjectAnimator.ofFloat(CreditCardView.this, "alpha", 0, 1);
-        showFrontView.setDuration(1);
-        rotateOut.setDuration(300);
-        showFrontView.setStartDelay(150);
-        rotateOut.setInterpolator(new AccelerateDecelerateInterpolator());
-        set.addListener(new Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                //Do nothing
-            }
-
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                cardSide = CARD_FRONT;
-            }
-
-            @Override
-            public void onAnimationCancel(Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationRepeat(Animator animation) {
-                //Do nothing
-            }
-        });
-        set.play(flipView).with(showFrontView).before(rotateOut);
-        set.start();
-    }
-
-    private void rotateInToBackBeforeEleven(){
-        com.nineoldandroids.animation.AnimatorSet set = new com.nineoldandroids.animation.AnimatorSet();
-        final com.nineoldandroids.animation.ObjectAnimator rotateIn = com.nineoldandroids.animation.ObjectAnimator.ofFloat(this, "rotationY", 0, 90);
-        final com.nineoldandroids.animation.ObjectAnimator hideFrontView = com.nineoldandroids.animation.ObjectAnimator.ofFloat(this, "alpha", 1, 0);
-        rotateIn.setInterpolator(new AccelerateDecelerateInterpolator());
-        rotateIn.setDuration(300);
-        hideFrontView.setDuration(1);
-        set.addListener(new com.nineoldandroids.animation.Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(com.nineoldandroids.animation.Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationEnd(com.nineoldandroids.animation.Animator animation) {
-                rotateOutToBackBeforeEleven();
-            }
-
-            @Override
-            public void onAnimationCancel(com.nineoldandroids.animation.Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationRepeat(com.nineoldandroids.animation.Animator animation) {
-
-            }
-        });
-        set.play(hideFrontView).after(rotateIn);
-        set.start();
-    }
-
-    private void rotateInToFrontBeforeEleven(){
-        com.nineoldandroids.animation.AnimatorSet set = new com.nineoldandroids.animation.AnimatorSet();
-        final com.nineoldandroids.animation.ObjectAnimator rotateIn = com.nineoldandroids.animation.ObjectAnimator.ofFloat(this, "rotationY", 0, 90);
-        final com.nineoldandroids.animation.ObjectAnimator hideBackView = com.nineoldandroids.animation.ObjectAnimator.ofFloat(this, "alpha", 1, 0);
-        rotateIn.setInterpolator( new AccelerateDecelerateInterpolator());
-        rotateIn.setDuration(300);
-        hideBackView.setDuration(1);
-        set.addListener(new com.nineoldandroids.animation.Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(com.nineoldandroids.animation.Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationEnd(com.nineoldandroids.animation.Animator animation) {
-                rotateOutToFrontBeforeEleven();
-            }
-
-            @Override
-            public void onAnimationCancel(com.nineoldandroids.animation.Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationRepeat(com.nineoldandroids.animation.Animator animation) {
-
-            }
-        });
-        set.play(hideBackView).after(rotateIn);
-        set.start();
+    private String addSpaceToCardNumber(CharSequence cardNumber) {
+        return CardNumberFormatter.addSpaces(cardNumber);
     }
 
-    private void rotateOutToBackBeforeEleven(){
-        hideFrontView();
-        showBackView();
-        setBackgroundResource(mCardBackBackground);
-        com.nineoldandroids.animation.AnimatorSet set = new com.nineoldandroids.animation.AnimatorSet();
-        com.nineoldandroids.animation.ObjectAnimator flip = com.nineoldandroids.animation.ObjectAnimator.ofFloat(CreditCardView.this, "rotationY", 90, -90);
-        com.nineoldandroids.animation.ObjectAnimator rotateOut = com.nineoldandroids.animation.ObjectAnimator.ofFloat(CreditCardView.this, "rotationY", -90, 0);
-        com.nineoldandroids.animation.ObjectAnimator showBackView = com.nineoldandroids.animation.ObjectAnimator.ofFloat(CreditCardView.this, "alpha", 0, 1);
-        flip.setDuration(0);
-        showBackView.setDuration(1);
-        rotateOut.setDuration(300);
-        showBackView.setStartDelay(150);
-        rotateOut.setInterpolator(new AccelerateDecelerateInterpolator());
-        set.addListener(new com.nineoldandroids.animation.Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(com.nineoldandroids.animation.Animator animation) {
-
-            }
+    /**
+     * Forwards memory trim events to the card. Holds the card weakly as it is registered on the
+     * application context.
+     */
+    @TargetApi(14)
+    private static class TrimMemoryCallbacks implements ComponentCallbacks2 {
 
-            @Override
-            public void onAnimationEnd(com.nineoldandroids.animation.Animator animation) {
-                cardSide = CARD_BACK;
-            }
+        private final WeakReference<CreditCardView> mCardView;
 
-            @Override
-            public void onAnimationCancel(com.nineoldandroids.animation.Animator animation) {
+        TrimMemoryCallbacks(CreditCardView cardView) {
+            mCardView = new WeakReference<CreditCardView>(cardView);
+        }
 
+        @Override
+        public void onTrimMemory(int level) {
+            final CreditCardView cardView = mCardView.get();
+            if (cardView != null) {
+                cardView.onTrimMemory(level);
             }
+        }
 
-            @Override
-            public void onAnimationRepeat(com.nineoldandroids.animation.Animator animation) {
+        @Override
+        public void onConfigurationChanged(Configuration newConfig) {
+        }
 
-            }
-        });
-        set.play(flip).with(showBackView).before(rotateOut);
-        set.start();
+        @Override
+        public void onLowMemory() {
+            onTrimMemory(TRIM_MEMORY_COMPLETE);
+        }
     }
 
-    private void rotateOutToFrontBeforeEleven(){
-        showFrontView();
-        hideBackView();
-        setBackgroundResource(R.drawable.cardbackground_sky);
-        com.nineoldandroids.animation.AnimatorSet set = new com.nineoldandroids.animation.AnimatorSet();
-        com.nineoldandroids.animation.ObjectAnimator flip = com.nineoldandroids.animation.ObjectAnimator.ofFloat(CreditCardView.this, "rotationY", 90, -90);
-        com.nineoldandroids.animation.ObjectAnimator rotateOut = com.nineoldandroids.animation.ObjectAnimator.ofFloat(CreditCardView.this, "rotationY", -90, 0);
-        com.nineoldandroids.animation.ObjectAnimator showFrontView = com.nineoldandroids.animation.ObjectAnimator.ofFloat(CreditCardView.this, "alpha", 0, 1);
-        showFrontView.setDuration(1);
-        rotateOut.setDuration(300);
-        rotateOut.setInterpolator(new AccelerateDecelerateInterpolator());
-        showFrontView.setStartDelay(150);
-        set.addListener(new com.nineoldandroids.animation.Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(com.nineoldandroids.animation.Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationEnd(com.nineoldandroids.animation.Animator animation) {
-                cardSide = CARD_FRONT;
-            }
-
-            @Override
-            public void onAnimationCancel(com.nineoldandroids.animation.Animator animation) {
+    @TargetApi(21)
+    private static class CardOutlineProvider extends ViewOutlineProvider {
 
-            }
+        private final float mCornerRadius;
 
-            @Override
-            public void onAnimationRepeat(com.nineoldandroids.animation.Animator animation) {
+        CardOutlineProvider(float cornerRadius) {
+            mCornerRadius = cornerRadius;
+        }
 
-            }
-        });
-        set.play(flip).with(showFrontView).with(rotateOut);
-        set.start();
+        @Override
+        public void getOutline(View view, Outline outline) {
+            outline.setRoundRect(0, 0, view.getWidth(), view.getHeight(), mCornerRadius);
+        }
     }
 }
-
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.ViewConfiguration;
+import android.view.ViewParent;
+import android.view.animation.DecelerateInterpolator;
+
+/**
+ * Rotates a {@link CreditCardView} around its vertical axis while the user drags it horizontally.
+ * Released cards either complete the flip, when dragged past the edge or flung, or snap back.
+ * The velocity tracker and the settle animator are created once, so tracking the finger does not
+ * allocate.
+ */
+@TargetApi(14)
+class DragFlipController {
+
+    private static final float HALF_TURN = 180f;
+    private static final float QUARTER_TURN = 90f;
+    private static final int MAX_SETTLE_DURATION = 300;
+
+    private final CreditCardView mCard;
+    private final int mTouchSlop;
+    private final int mMinFlingVelocity;
+    private final int mMaxFlingVelocity;
+    private final ValueAnimator mSettleAnimator;
+
+    private VelocityTracker mVelocityTracker;
+    private int mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+    private float mDownX;
+    private float mDownY;
+    private boolean mIsDragging;
+    // Rotation of the card since the drag started, between -180 and 180 degrees
+    private float mAngle;
+    // Whether the other side of the card is showing, i.e. the 90 degree line has been crossed
+    private boolean mIsSwapped;
+    private float mSettleFrom;
+    private float mSettleTo;
+
+    DragFlipController(CreditCardView card) {
+        mCard = card;
+        final ViewConfiguration configuration = ViewConfiguration.get(card.getContext());
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mMinFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        mMaxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+
+        mSettleAnimator = ValueAnimator.ofFloat(0f, 1f);
+        mSettleAnimator.setInterpolator(new DecelerateInterpolator());
+        mSettleAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                final float fraction = animation.getAnimatedFraction();
+                setAngle(mSettleFrom + (mSettleTo - mSettleFrom) * fraction);
+            }
+        });
+        mSettleAnimator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                finishSettle();
+            }
+        });
+    }
+
+    boolean isSettling() {
+        return mSettleAnimator.isRunning();
+    }
+
+    boolean onInterceptTouchEvent(MotionEvent ev) {
+        // Children such as the flip button keep their clicks until the drag passes the slop
+        handleTouch(ev);
+        return mIsDragging;
+    }
+
+    boolean onTouchEvent(MotionEvent event) {
+        handleTouch(event);
+        return true;
+    }
+
+    /**
+     * Stops any drag or settle and leaves the card at rest on the side that is visible
+     */
+    void cancel() {
+        if (mSettleAnimator.isRunning()) {
+            mSettleAnimator.cancel();
+        } else if (mIsDragging) {
+            finishSettle();
+        }
+        mIsDragging = false;
+        mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
+    private void handleTouch(MotionEvent event) {
+        if (mVelocityTracker == null) {
+            mVelocityTracker = VelocityTracker.obtain();
+        }
+
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                mVelocityTracker.clear();
+                mVelocityTracker.addMovement(event);
+                mActivePointerId = event.getPointerId(0);
+                mDownX = event.getX();
+                mDownY = event.getY();
+                mIsDragging = false;
+                break;
+
+            case MotionEvent.ACTION_MOVE: {
+                mVelocityTracker.addMovement(event);
+                final int index = event.findPointerIndex(mActivePointerId);
+                if (index < 0) {
+                    break;
+                }
+                final float dx = event.getX(index) - mDownX;
+                if (!mIsDragging) {
+                    final float dy = event.getY(index) - mDownY;
+                    if (Math.abs(dx) > mTouchSlop && Math.abs(dx) > Math.abs(dy)) {
+                        startDrag();
+                        // Start rotating from where the slop was passed so the card does not jump
+                        mDownX += dx > 0 ? mTouchSlop : -mTouchSlop;
+                    }
+                }
+                if (mIsDragging) {
+                    final float width = Math.max(mCard.getWidth(), 1);
+                    final float angle = (event.getX(index) - mDownX) / width * HALF_TURN;
+                    setAngle(Math.max(-HALF_TURN, Math.min(HALF_TURN, angle)));
+                }
+                break;
+            }
+
+            case MotionEvent.ACTION_POINTER_UP:
+                if (event.getPointerId(event.getActionIndex()) == mActivePointerId) {
+                    // Keep tracking with the remaining pointer, relative to the current angle
+                    final int newIndex = event.getActionIndex() == 0 ? 1 : 0;
+                    mActivePointerId = event.getPointerId(newIndex);
+                    mDownX = event.getX(newIndex) - mAngle / HALF_TURN * mCard.getWidth();
+                    mDownY = event.getY(newIndex);
+                }
+                break;
+
+            case MotionEvent.ACTION_UP:
+                mVelocityTracker.addMovement(event);
+                if (mIsDragging) {
+                    mVelocityTracker.computeCurrentVelocity(1000, mMaxFlingVelocity);
+                    release(mVelocityTracker.getXVelocity(mActivePointerId));
+                }
+                mIsDragging = false;
+                mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+                break;
+
+            case MotionEvent.ACTION_CANCEL:
+                if (mIsDragging) {
+                    release(0);
+                }
+                mIsDragging = false;
+                mActivePointerId = MotionEvent.INVALID_POINTER_ID;
+                break;
+        }
+    }
+
+    private void startDrag() {
+        mIsDragging = true;
+        mIsSwapped = false;
+        mAngle = 0;
+        final ViewParent parent = mCard.getParent();
+        if (parent != null) {
+            parent.requestDisallowInterceptTouchEvent(true);
+        }
+    }
+
+    /**
+     * Completes the flip in the direction of a fling or past the edge, snaps back otherwise
+     */
+    private void release(float velocityX) {
+        mSettleFrom = mAngle;
+        if (Math.abs(velocityX) >= mMinFlingVelocity && Math.signum(velocityX) != 0) {
+            final float direction = Math.signum(velocityX);
+            // A fling against a drag that already crossed the edge takes the card back
+            if (mIsSwapped && direction != Math.signum(mAngle)) {
+                mSettleTo = 0;
+            } else {
+                mSettleTo = direction * HALF_TURN;
+            }
+        } else {
+            mSettleTo = mIsSwapped ? Math.signum(mAngle) * HALF_TURN : 0;
+        }
+        final float remaining = Math.abs(mSettleTo - mSettleFrom) / HALF_TURN;
+        mSettleAnimator.setDuration((long) (MAX_SETTLE_DURATION * remaining));
+        mSettleAnimator.start();
+    }
+
+    private void finishSettle() {
+        // Whatever side is showing is now the resting side
+        mIsSwapped = false;
+        mAngle = 0;
+        mCard.setRotationY(0);
+    }
+
+    /**
+     * Rotates the card, swapping its faces when the rotation crosses 90 degrees
+     */
+    private void setAngle(float angle) {
+        mAngle = angle;
+        final boolean swapped = Math.abs(angle) > QUARTER_TURN;
+        if (swapped != mIsSwapped) {
+            mIsSwapped = swapped;
+            if (mCard.isShowingBack()) {
+                mCard.switchToFront();
+            } else {
+                mCard.switchToBack();
+            }
+        }
+        // Past the edge the other face is shown rotated back, so it is not mirrored
+        mCard.setRotationY(swapped ? angle - Math.signum(angle) * HALF_TURN : angle);
+    }
+}
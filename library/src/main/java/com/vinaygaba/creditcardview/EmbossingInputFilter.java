@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import android.text.InputFilter;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.TextUtils;
+
+/**
+ * Replaces entered text with its embossable form, see {@link EmbossingNormalizer}. Text that is
+ * already embossable is accepted as it is and a single typed character is replaced by a shared
+ * String, so typing does not allocate.
+ */
+class EmbossingInputFilter implements InputFilter {
+
+    private static final EmbossingInputFilter sInstance = new EmbossingInputFilter();
+
+    static EmbossingInputFilter getInstance() {
+        return sInstance;
+    }
+
+    private EmbossingInputFilter() {
+    }
+
+    @Override
+    public CharSequence filter(CharSequence source, int start, int end, Spanned dest, int dstart,
+                               int dend) {
+        if (source instanceof Spanned) {
+            return filterSpanned((Spanned) source, start, end);
+        }
+        // Null keeps the source as it is
+        if (EmbossingNormalizer.isEmbossable(source, start, end)) {
+            return null;
+        }
+        if (end - start == 1) {
+            return EmbossingNormalizer.getReplacement(source.charAt(start));
+        }
+        return EmbossingNormalizer.normalize(source, start, end);
+    }
+
+    /**
+     * Filters text with spans, such as the composing text of the keyboard. The check reads the
+     * characters through {@link Spanned#charAt(int)}, so embossable text is accepted without
+     * copying it or its spans.
+     */
+    private static CharSequence filterSpanned(Spanned source, int start, int end) {
+        if (EmbossingNormalizer.isEmbossable(source, start, end)) {
+            return null;
+        }
+
+        final String normalized = EmbossingNormalizer.normalize(source, start, end);
+        // Keep the spans when the length allows it
+        if (normalized.length() == end - start) {
+            final SpannableString spannable = new SpannableString(normalized);
+            TextUtils.copySpansFrom(source, start, end, null, spannable, 0);
+            return spannable;
+        }
+        return normalized;
+    }
+}
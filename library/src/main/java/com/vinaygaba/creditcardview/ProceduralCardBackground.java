@@ -0,0 +1,350 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.ComposeShader;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.PorterDuff;
+import android.graphics.RadialGradient;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.IntDef;
+import android.support.v4.util.LruCache;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Random;
+
+/**
+ * Card background drawn from gradients and a small generated noise tile instead of a decoded
+ * bitmap, so it is sharp at any size and costs no image memory. The shaders for a preset are
+ * built once per size and shared by all cards of that size.
+ * <p>
+ * Only one layer covers the whole card, the others are clipped to the area where they are
+ * visible. Layers are not merged further because hardware acceleration before Android P
+ * supports neither nested {@link ComposeShader}s nor two shaders of the same type in one.
+ */
+public class ProceduralCardBackground extends Drawable {
+
+    public static final int PRESET_NONE = -1;
+    public static final int PRESET_SKY = 0;
+    public static final int PRESET_WORLD = 1;
+
+    @IntDef({PRESET_NONE, PRESET_SKY, PRESET_WORLD})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Preset {
+    }
+
+    private static final int SHADER_CACHE_SIZE = 8;
+    private static final int TILE_SIZE = 128;
+    private static final long TILE_SEED = 0x5eed;
+
+    private static final LruCache<String, Layers> sShaderCache =
+            new LruCache<String, Layers>(SHADER_CACHE_SIZE);
+    private static Bitmap sStarTile;
+    private static Bitmap sGrainTile;
+
+    private final State mState;
+    // Layer and border bounds, relative to the top left corner of the bounds
+    private final RectF mRect = new RectF();
+    private final RectF mBorderRect = new RectF();
+    private final Paint[] mPaints;
+    // Area of each layer where it is visible, relative like mRect. Shared, must not be changed.
+    private RectF[] mLayerBounds;
+    private final Paint mBorderPaint;
+    private int mAlpha = 0xff;
+
+    /**
+     * @throws IllegalArgumentException for {@link #PRESET_NONE}.
+     */
+    public ProceduralCardBackground(Resources resources, @Preset int preset) {
+        this(new State(preset, resources.getDimension(R.dimen.card_corner_radius),
+                resources.getDimension(R.dimen.card_border_width)));
+    }
+
+    private ProceduralCardBackground(State state) {
+        if (state.mPreset != PRESET_SKY && state.mPreset != PRESET_WORLD) {
+            throw new IllegalArgumentException("Not a background preset: " + state.mPreset);
+        }
+        mState = state;
+        mPaints = new Paint[state.mPreset == PRESET_SKY ? 4 : 2];
+        for (int i = 0; i < mPaints.length; i++) {
+            mPaints[i] = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
+        }
+        if (state.mPreset == PRESET_WORLD) {
+            mBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            mBorderPaint.setStyle(Paint.Style.STROKE);
+            mBorderPaint.setStrokeWidth(state.mBorderWidth);
+            mBorderPaint.setColor(0x8040c4ff);
+        } else {
+            mBorderPaint = null;
+        }
+    }
+
+    @Preset
+    public int getPreset() {
+        return mState.mPreset;
+    }
+
+    @Override
+    protected void onBoundsChange(Rect bounds) {
+        super.onBoundsChange(bounds);
+        mRect.set(0, 0, bounds.width(), bounds.height());
+        mBorderRect.set(mRect);
+        mBorderRect.inset(mState.mBorderWidth / 2, mState.mBorderWidth / 2);
+        if (bounds.isEmpty()) {
+            return;
+        }
+        final Layers layers = getLayers(mState.mPreset, bounds.width(), bounds.height());
+        for (int i = 0; i < mPaints.length; i++) {
+            mPaints[i].setShader(layers.mShaders[i]);
+        }
+        mLayerBounds = layers.mBounds;
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        if (mRect.isEmpty()) {
+            return;
+        }
+        final float radius = mState.mCornerRadius;
+        final Rect bounds = getBounds();
+        // The shaders are shared between cards, so they are in bounds relative coordinates
+        final int saveCount = canvas.save();
+        canvas.translate(bounds.left, bounds.top);
+        // The first layer covers the card, clipping the others keeps them from filling it again
+        canvas.drawRoundRect(mRect, radius, radius, mPaints[0]);
+        for (int i = 1; i < mPaints.length; i++) {
+            canvas.save();
+            canvas.clipRect(mLayerBounds[i]);
+            canvas.drawRoundRect(mRect, radius, radius, mPaints[i]);
+            canvas.restore();
+        }
+        if (mBorderPaint != null) {
+            canvas.drawRoundRect(mBorderRect, radius, radius, mBorderPaint);
+        }
+        canvas.restoreToCount(saveCount);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        mAlpha = alpha;
+        for (Paint paint : mPaints) {
+            paint.setAlpha(alpha);
+        }
+        if (mBorderPaint != null) {
+            mBorderPaint.setAlpha(alpha / 2);
+        }
+        invalidateSelf();
+    }
+
+    @Override
+    public int getAlpha() {
+        return mAlpha;
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        for (Paint paint : mPaints) {
+            paint.setColorFilter(colorFilter);
+        }
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        // The corners are transparent
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    @Override
+    public ConstantState getConstantState() {
+        return mState;
+    }
+
+    /**
+     * Returns the layers of a preset at a size, creating them if needed
+     */
+    private static Layers getLayers(int preset, int width, int height) {
+        final String key = preset + ":" + width + "x" + height;
+        Layers layers = sShaderCache.get(key);
+        if (layers == null) {
+            layers = preset == PRESET_SKY ? createSkyLayers(width, height)
+                    : createWorldLayers(width, height);
+            sShaderCache.put(key, layers);
+        }
+        return layers;
+    }
+
+    /**
+     * Deep space: a dark blue gradient with teal and purple nebulae and a bright star near the
+     * top, and stars fading out towards the bottom
+     */
+    private static Layers createSkyLayers(int width, int height) {
+        final Shader base = new LinearGradient(0, 0, 0, height,
+                new int[]{0xff123a5e, 0xff0a1a3a, 0xff0c2a52},
+                new float[]{0f, 0.45f, 1f}, Shader.TileMode.CLAMP);
+        // Large enough to cover most of the card, so it is drawn with the base
+        final Shader tealNebula = new RadialGradient(width * 0.45f, height * 0.1f, width * 0.55f,
+                new int[]{0x8040b0d0, 0x30306090, 0x00000000},
+                new float[]{0f, 0.5f, 1f}, Shader.TileMode.CLAMP);
+        final Shader purpleNebula = new RadialGradient(width * 0.25f, height * 0.2f,
+                width * 0.3f, 0x60804090, 0x00000000, Shader.TileMode.CLAMP);
+        final Shader glow = new RadialGradient(width * 0.85f, height * 0.13f, width * 0.12f,
+                0xc0ffffff, 0x00ffffff, Shader.TileMode.CLAMP);
+        final Shader stars = new ComposeShader(
+                new BitmapShader(getStarTile(), Shader.TileMode.REPEAT, Shader.TileMode.REPEAT),
+                new LinearGradient(0, 0, 0, height * 0.7f, 0xff000000, 0x00000000,
+                        Shader.TileMode.CLAMP),
+                PorterDuff.Mode.DST_IN);
+
+        final Layers layers = new Layers(4);
+        layers.set(0, new ComposeShader(base, tealNebula, PorterDuff.Mode.SRC_OVER),
+                new RectF(0, 0, width, height));
+        layers.set(1, purpleNebula, getCircleBounds(width * 0.25f, height * 0.2f, width * 0.3f,
+                width, height));
+        layers.set(2, glow, getCircleBounds(width * 0.85f, height * 0.13f, width * 0.12f,
+                width, height));
+        layers.set(3, stars, new RectF(0, 0, width, height * 0.7f));
+        return layers;
+    }
+
+    /**
+     * Dark navy in the bottom left turning into bright blue on the right, with a soft highlight
+     * along the top and a fine grain
+     */
+    private static Layers createWorldLayers(int width, int height) {
+        final Shader base = new LinearGradient(0, height, width, height * 0.3f,
+                new int[]{0xff121b4f, 0xff0a5a9a, 0xff1ab4ff},
+                new float[]{0f, 0.55f, 1f}, Shader.TileMode.CLAMP);
+        final Shader grain = new BitmapShader(getGrainTile(), Shader.TileMode.REPEAT,
+                Shader.TileMode.REPEAT);
+        final Shader highlight = new LinearGradient(0, 0, 0, height * 0.4f, 0x30ffffff,
+                0x00ffffff, Shader.TileMode.CLAMP);
+
+        final Layers layers = new Layers(2);
+        layers.set(0, new ComposeShader(base, grain, PorterDuff.Mode.SRC_OVER),
+                new RectF(0, 0, width, height));
+        layers.set(1, highlight, new RectF(0, 0, width, height * 0.4f));
+        return layers;
+    }
+
+    /**
+     * Returns the bounds of a circle cut to the card
+     */
+    private static RectF getCircleBounds(float x, float y, float radius, int width, int height) {
+        return new RectF(Math.max(0, x - radius), Math.max(0, y - radius),
+                Math.min(width, x + radius), Math.min(height, y + radius));
+    }
+
+    /**
+     * Generates the tiles shared by the presets, so the first card does not have to
+     */
+    static void preloadTiles() {
+        getStarTile();
+        getGrainTile();
+    }
+
+    /**
+     * Drops the shared tiles and shaders, they are created again on next use
+     */
+    static synchronized void clearCaches() {
+        sShaderCache.evictAll();
+        sStarTile = null;
+        sGrainTile = null;
+    }
+
+    private static synchronized Bitmap getStarTile() {
+        if (sStarTile == null) {
+            final int[] pixels = new int[TILE_SIZE * TILE_SIZE];
+            final Random random = new Random(TILE_SEED);
+            for (int i = 0; i < 60; i++) {
+                final int alpha = 0x40 + random.nextInt(0xc0);
+                pixels[random.nextInt(pixels.length)] = (alpha << 24) | 0xffffff;
+            }
+            sStarTile = Bitmap.createBitmap(pixels, TILE_SIZE, TILE_SIZE,
+                    Bitmap.Config.ARGB_8888);
+        }
+        return sStarTile;
+    }
+
+    private static synchronized Bitmap getGrainTile() {
+        if (sGrainTile == null) {
+            final int[] pixels = new int[TILE_SIZE * TILE_SIZE];
+            final Random random = new Random(TILE_SEED);
+            for (int i = 0; i < pixels.length; i++) {
+                // Light or dark speck at a few percent opacity to break up gradient banding
+                pixels[i] = (random.nextInt(0x0c) << 24)
+                        | (random.nextBoolean() ? 0xffffff : 0x000000);
+            }
+            sGrainTile = Bitmap.createBitmap(pixels, TILE_SIZE, TILE_SIZE,
+                    Bitmap.Config.ARGB_8888);
+        }
+        return sGrainTile;
+    }
+
+    /**
+     * Shaders of the layers of a preset at one size, and the area each one is visible in
+     */
+    private static class Layers {
+
+        final Shader[] mShaders;
+        final RectF[] mBounds;
+
+        Layers(int count) {
+            mShaders = new Shader[count];
+            mBounds = new RectF[count];
+        }
+
+        void set(int index, Shader shader, RectF bounds) {
+            mShaders[index] = shader;
+            mBounds[index] = bounds;
+        }
+    }
+
+    private static class State extends ConstantState {
+
+        final int mPreset;
+        final float mCornerRadius;
+        final float mBorderWidth;
+
+        State(int preset, float cornerRadius, float borderWidth) {
+            mPreset = preset;
+            mCornerRadius = cornerRadius;
+            mBorderWidth = borderWidth;
+        }
+
+        @Override
+        public Drawable newDrawable() {
+            return new ProceduralCardBackground(this);
+        }
+
+        @Override
+        public int getChangingConfigurations() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.vinaygaba.creditcardview.image.LogoAtlas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the font, the logo atlas and the drawables every card uses ahead of the first card. The
+ * drawables are decoded into the {@link Resources} cache, which only keeps them weakly, so their
+ * constant states are held here for the life of the process and cards created later get them
+ * without decoding.
+ */
+final class ResourcePreloader {
+
+    private static final String TAG = "ResourcePreloader";
+
+    // The back of the card, the logos are packed into the logo atlas
+    private static final int[] DRAWABLES = {
+            R.drawable.cardbackground_canvas,
+            R.drawable.cardbackground_stripe,
+            R.drawable.card_background_signature
+    };
+
+    private static final CountDownLatch sReady = new CountDownLatch(1);
+    private static final List<Drawable.ConstantState> sConstantStates =
+            new ArrayList<Drawable.ConstantState>(DRAWABLES.length);
+    private static final List<CreditCardView.OnPreloadedListener> sListeners =
+            new ArrayList<CreditCardView.OnPreloadedListener>();
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+    private static boolean sIsStarted;
+
+    private static final Runnable sDispatchPreloaded = new Runnable() {
+        @Override
+        public void run() {
+            dispatchPreloaded();
+        }
+    };
+
+    static synchronized void preload(Context context, Executor executor) {
+        if (sIsStarted) {
+            return;
+        }
+        sIsStarted = true;
+        final Context appContext = context.getApplicationContext();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    load(appContext);
+                } catch (RuntimeException e) {
+                    // Cards load whatever is missing themselves, so this only costs the head start
+                    Log.w(TAG, "Failed to preload card resources", e);
+                } finally {
+                    sReady.countDown();
+                    sMainHandler.post(sDispatchPreloaded);
+                }
+            }
+        });
+    }
+
+    static boolean isReady() {
+        return sReady.getCount() == 0;
+    }
+
+    static boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return sReady.await(timeout, unit);
+    }
+
+    /**
+     * Must be called on the main thread. A listener added after the resources are ready is
+     * called right after the current message.
+     */
+    static void addListener(CreditCardView.OnPreloadedListener listener) {
+        sListeners.add(listener);
+        if (isReady()) {
+            sMainHandler.post(sDispatchPreloaded);
+        }
+    }
+
+    static void removeListener(CreditCardView.OnPreloadedListener listener) {
+        sListeners.remove(listener);
+    }
+
+    /**
+     * Drops the preloaded backgrounds, cards decode them again when needed
+     */
+    static void clear() {
+        synchronized (sConstantStates) {
+            sConstantStates.clear();
+        }
+    }
+
+    private static void load(Context context) {
+        CreditCardView.getCreditCardTypeface(context);
+        ProceduralCardBackground.preloadTiles();
+
+        final Resources resources = context.getResources();
+        LogoAtlas.get(resources);
+        for (int i = 0; i < DRAWABLES.length; i++) {
+            final Drawable.ConstantState state = resources.getDrawable(DRAWABLES[i])
+                    .getConstantState();
+            if (state != null) {
+                synchronized (sConstantStates) {
+                    sConstantStates.add(state);
+                }
+            }
+        }
+    }
+
+    private static void dispatchPreloaded() {
+        if (sListeners.isEmpty()) {
+            return;
+        }
+        // Each listener is called once, and may remove itself or add others while being called
+        final CreditCardView.OnPreloadedListener[] listeners =
+                sListeners.toArray(new CreditCardView.OnPreloadedListener[sListeners.size()]);
+        sListeners.clear();
+        for (CreditCardView.OnPreloadedListener listener : listeners) {
+            listener.onPreloaded();
+        }
+    }
+
+    private ResourcePreloader() {
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview;
+
+import com.vinaygaba.creditcardview.store.CardSnapshot;
+import com.vinaygaba.creditcardview.store.WalletStore;
+
+/**
+ * Shows the cards of a {@link WalletStore} in a {@link CardWalletView}. Only the records of the
+ * cards that are bound are decoded, into a single reused snapshot. Call
+ * {@link #notifyDataSetChanged()} after changing the store.
+ */
+public class WalletStoreAdapter extends CardWalletView.Adapter {
+
+    private final WalletStore mStore;
+    private final CardSnapshot mSnapshot = new CardSnapshot();
+    // Record index of each position, deleted records are skipped
+    private int[] mRecords = new int[0];
+    private int mCount;
+
+    public WalletStoreAdapter(WalletStore store) {
+        mStore = store;
+        indexRecords();
+    }
+
+    public WalletStore getStore() {
+        return mStore;
+    }
+
+    @Override
+    public int getCount() {
+        return mCount;
+    }
+
+    @Override
+    public void bindCard(CreditCardView card, int position) {
+        mStore.read(mRecords[position], mSnapshot);
+        card.applySnapshot(mSnapshot);
+    }
+
+    /**
+     * Returns the id of the record, which does not change when the store is compacted
+     */
+    @Override
+    public long getItemId(int position) {
+        return mStore.getRecordId(mRecords[position]);
+    }
+
+    @Override
+    public void notifyDataSetChanged() {
+        indexRecords();
+        super.notifyDataSetChanged();
+    }
+
+    private void indexRecords() {
+        final int records = mStore.getCount();
+        if (mRecords.length < records) {
+            mRecords = new int[records];
+        }
+        mCount = 0;
+        for (int i = 0; i < records; i++) {
+            if (!mStore.isDeleted(i)) {
+                mRecords[mCount++] = i;
+            }
+        }
+    }
+}
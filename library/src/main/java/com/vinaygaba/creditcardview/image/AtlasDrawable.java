@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.image;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+/**
+ * Draws one region of a shared atlas bitmap. Any number of drawables can show regions of the
+ * same atlas, which is decoded and uploaded to the GPU only once.
+ */
+public class AtlasDrawable extends Drawable {
+
+    private final State mState;
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG | Paint.DITHER_FLAG);
+
+    AtlasDrawable(Bitmap atlas, Rect region) {
+        this(new State(atlas, region));
+    }
+
+    private AtlasDrawable(State state) {
+        mState = state;
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        canvas.drawBitmap(mState.mAtlas, mState.mRegion, getBounds(), mPaint);
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return mState.mRegion.width();
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return mState.mRegion.height();
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (mPaint.getAlpha() != alpha) {
+            mPaint.setAlpha(alpha);
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        mPaint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    @Override
+    public ConstantState getConstantState() {
+        return mState;
+    }
+
+    private static class State extends ConstantState {
+        final Bitmap mAtlas;
+        final Rect mRegion;
+
+        State(Bitmap atlas, Rect region) {
+            mAtlas = atlas;
+            mRegion = region;
+        }
+
+        @Override
+        public Drawable newDrawable() {
+            return new AtlasDrawable(this);
+        }
+
+        @Override
+        public int getChangingConfigurations() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.image;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v4.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Picks text colors that are readable on a card background. The background is drawn into a
+ * small bitmap on a background thread and the average luminance under each text region decides
+ * between dark and light text. Results are cached by background, so each background is only
+ * sampled once.
+ */
+public class ContrastAnalyzer {
+
+    /**
+     * Receives the text colors on the main thread, one per region in the order they were given
+     */
+    public interface Callback {
+        void onContrastAnalyzed(String key, int[] textColors);
+    }
+
+    public static final int LIGHT_TEXT = Color.WHITE;
+    public static final int DARK_TEXT = 0xDE000000;
+
+    // Width of the sampled bitmap, enough to average text sized regions
+    private static final int SAMPLE_WIDTH = 96;
+    private static final int CACHE_SIZE = 64;
+    // Luminance above which black text has more contrast than white text
+    private static final float DARK_TEXT_LUMINANCE = 0.179f;
+    private static final float[] LINEAR_CHANNEL = new float[256];
+
+    static {
+        for (int i = 0; i < LINEAR_CHANNEL.length; i++) {
+            final double c = i / 255d;
+            LINEAR_CHANNEL[i] = (float) (c <= 0.03928 ? c / 12.92 : Math.pow((c + 0.055) / 1.055,
+                    2.4));
+        }
+    }
+
+    private static ContrastAnalyzer sInstance;
+
+    private final LruCache<String, int[]> mCache = new LruCache<String, int[]>(CACHE_SIZE);
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    // Backgrounds being sampled and the callbacks waiting for them. Only touched on the main
+    // thread.
+    private final Map<String, List<Callback>> mPendingRequests =
+            new HashMap<String, List<Callback>>();
+
+    public static synchronized ContrastAnalyzer getInstance() {
+        if (sInstance == null) {
+            sInstance = new ContrastAnalyzer();
+        }
+        return sInstance;
+    }
+
+    private ContrastAnalyzer() {
+    }
+
+    /**
+     * Returns the text colors for a background if it has already been analyzed, null otherwise
+     */
+    public int[] getCached(String key) {
+        return mCache.get(key);
+    }
+
+    /**
+     * Analyzes a background. Must be called on the main thread with a drawable that is not
+     * displayed anywhere, since it is drawn on another thread; the callback is invoked on the
+     * main thread, synchronously if the result is cached.
+     *
+     * @param key     identifies the background, e.g. its resource id or uri.
+     * @param regions text regions as fractions of the background size.
+     */
+    public void analyze(final String key, final Drawable background, final RectF[] regions,
+                        float aspectRatio, Callback callback) {
+        final int[] cached = mCache.get(key);
+        if (cached != null) {
+            callback.onContrastAnalyzed(key, cached);
+            return;
+        }
+
+        List<Callback> callbacks = mPendingRequests.get(key);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return;
+        }
+        callbacks = new ArrayList<Callback>(1);
+        callbacks.add(callback);
+        mPendingRequests.put(key, callbacks);
+
+        final int height = Math.max(1, Math.round(SAMPLE_WIDTH * aspectRatio));
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final int[] textColors = sample(background, regions, SAMPLE_WIDTH, height);
+                mMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        mCache.put(key, textColors);
+                        final List<Callback> callbacks = mPendingRequests.remove(key);
+                        if (callbacks == null) {
+                            return;
+                        }
+                        for (Callback callback : callbacks) {
+                            callback.onContrastAnalyzed(key, textColors);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Returns the hint color that goes with a text color
+     */
+    public static int getHintColor(int textColor) {
+        return (textColor & 0x00ffffff) | 0x80000000;
+    }
+
+    private static int[] sample(Drawable background, RectF[] regions, int width, int height) {
+        final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        background.setBounds(0, 0, width, height);
+        background.draw(new Canvas(bitmap));
+        final int[] pixels = new int[width * height];
+        bitmap.getPixels(pixels, 0, width, 0, 0, width, height);
+        bitmap.recycle();
+
+        final int[] textColors = new int[regions.length];
+        for (int i = 0; i < regions.length; i++) {
+            final float luminance = averageLuminance(pixels, width, height, regions[i]);
+            textColors[i] = luminance > DARK_TEXT_LUMINANCE ? DARK_TEXT : LIGHT_TEXT;
+        }
+        return textColors;
+    }
+
+    /**
+     * Returns the average relative luminance of the opaque pixels in a region, 0 if there are none
+     */
+    private static float averageLuminance(int[] pixels, int width, int height, RectF region) {
+        final int left = clamp((int) (region.left * width), width - 1);
+        final int top = clamp((int) (region.top * height), height - 1);
+        final int right = clamp((int) Math.ceil(region.right * width), width);
+        final int bottom = clamp((int) Math.ceil(region.bottom * height), height);
+        float sum = 0;
+        int count = 0;
+        for (int y = top; y < bottom; y++) {
+            for (int x = left; x < right; x++) {
+                final int pixel = pixels[y * width + x];
+                if (Color.alpha(pixel) < 0x80) {
+                    continue;
+                }
+                sum += 0.2126f * LINEAR_CHANNEL[Color.red(pixel)]
+                        + 0.7152f * LINEAR_CHANNEL[Color.green(pixel)]
+                        + 0.0722f * LINEAR_CHANNEL[Color.blue(pixel)];
+                count++;
+            }
+        }
+        return count == 0 ? 0 : sum / count;
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.image;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Stores downloaded images as files, evicting the least recently used ones once the total size
+ * goes over the limit. Entries are written to a temporary file of their own without holding the
+ * lock, so a slow download does not block other reads and writes, and a crash never leaves a
+ * partial image behind. Only renaming the file into place and the size bookkeeping are
+ * synchronized. Entries are handed out as open streams, which stay readable when the file is
+ * evicted before they are read.
+ */
+class DiskCache {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File mDirectory;
+    private final long mMaxSize;
+    private long mSize = -1;
+
+    DiskCache(File directory, long maxSize) {
+        mDirectory = directory;
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * Opens the cached file for a key, or returns null if there is none
+     */
+    synchronized FileInputStream get(String key) {
+        final File file = new File(mDirectory, fileName(key));
+        if (!file.isFile()) {
+            return null;
+        }
+        // Last modified time is the access time used for eviction
+        file.setLastModified(System.currentTimeMillis());
+        try {
+            return new FileInputStream(file);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Copies a stream into the cache and opens the cached file
+     */
+    FileInputStream put(String key, InputStream in) throws IOException {
+        synchronized (this) {
+            ensureInitialized();
+        }
+        final File file = new File(mDirectory, fileName(key));
+        // Unique, so concurrent puts of one key do not write into the same file
+        final File temp = File.createTempFile(file.getName(), TEMP_SUFFIX, mDirectory);
+        boolean copied = false;
+        try {
+            final OutputStream out = new FileOutputStream(temp);
+            try {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                out.close();
+            }
+            copied = true;
+        } finally {
+            if (!copied) {
+                temp.delete();
+            }
+        }
+        return commit(temp, file);
+    }
+
+    /**
+     * Moves a completely written temporary file into place and opens it
+     */
+    private synchronized FileInputStream commit(File temp, File file) throws IOException {
+        if (file.exists()) {
+            mSize -= file.length();
+            file.delete();
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not write " + file);
+        }
+        // The rename keeps the write time of the temporary file, which may make it the oldest
+        file.setLastModified(System.currentTimeMillis());
+        mSize += file.length();
+        final FileInputStream in = new FileInputStream(file);
+        trimToSize(file);
+        return in;
+    }
+
+    private void ensureInitialized() throws IOException {
+        if (mSize >= 0) {
+            return;
+        }
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            throw new IOException("Could not create " + mDirectory);
+        }
+        mSize = 0;
+        final File[] files = mDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(TEMP_SUFFIX)) {
+                    file.delete();
+                } else {
+                    mSize += file.length();
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts the least recently used files until the cache fits, except for {@code keep}. An
+     * entry larger than the cache stays until the next put.
+     */
+    private void trimToSize(File keep) {
+        if (mSize <= mMaxSize) {
+            return;
+        }
+        final File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                final long lhsModified = lhs.lastModified();
+                final long rhsModified = rhs.lastModified();
+                return lhsModified < rhsModified ? -1 : (lhsModified == rhsModified ? 0 : 1);
+            }
+        });
+        for (int i = 0; i < files.length && mSize > mMaxSize; i++) {
+            // Temporary files are still being written and are not part of the size
+            if (files[i].getName().endsWith(TEMP_SUFFIX) || files[i].equals(keep)) {
+                continue;
+            }
+            final long length = files[i].length();
+            if (files[i].delete()) {
+                mSize -= length;
+            }
+        }
+    }
+
+    static String fileName(String key) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes("UTF-8"));
+            final char[] name = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                name[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+                name[i * 2 + 1] = HEX[digest[i] & 0xf];
+            }
+            return new String(name);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.image;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v4.util.LruCache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads card art and brand logos from http(s), content and file uris. Images are decoded off the
+ * main thread at the size they are displayed at and cached twice: decoded bitmaps in a bounded
+ * in-memory LRU and downloaded files in a size bounded disk cache. Concurrent requests for the
+ * same image and size share one load, and requests for the same url at different sizes share
+ * one download.
+ */
+public class ImageLoader {
+
+    /**
+     * Receives the result of a load on the main thread
+     */
+    public interface Callback {
+        void onImageLoaded(Uri uri, Bitmap bitmap);
+
+        void onImageFailed(Uri uri, Exception e);
+    }
+
+    private static final String DISK_CACHE_DIRECTORY = "creditcardview-images";
+    private static final long DISK_CACHE_SIZE = 20 * 1024 * 1024;
+    private static final int MEMORY_CACHE_FRACTION = 8;
+    private static final int LOADER_THREADS = 2;
+    private static final int TIMEOUT_MILLIS = 15000;
+
+    private static ImageLoader sInstance;
+
+    private final ContentResolver mContentResolver;
+    private final LruCache<String, Bitmap> mMemoryCache;
+    private final DiskCache mDiskCache;
+    private final ExecutorService mExecutor;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    // Requests being loaded and the callbacks waiting for them. Only touched on the main thread.
+    private final Map<String, List<Callback>> mPendingRequests =
+            new HashMap<String, List<Callback>>();
+    // Lock of each url being downloaded, so a url is only fetched once at a time
+    private final Map<String, DownloadLock> mDownloadLocks = new HashMap<String, DownloadLock>();
+
+    private static class DownloadLock {
+        int mUsers;
+    }
+
+    public static synchronized ImageLoader getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new ImageLoader(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private ImageLoader(Context context) {
+        mContentResolver = context.getContentResolver();
+        final int maxSize = (int) (Runtime.getRuntime().maxMemory() / MEMORY_CACHE_FRACTION);
+        mMemoryCache = new LruCache<String, Bitmap>(maxSize) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getRowBytes() * bitmap.getHeight();
+            }
+        };
+        mDiskCache = new DiskCache(new File(context.getCacheDir(), DISK_CACHE_DIRECTORY),
+                DISK_CACHE_SIZE);
+        mExecutor = Executors.newFixedThreadPool(LOADER_THREADS);
+    }
+
+    /**
+     * Returns the bitmap for an image if it is already decoded at this size, null otherwise
+     */
+    public Bitmap getCached(Uri uri, int width, int height) {
+        return mMemoryCache.get(cacheKey(uri, width, height));
+    }
+
+    /**
+     * Loads an image, downsampled to be at least as large as the requested size. Must be called
+     * on the main thread; the callback is invoked on the main thread, synchronously if the image
+     * is in the memory cache.
+     */
+    public void load(final Uri uri, final int width, final int height, Callback callback) {
+        final String key = cacheKey(uri, width, height);
+        final Bitmap cached = mMemoryCache.get(key);
+        if (cached != null) {
+            callback.onImageLoaded(uri, cached);
+            return;
+        }
+
+        List<Callback> callbacks = mPendingRequests.get(key);
+        if (callbacks != null) {
+            // Already loading, wait for the same result
+            callbacks.add(callback);
+            return;
+        }
+        callbacks = new ArrayList<Callback>(1);
+        callbacks.add(callback);
+        mPendingRequests.put(key, callbacks);
+
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Bitmap bitmap = null;
+                Exception error = null;
+                try {
+                    bitmap = decode(uri, width, height);
+                    mMemoryCache.put(key, bitmap);
+                } catch (Exception e) {
+                    error = e;
+                }
+                deliver(uri, key, bitmap, error);
+            }
+        });
+    }
+
+    private void deliver(final Uri uri, final String key, final Bitmap bitmap,
+                         final Exception error) {
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                final List<Callback> callbacks = mPendingRequests.remove(key);
+                if (callbacks == null) {
+                    return;
+                }
+                for (Callback callback : callbacks) {
+                    if (bitmap != null) {
+                        callback.onImageLoaded(uri, bitmap);
+                    } else {
+                        callback.onImageFailed(uri, error);
+                    }
+                }
+            }
+        });
+    }
+
+    private Bitmap decode(Uri uri, int width, int height) throws IOException {
+        final String scheme = uri.getScheme();
+        if ("http".equals(scheme) || "https".equals(scheme)) {
+            return decodeCached(fetch(uri), width, height);
+        }
+        return decodeStream(uri, width, height);
+    }
+
+    /**
+     * Opens the cached file of a url, downloading it if needed. Requests for a url that is
+     * being downloaded wait for that download and then read it from the disk cache.
+     */
+    private FileInputStream fetch(Uri uri) throws IOException {
+        final String url = uri.toString();
+        DownloadLock lock;
+        synchronized (mDownloadLocks) {
+            lock = mDownloadLocks.get(url);
+            if (lock == null) {
+                lock = new DownloadLock();
+                mDownloadLocks.put(url, lock);
+            }
+            lock.mUsers++;
+        }
+        try {
+            synchronized (lock) {
+                final FileInputStream cached = mDiskCache.get(url);
+                return cached != null ? cached : download(uri);
+            }
+        } finally {
+            synchronized (mDownloadLocks) {
+                if (--lock.mUsers == 0) {
+                    mDownloadLocks.remove(url);
+                }
+            }
+        }
+    }
+
+    private FileInputStream download(Uri uri) throws IOException {
+        final HttpURLConnection connection =
+                (HttpURLConnection) new URL(uri.toString()).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        try {
+            final int responseCode = connection.getResponseCode();
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Unexpected response " + responseCode + " for " + uri);
+            }
+            final InputStream in = connection.getInputStream();
+            try {
+                return mDiskCache.put(uri.toString(), in);
+            } finally {
+                in.close();
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Decodes an open file of the disk cache and closes it. Reading from the stream instead of
+     * the path keeps working if the file is evicted meanwhile.
+     */
+    private static Bitmap decodeCached(FileInputStream in, int width, int height)
+            throws IOException {
+        try {
+            final BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeStream(in, null, options);
+            options.inSampleSize = calculateInSampleSize(options, width, height);
+            options.inJustDecodeBounds = false;
+            in.getChannel().position(0);
+            final Bitmap bitmap = BitmapFactory.decodeStream(in, null, options);
+            if (bitmap == null) {
+                throw new IOException("Could not decode the cached image");
+            }
+            return bitmap;
+        } finally {
+            in.close();
+        }
+    }
+
+    private Bitmap decodeStream(Uri uri, int width, int height) throws IOException {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        InputStream in = openStream(uri);
+        try {
+            BitmapFactory.decodeStream(in, null, options);
+        } finally {
+            in.close();
+        }
+        options.inSampleSize = calculateInSampleSize(options, width, height);
+        options.inJustDecodeBounds = false;
+        in = openStream(uri);
+        try {
+            final Bitmap bitmap = BitmapFactory.decodeStream(in, null, options);
+            if (bitmap == null) {
+                throw new IOException("Could not decode " + uri);
+            }
+            return bitmap;
+        } finally {
+            in.close();
+        }
+    }
+
+    private InputStream openStream(Uri uri) throws IOException {
+        final InputStream in = mContentResolver.openInputStream(uri);
+        if (in == null) {
+            throw new IOException("Could not open " + uri);
+        }
+        return in;
+    }
+
+    /**
+     * Returns the largest power of two sample size that keeps the image at least as large as
+     * the requested size
+     */
+    private static int calculateInSampleSize(BitmapFactory.Options options, int width,
+                                             int height) {
+        int inSampleSize = 1;
+        if (width <= 0 || height <= 0) {
+            return inSampleSize;
+        }
+        while (options.outWidth / (inSampleSize * 2) >= width
+                && options.outHeight / (inSampleSize * 2) >= height) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    private static String cacheKey(Uri uri, int width, int height) {
+        return uri.toString() + '#' + width + 'x' + height;
+    }
+}
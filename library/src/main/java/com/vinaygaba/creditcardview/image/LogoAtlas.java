@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.image;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.DrawableRes;
+import android.util.SparseArray;
+
+import com.vinaygaba.creditcardview.R;
+
+/**
+ * Packs the card type logos, the chip and the flip icon into a single bitmap per screen density.
+ * The images are decoded once, side by side, and every card draws its logos from regions of the
+ * same bitmap instead of decoding bitmaps of its own.
+ */
+public final class LogoAtlas {
+
+    private static final int[] IMAGES = {
+            R.drawable.visa,
+            R.drawable.mastercard,
+            R.drawable.amex,
+            R.drawable.discover,
+            R.drawable.card_chip,
+            R.drawable.ic_flip
+    };
+
+    // Transparent pixels between the images, so filtering at the edge of one region does not
+    // pick up the next image
+    private static final int GUTTER = 2;
+
+    private static final SparseArray<LogoAtlas> sAtlases = new SparseArray<LogoAtlas>(1);
+
+    private final Bitmap mBitmap;
+    private final Rect[] mRegions;
+
+    /**
+     * Returns the atlas for the density of the resources, packing it on first use
+     */
+    public static synchronized LogoAtlas get(Resources resources) {
+        final int density = resources.getDisplayMetrics().densityDpi;
+        LogoAtlas atlas = sAtlases.get(density);
+        if (atlas == null) {
+            atlas = new LogoAtlas(resources);
+            sAtlases.put(density, atlas);
+        }
+        return atlas;
+    }
+
+    /**
+     * Drops the atlases, the next {@link #get(Resources)} packs a new one
+     */
+    public static synchronized void clear() {
+        sAtlases.clear();
+    }
+
+    private LogoAtlas(Resources resources) {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+
+        final Bitmap[] images = new Bitmap[IMAGES.length];
+        int width = 0;
+        int height = 0;
+        for (int i = 0; i < IMAGES.length; i++) {
+            images[i] = BitmapFactory.decodeResource(resources, IMAGES[i], options);
+            width += images[i].getWidth() + GUTTER;
+            height = Math.max(height, images[i].getHeight());
+        }
+
+        mBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        mBitmap.setDensity(resources.getDisplayMetrics().densityDpi);
+        mRegions = new Rect[IMAGES.length];
+        final Canvas canvas = new Canvas(mBitmap);
+        int left = 0;
+        for (int i = 0; i < IMAGES.length; i++) {
+            final Bitmap image = images[i];
+            mRegions[i] = new Rect(left, 0, left + image.getWidth(), image.getHeight());
+            canvas.drawBitmap(image, null, mRegions[i], null);
+            left += image.getWidth() + GUTTER;
+            image.recycle();
+        }
+    }
+
+    /**
+     * Returns a new drawable of one of the packed images
+     *
+     * @throws IllegalArgumentException if the image is not in the atlas.
+     */
+    public Drawable getDrawable(@DrawableRes int image) {
+        for (int i = 0; i < IMAGES.length; i++) {
+            if (IMAGES[i] == image) {
+                return new AtlasDrawable(mBitmap, mRegions[i]);
+            }
+        }
+        throw new IllegalArgumentException("Image not in the atlas: " + image);
+    }
+}
@@ -7,10 +7,35 @@ import android.os.Build;
  */
 public class AndroidUtils {
 
+    //SDK 11 Version 3.0
+    public final static boolean honeycombOrBetter(){
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB;
+    }
+
     //SDK 14 Version 4.0
     public final static boolean icsOrBetter(){
         return Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH;
     }
 
+    //SDK 16 Version 4.1, first version with Choreographer
+    public final static boolean jellyBeanOrBetter(){
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+    }
+
+    //SDK 18 Version 4.3, first version where clipPath() is hardware accelerated
+    public final static boolean jellyBeanMR2OrBetter(){
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+    }
+
+    //SDK 21 Version 5.0
+    public final static boolean lollipopOrBetter(){
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP;
+    }
+
+    //SDK 23 Version 6.0, first version that draws pictures on hardware accelerated canvases
+    public final static boolean marshmallowOrBetter(){
+        return Build.VERSION.SDK_INT >= 23;
+    }
+
     private AndroidUtils(){}
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2015 Vinay Gaba
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.vinaygaba.creditcardview.util;
+
+import android.annotation.TargetApi;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * Runs a task at most once per frame no matter how often it is scheduled. Uses
+ * {@link Choreographer} on Jelly Bean and above and a main thread {@link Handler} before that.
+ * Must be used on the main thread.
+ */
+public class FrameScheduler {
+
+    private final Runnable mTask;
+    private final Handler mHandler;
+    private final Object mFrameCallback;
+    private boolean mIsScheduled;
+
+    private final Runnable mRunTask = new Runnable() {
+        @Override
+        public void run() {
+            runTask();
+        }
+    };
+
+    public FrameScheduler(Runnable task) {
+        mTask = task;
+        if (AndroidUtils.jellyBeanOrBetter()) {
+            mHandler = null;
+            mFrameCallback = createFrameCallback();
+        } else {
+            mHandler = new Handler(Looper.getMainLooper());
+            mFrameCallback = null;
+        }
+    }
+
+    /**
+     * Runs the task on the next frame, unless it is already scheduled
+     */
+    public void schedule() {
+        if (mIsScheduled) {
+            return;
+        }
+        mIsScheduled = true;
+        if (mFrameCallback != null) {
+            postFrameCallback();
+        } else {
+            mHandler.post(mRunTask);
+        }
+    }
+
+    /**
+     * Drops a scheduled run of the task
+     */
+    public void cancel() {
+        if (!mIsScheduled) {
+            return;
+        }
+        mIsScheduled = false;
+        if (mFrameCallback != null) {
+            removeFrameCallback();
+        } else {
+            mHandler.removeCallbacks(mRunTask);
+        }
+    }
+
+    public boolean isScheduled() {
+        return mIsScheduled;
+    }
+
+    private void runTask() {
+        mIsScheduled = false;
+        mTask.run();
+    }
+
+    @TargetApi(16)
+    private Object createFrameCallback() {
+        return new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                runTask();
+            }
+        };
+    }
+
+    @TargetApi(16)
+    private void postFrameCallback() {
+        Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) mFrameCallback);
+    }
+
+    @TargetApi(16)
+    private void removeFrameCallback() {
+        Choreographer.getInstance()
+                .removeFrameCallback((Choreographer.FrameCallback) mFrameCallback);
+    }
+}
@@ -2,14 +2,57 @@ package com.vinaygaba.creditcardview.sample;
 
 import android.os.Bundle;
 import android.support.v7.app.AppCompatActivity;
+import android.view.Menu;
+import android.view.MenuItem;
+
+import com.vinaygaba.creditcardview.CardDataGenerator;
+import com.vinaygaba.creditcardview.CardFieldBuffer;
+import com.vinaygaba.creditcardview.CardType;
+import com.vinaygaba.creditcardview.CreditCardView;
 
 
 public class MainActivity extends AppCompatActivity {
 
+    // Fixed so every run shows the same sequence of cards
+    private static final long DATASET_SEED = 2015;
+
+    private final CardDataGenerator mGenerator = new CardDataGenerator(DATASET_SEED);
+    private final CardFieldBuffer mCardNumber = new CardFieldBuffer();
+    private final CardFieldBuffer mCardName = new CardFieldBuffer();
+    private final CardFieldBuffer mExpiryDate = new CardFieldBuffer();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
     }
 
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_main, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == R.id.action_generate_cards) {
+            generateCard((CreditCardView) findViewById(R.id.card1));
+            generateCard((CreditCardView) findViewById(R.id.card2));
+            generateCard((CreditCardView) findViewById(R.id.card3));
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    /**
+     * Shows the next generated record on a card
+     */
+    private void generateCard(CreditCardView card) {
+        mGenerator.next(mCardNumber, mCardName, mExpiryDate);
+        card.setCardNumber(mCardNumber.toString());
+        card.setCardName(mCardName.toString());
+        card.setExpiryDate(mExpiryDate.toString());
+        card.setType(CardType.AUTO);
+    }
+
 }